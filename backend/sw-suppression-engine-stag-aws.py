@@ -1,9 +1,18 @@
+import functools
+import json
 import logging
 import os
+import random
 import re
+import time
+import zlib
+from collections import deque
+from concurrent.futures import ThreadPoolExecutor
 from datetime import datetime, timezone
 from typing import List, Dict, Optional
 from boto3.dynamodb.conditions import Key, Attr
+from boto3.dynamodb.types import Binary
+from botocore.exceptions import ClientError
 import boto3
 
 # Remote debugging support for PyCharm/IntelliJ
@@ -24,6 +33,18 @@ if DEBUG_MODE:
 logger = logging.getLogger()
 RULES_TABLE_NAME = os.environ['eSecHubSuppressTableName']
 CACHE_TABLE_NAME = os.environ['eSecHubSuppressCache']
+# Cache items of schema version 2 hold only what the apply step needs. Items without CacheSchema are version 1,
+# which carried the whole finding (SecurityHubFinding.to_dict()) and are still applied until the cache is drained.
+CACHE_ITEM_SCHEMA_VERSION = 2
+# Longest note text batch_update_findings accepts; a note is at most this long, and so is the one written back
+NOTE_TEXT_MAX_LENGTH = 512
+NOTE_SEPARATOR = "\n---\n"
+# Per-rule daily match/apply counters read by the portal; counting is off when no table is configured
+RULE_COUNTERS_TABLE_NAME = os.environ.get('eSecHubRuleCountersTable', '')
+RULE_COUNTERS_RETENTION_DAYS = int(os.environ.get("RULE_COUNTERS_RETENTION_DAYS", "40"))
+RULE_COUNTERS_WRITERS = 8
+RULE_COUNTERS_MAX_ATTEMPTS = 3
+THROTTLING_ERROR_CODES = ("ProvisionedThroughputExceededException", "ThrottlingException", "RequestLimitExceeded")
 EXECUTION_MODE = os.environ.get("EXECUTION_MODE", "log").lower()  # 'execute' or 'log'
 
 # Read log level from env var, default to INFO
@@ -36,11 +57,86 @@ logger.setLevel(getattr(logging, LOGGING_LEVEL))
 
 #logger.setLevel(logging.INFO)
 
+# Decisions are reported once per invocation as CloudWatch embedded metrics (DecisionMetrics). The per-rule
+# decisions of a finding are only logged for a sampled share of findings, or for every finding at DEBUG level.
+DECISION_METRICS_NAMESPACE = os.environ.get("DECISION_METRICS_NAMESPACE", "SuppressionEngine")
+DECISION_TRACE_SAMPLE_RATE = float(os.environ.get("DECISION_TRACE_SAMPLE_RATE", "0"))
+
+# Micro-batch ingestion: Security Hub events are buffered on an SQS queue and delivered in batches
+INGEST_BATCH_SIZE = int(os.environ.get("INGEST_BATCH_SIZE", "100"))
+INGEST_MAX_LATENCY_SECONDS = int(os.environ.get("INGEST_MAX_LATENCY_SECONDS", "10"))
+
+# The portal stores long text attributes compressed (CompressedTextConverter): a binary value made of this marker
+# followed by a zlib stream of the UTF-8 text. Shorter values, and rules written before, are plain strings.
+COMPRESSED_TEXT_MARKER = b"cz\x01"
+COMPRESSED_TEXT_FIELDS = ("description", "resource_pattern", "extra_resource_pattern", "account_exception", "account_inclusion")
+
 dynamodb = boto3.resource('dynamodb')
 securityhub = boto3.client('securityhub')
 ssm = boto3.client("ssm")
 
 
+class DecisionMetrics:
+    """
+        Aggregated decisions and phase timings of one invocation, written by emit as a single log line in the
+        CloudWatch Embedded Metric Format: CloudWatch extracts the counters and timings as metrics of the
+        invocation's trigger, and the line keeps the matches per RuleId as a property for Logs Insights
+        (per-rule metrics would be a custom metric per rule; the rule counters table has the history per rule).
+        Phase times nest, e.g. CacheWrite is part of Evaluate.
+    """
+    COUNTERS = ("FindingsSeen", "CandidatesTested", "RulesSkipped", "Matches", "FindingsCached", "FindingsUpdated")
+
+    def __init__(self):
+        self.trigger = "Unknown"
+        self.counters = dict.fromkeys(self.COUNTERS, 0)
+        self.rule_matches: Dict[str, int] = {}
+        self.phase_millis: Dict[str, float] = {}
+
+    def count(self, counter: str, value: int = 1):
+        self.counters[counter] += value
+
+    def count_match(self, rule_id: str):
+        self.counters["Matches"] += 1
+        self.rule_matches[rule_id] = self.rule_matches.get(rule_id, 0) + 1
+
+    def add_phase_time(self, phase: str, seconds: float):
+        self.phase_millis[phase] = self.phase_millis.get(phase, 0.0) + seconds * 1000
+
+    def emit(self):
+        metrics = [{"Name": name, "Unit": "Count"} for name in self.COUNTERS]
+        metrics += [{"Name": f"{phase}Time", "Unit": "Milliseconds"} for phase in self.phase_millis]
+        document = {
+            "_aws": {
+                "Timestamp": int(time.time() * 1000),
+                "CloudWatchMetrics": [{
+                    "Namespace": DECISION_METRICS_NAMESPACE,
+                    "Dimensions": [["Trigger"]],
+                    "Metrics": metrics
+                }]
+            },
+            "Trigger": self.trigger,
+            **self.counters,
+            **{f"{phase}Time": round(millis, 3) for phase, millis in self.phase_millis.items()},
+            "RuleMatches": self.rule_matches
+        }
+        # Printed rather than logged: CloudWatch only extracts metrics from log events that are a JSON document
+        print(json.dumps(document))
+
+
+def timed_phase(phase: str):
+    """Adds the run time of an engine method to its phase in the engine's DecisionMetrics."""
+    def decorate(method):
+        @functools.wraps(method)
+        def timed(self, *args, **kwargs):
+            start = time.perf_counter()
+            try:
+                return method(self, *args, **kwargs)
+            finally:
+                self.metrics.add_phase_time(phase, time.perf_counter() - start)
+        return timed
+    return decorate
+
+
 class SecurityHubFinding:
 
     def __init__(self, payload):
@@ -127,8 +223,29 @@ class SecurityHubFinding:
         }
 
 
+def decode_text_attribute(value):
+    if value is None or isinstance(value, str):
+        return value
+    raw = bytes(value.value) if isinstance(value, Binary) else bytes(value)
+    if not raw.startswith(COMPRESSED_TEXT_MARKER):
+        raise ValueError("Binary text attribute without a known format marker")
+    return zlib.decompress(raw[len(COMPRESSED_TEXT_MARKER):]).decode("utf-8")
+
+
+def is_compact_cache_item(item: Dict) -> bool:
+    return int(item.get("CacheSchema", 1)) >= 2
+
+
+def cached_finding_identifiers(item: Dict) -> List[Dict]:
+    if is_compact_cache_item(item):
+        return [{"Id": item["FindingId"], "ProductArn": item["ProductArn"]}]
+    return item["Finding"]["finding_identifiers"]
+
+
 class Rule:
     def __init__(self, rule_data: Dict):
+        rule_data = {**rule_data, **{field: decode_text_attribute(rule_data[field])
+                                     for field in COMPRESSED_TEXT_FIELDS if field in rule_data}}
         self.id = rule_data['id']
         self.product_name = rule_data.get('product_name')
         self.ser_id = rule_data.get('ser_id')
@@ -142,9 +259,27 @@ class Rule:
         self.from_severity = rule_data.get('from_severity', '')
         self.to_severity = rule_data.get('to_severity', '')
         self.due_date = self._parse_due_date(rule_data.get('due_date'))
+        # Patterns are compiled once per rule load instead of on every re.search call
+        self.pattern_errors = []
+        self.id_prefix_re = self._compile_pattern('id', r'^' + self.id.strip("*")) if self.product_name == "Inspector" else None
+        self.resource_pattern_re = self._compile_pattern('resource_pattern', self.resource_pattern)
+        self.resource_type_re = self._compile_pattern('resource_type', self.resource_type)
+        self.extra_resource_pattern_re = self._compile_pattern('extra_resource_pattern', self.extra_resource_pattern)
         self.valid_rule = self._validate_rule()
 
+    def _compile_pattern(self, field: str, pattern: str):
+        if not pattern:
+            return None
+        try:
+            return re.compile(pattern)
+        except re.error as e:
+            logger.error(f"Suppression rule (Id - {self.id}) has invalid {field} pattern '{pattern}' - {e}")
+            self.pattern_errors.append(field)
+            return None
+
     def _validate_rule(self):
+        if self.pattern_errors:
+            return False
         if self.product_name == "Inspector":
             # ResourcePattern + ID cross-validation
             trimmed_id = self.id.strip() if self.id else ""
@@ -201,9 +336,8 @@ class Rule:
         else:
             if self.product_name == "Inspector":
                 # 🔍 BREAKPOINT 14: Inspector prefix matching
-                id_prefix = re.compile(r'^' + self.id.strip("*"))
                 logger.debug(f"🔍 Testing Inspector prefix pattern: ^{self.id.strip('*')}")
-                if id_prefix.search(finding.id):
+                if self.id_prefix_re.search(finding.id):
                     id_match = True
                     logger.debug(f"✅ Prefix ID match: {finding.id} matches ^{self.id.strip('*')}")
                 else:
@@ -240,7 +374,7 @@ class Rule:
         # 🔍 BREAKPOINT 17: Extra resource pattern check
         extra_pattern_match = True
         if self.extra_resource_pattern:
-            extra_pattern_match = bool(re.search(self.extra_resource_pattern, finding.extra_resource_arn))
+            extra_pattern_match = bool(self.extra_resource_pattern_re.search(finding.extra_resource_arn))
             logger.debug(f"🔍 Extra resource pattern: '{self.extra_resource_pattern}' vs '{finding.extra_resource_arn}' = {extra_pattern_match}")
         
         if not extra_pattern_match:
@@ -268,8 +402,8 @@ class Rule:
         
         if len(self.resource_pattern) > 0 and len(self.resource_type) > 0:
             # 🔍 BREAKPOINT 20: Both pattern and type matching
-            pattern_match = re.search(self.resource_pattern, finding.resource_id)
-            type_match = re.search(self.resource_type, finding.resource_type)
+            pattern_match = self.resource_pattern_re.search(finding.resource_id)
+            type_match = self.resource_type_re.search(finding.resource_type)
             logger.debug(f"   Pattern match result: {pattern_match is not None}")
             logger.debug(f"   Type match result: {type_match is not None}")
             
@@ -282,7 +416,7 @@ class Rule:
                 
         elif len(self.resource_pattern) > 0:
             # 🔍 BREAKPOINT 21: Pattern-only matching
-            pattern_match = re.search(self.resource_pattern, finding.resource_id)
+            pattern_match = self.resource_pattern_re.search(finding.resource_id)
             logger.debug(f"   Pattern-only match: {pattern_match is not None}")
             if pattern_match:
                 logger.debug(f"✅ Pattern matched: '{pattern_match.group()}'")
@@ -293,7 +427,7 @@ class Rule:
                 
         elif len(self.resource_type) > 0:
             # 🔍 BREAKPOINT 22: Type-only matching
-            type_match = re.search(self.resource_type, finding.resource_type)
+            type_match = self.resource_type_re.search(finding.resource_type)
             logger.debug(f"   Type-only match: {type_match is not None}")
             if type_match:
                 logger.debug(f"✅ Type matched")
@@ -311,8 +445,13 @@ class SuppressionRuleEngine:
     def __init__(self):
         self.rules_table = dynamodb.Table(RULES_TABLE_NAME)
         self.cache_table = dynamodb.Table(CACHE_TABLE_NAME)
+        self.metrics = DecisionMetrics()
         self.rules: List[Rule] = self.load_rules()
         self.rule_ids = {rule.id for rule in self.rules}
+        # Matched findings waiting to be written to the cache, keyed by the cache table's (FindingId, RuleId) key
+        self.pending_cache_items: Dict[tuple, Dict] = {}
+        # Matches and applied findings per RuleId during this invocation, written once by flush_rule_counters
+        self.rule_counters: Dict[str, Dict[str, int]] = {}
 
         self.supported_regions_ssm_param_name = os.environ.get("SUPPORTED_REGIONS_SSM_PARAMETER",
                                                                "/security-tools/suppression-engine/supported-regions")
@@ -349,46 +488,165 @@ class SuppressionRuleEngine:
             logger.info(f"[LOG MODE] Would call batch_update_findings with: {kwargs}")
             return {"ProcessedFindings": [], "UnprocessedFindings": []}
 
+    @timed_phase("LoadRules")
     def load_rules(self) -> List[Rule]:
         response = self.rules_table.scan()
         rules = [Rule(item) for item in response['Items']]
         logger.info(f"Loaded {len(rules)} suppression rules.")
         return rules
 
+    def _queue_cache_item(self, item: Dict):
+        # Last write wins for the same (FindingId, RuleId), same as consecutive put_item calls would
+        # CachedAt (epoch seconds) lets the portal's pending-suppression view show how long actions have been waiting
+        item.setdefault('CachedAt', int(time.time()))
+        self.pending_cache_items[(item['FindingId'], item['RuleId'])] = item
+
+    @timed_phase("CacheWrite")
+    def flush_cache_items(self) -> int:
+        """
+            Write all queued cache items using a batch writer.
+            The batch writer sends 25 items per BatchWriteItem call and re-sends any UnprocessedItems
+            until the buffer is empty, so a page of N matched findings costs roughly N/25 round trips.
+        """
+        if not self.pending_cache_items:
+            return 0
+        items = list(self.pending_cache_items.values())
+        self.pending_cache_items.clear()
+        with self.cache_table.batch_writer(overwrite_by_pkeys=["FindingId", "RuleId"]) as writer:
+            for item in items:
+                writer.put_item(Item=item)
+        self.metrics.count("FindingsCached", len(items))
+        logger.info(f"Flushed {len(items)} cached findings to {CACHE_TABLE_NAME}.")
+        return len(items)
+
+    def _count_rule(self, rule_id: str, counter: str, count: int = 1):
+        counters = self.rule_counters.setdefault(rule_id, {"Matches": 0, "Applied": 0})
+        counters[counter] += count
+
+    @timed_phase("RuleCounters")
+    def flush_rule_counters(self) -> int:
+        """
+            Adds this invocation's counts to the rule's counter item of the day (RuleId, Day) with one atomic ADD
+            UpdateItem per rule, sent in parallel. ADD commutes, so invocations updating the same rules at the
+            same time never conflict; only throttled updates are tried again.
+            Counters are statistics only: a failure is logged and never fails the invocation.
+        """
+        if not RULE_COUNTERS_TABLE_NAME or not self.rule_counters:
+            self.rule_counters.clear()
+            return 0
+        now = int(time.time())
+        day = datetime.now(timezone.utc).strftime('%Y-%m-%d')
+        expires_at = now + RULE_COUNTERS_RETENTION_DAYS * 86400
+        updates = []
+        for rule_id, counters in self.rule_counters.items():
+            expression = "ADD Matches :matches, Applied :applied SET ExpiresAt = :expires"
+            values = {":matches": counters["Matches"], ":applied": counters["Applied"], ":expires": expires_at}
+            if counters["Matches"]:
+                expression += ", LastMatchedAt = :now"
+                values[":now"] = now
+            if counters["Applied"]:
+                expression += ", LastAppliedAt = :now"
+                values[":now"] = now
+            updates.append({
+                "TableName": RULE_COUNTERS_TABLE_NAME,
+                "Key": {"RuleId": rule_id, "Day": day},
+                "UpdateExpression": expression,
+                "ExpressionAttributeValues": values
+            })
+        self.rule_counters.clear()
+        with ThreadPoolExecutor(max_workers=min(RULE_COUNTERS_WRITERS, len(updates))) as writers:
+            written = sum(writers.map(self._add_rule_counters, updates))
+        logger.info(f"Added match counts of {written} rules to {RULE_COUNTERS_TABLE_NAME}.")
+        return written
+
+    @staticmethod
+    def _add_rule_counters(update: Dict) -> int:
+        for attempt in range(1, RULE_COUNTERS_MAX_ATTEMPTS + 1):
+            try:
+                dynamodb.meta.client.update_item(**update)
+                return 1
+            except ClientError as e:
+                if e.response.get("Error", {}).get("Code") in THROTTLING_ERROR_CODES and attempt < RULE_COUNTERS_MAX_ATTEMPTS:
+                    time.sleep(0.05 * (2 ** attempt) * (1 + random.random()))
+                    continue
+                logger.error(f"Failed to add the counts of RuleId={update['Key']['RuleId']} to {RULE_COUNTERS_TABLE_NAME}: {e}")
+                return 0
+            except Exception as e:
+                logger.error(f"Failed to add the counts of RuleId={update['Key']['RuleId']} to {RULE_COUNTERS_TABLE_NAME}: {e}")
+                return 0
+        return 0
+
+    @staticmethod
+    def _cache_item(finding: SecurityHubFinding, rule_id: str, ser_id: str, action: str, old_status: str,
+                    new_status: str) -> Dict:
+        """
+            Compact cache item: the finding's identifier, the action to apply and the note the finding had
+            (NoteText, left out when it had none), which the applied note is appended to. The SER link and due
+            date are taken from the rule when applying.
+            RuleId, SerId, Action, OldStatus, NewStatus and CachedAt are projected by the portal's GSI.
+        """
+        identifier = finding.finding_identifiers[0]
+        item = {
+            'CacheSchema': CACHE_ITEM_SCHEMA_VERSION,
+            'FindingId': identifier['Id'],
+            'ProductArn': identifier['ProductArn'],
+            'RuleId': rule_id,
+            'SerId': ser_id,
+            'Action': action,
+            'OldStatus': old_status,
+            'NewStatus': new_status
+        }
+        note_text = finding.note.get("Text") if isinstance(finding.note, dict) else None
+        if note_text:
+            # Security Hub keeps notes within this length already, the cap only guards the item size
+            item['NoteText'] = note_text[-NOTE_TEXT_MAX_LENGTH:]
+        return item
+
+    @staticmethod
+    def _previous_note_text(item: Dict) -> Optional[str]:
+        """Text of the note the finding had when it was cached, which the applied note is appended to."""
+        if not is_compact_cache_item(item):
+            note = item["Finding"].get("notes", {})
+            return note["Text"] if note and isinstance(note, dict) and "Text" in note else None
+        return item.get("NoteText")
+
+    @staticmethod
+    def _combined_note_text(existing_note_text: Optional[str], new_note_text: str) -> str:
+        """The applied note appended to the previous one, dropping the oldest text beyond the note length limit."""
+        if not existing_note_text:
+            return new_note_text[-NOTE_TEXT_MAX_LENGTH:]
+        combined_text = f"{existing_note_text}{NOTE_SEPARATOR}{new_note_text}"
+        return combined_text[-NOTE_TEXT_MAX_LENGTH:]
+
     def cache_eligible_for_suppression_finding(
             self,
             finding: SecurityHubFinding,
             event_type: str = "current",
             old_status: str = "NEW",
             new_status: str = "SUPPRESSED"):
-        logger.info(f"Checking if eligible for {event_type} event with finding as {finding}")
+        # Per-rule decisions are only logged for traced findings, the rest is counted in self.metrics
+        traced = logger.isEnabledFor(logging.DEBUG) or random.random() < DECISION_TRACE_SAMPLE_RATE
+        self.metrics.count("FindingsSeen")
+        if traced:
+            logger.info(f"Checking if eligible for {event_type} event with finding as {finding}")
         finding_id_arn = finding.finding_identifiers[0]['Id']
         for rule in self.rules:
-            if rule.is_expired():
-                logger.info(f"rule {rule.id} is expired so skipping match.")
-                continue
-            if not rule.valid_rule:
-                logger.info(f"rule {rule.id} is not valid so skipping match.")
+            if rule.is_expired() or not rule.valid_rule:
+                self.metrics.count("RulesSkipped")
+                if traced:
+                    logger.info(f"rule {rule.id} is {'expired' if rule.is_expired() else 'not valid'} so skipping match.")
                 continue
+            self.metrics.count("CandidatesTested")
             match_result = rule.matches(finding)
             if match_result:
-                item = {
-                    'FindingId': finding_id_arn,
-                    'RuleId': rule.id,
-                    'SerId': rule.ser_id,
-                    'SerLink': rule.ser_link,
-                    'Finding': finding.to_dict(),
-                    'Action': match_result["action"],
-                    'OldStatus': old_status,
-                    'NewStatus': new_status
-                }
+                self._count_rule(rule.id, "Matches")
+                self.metrics.count_match(rule.id)
+                item = self._cache_item(finding, rule.id, rule.ser_id, match_result["action"], old_status, new_status)
                 if match_result["action"] == "severity_update":
                     item["NewSeverity"] = match_result["new_severity"]
-                if rule.due_date:
-                    item["SerDueDate"] = rule.due_date.strftime('%m/%d/%Y')
                 if event_type == "historic" and old_status == "SUPPRESSED" and finding.udf and 'RuleId' in finding.udf:
                     if finding.udf['RuleId'] != rule.id:
-                        self.cache_table.put_item(Item=item)
+                        self._queue_cache_item(item)
                         logger.info(
                             f"Caching historic finding {finding_id_arn} matched with rule {rule.id} which is eligible for re-suppression.")
                         return
@@ -397,31 +655,42 @@ class SuppressionRuleEngine:
                             f"Historic finding {finding_id_arn} matched with rule {rule.id} but was already suppressed with this rule so skipping.")
                         return
                 else:
-                    self.cache_table.put_item(Item=item)
+                    self._queue_cache_item(item)
                     logger.info(
                         f"Caching finding {finding_id_arn} matched with rule {rule.id} which is eligible for suppression.")
                     return
-            else:
-                logger.info(f"No match found for rule {rule.id} for finding : {finding}.")
+            elif traced:
+                logger.info(f"No match found for rule {rule.id} for finding {finding_id_arn}.")
 
         if event_type == "historic" and old_status == "SUPPRESSED":
             if finding.udf and 'RuleId' in finding.udf:
-                item = {
-                    'FindingId': finding_id_arn,
-                    'RuleId': finding.udf['RuleId'],
-                    'SerId': finding.udf['SerId'],
-                    'SerLink': finding.udf['SerLink'],
-                    'Finding': finding.to_dict(),
-                    'Action': "unsuppress",
-                    'OldStatus': old_status,
-                    'NewStatus': new_status
-                }
-                self.cache_table.put_item(Item=item)
+                item = self._cache_item(finding, finding.udf['RuleId'], finding.udf['SerId'], "unsuppress", old_status,
+                                        new_status)
+                self._queue_cache_item(item)
                 logger.info(
                     f"Historic finding {finding_id_arn} and now has no rule matched so eligible for un-suppress.")
-        else:
+        elif traced:
             logger.info(f"No rule matched for {finding_id_arn} so it is not eligible for suppression.")
 
+    @timed_phase("Evaluate")
+    def evaluate_finding_events(self, events: List[Dict]) -> int:
+        """
+            Evaluates all findings of a micro-batch of Security Hub events against the rule snapshot loaded once
+            for the batch, then writes every matched finding to the cache in one batched flush.
+        """
+        evaluated = 0
+        for event in events:
+            for finding in event.get("detail", {}).get("findings", []):
+                self.cache_eligible_for_suppression_finding(
+                    finding=SecurityHubFinding(finding),
+                    event_type="SecurityHub"
+                )
+                evaluated += 1
+        self.flush_cache_items()
+        logger.info(f"Evaluated {evaluated} findings from {len(events)} Security Hub events in one batch.")
+        return evaluated
+
+    @timed_phase("ApplyDeletedRules")
     def process_findings_from_cache_for_deleted_rules(self):
         """
             Process cached findings where the associated RuleId no longer exists.
@@ -440,7 +709,7 @@ class SuppressionRuleEngine:
             identifiers = []
             ident_to_cachekeys = {}
             for f in chunk:
-                for ident in f["Finding"]["finding_identifiers"]:
+                for ident in cached_finding_identifiers(f):
                     tup = (ident["Id"], ident["ProductArn"])
                     identifiers.append({"Id": tup[0], "ProductArn": tup[1]})
                     ident_to_cachekeys[tup] = {"FindingId": f["FindingId"], "RuleId": f["RuleId"]}
@@ -455,19 +724,7 @@ class SuppressionRuleEngine:
             now_str = datetime.now(timezone.utc).strftime("%Y-%m-%d %H:%M:%SZ")
             new_note_text = f"[{now_str}] RuleId={deleted_rule_id} deleted | Action=unsuppress"
 
-            first_item = chunk[0]
-            existing_note = first_item["Finding"].get("notes", {})
-            if existing_note and isinstance(existing_note, dict) and "Text" in existing_note:
-                combined_text = f"{existing_note['Text']}\n---\n{new_note_text}"
-            else:
-                combined_text = new_note_text
-
-            # Preserve UDF and add deleted markers
-            existing_udf = first_item["Finding"].get("udf", {}) or {}
-            udf = dict(existing_udf)
-            udf["Reason"] = "deleted"
-            udf["DeletedRuleId"] = deleted_rule_id
-
+            combined_text = self._combined_note_text(self._previous_note_text(chunk[0]), new_note_text)
 
             update_kwargs = {
                 "FindingIdentifiers": identifiers,
@@ -503,6 +760,8 @@ class SuppressionRuleEngine:
                         unprocessed_dict[u.get("FindingIdentifier", {}).get("Id",
                                                                             "unknown")] = f"Reason: {u.get('ErrorMessage', 'Unknown')}"
 
+                self.metrics.count("FindingsUpdated", len(processed_ids))
+
                 # Delete processed entries from cache
                 if processed_ids:
                     with self.cache_table.batch_writer() as writer:
@@ -535,6 +794,7 @@ class SuppressionRuleEngine:
 
 
 
+    @timed_phase("Apply")
     def process_findings_from_cache(self):
         for rule in self.rules:
             # Query cache by RuleId
@@ -552,7 +812,7 @@ class SuppressionRuleEngine:
                 identifiers = []
                 ident_to_cachekeys = {}
                 for f in chunk:
-                    for ident in f["Finding"]["finding_identifiers"]:
+                    for ident in cached_finding_identifiers(f):
                         tup = (ident["Id"], ident["ProductArn"])
                         identifiers.append({"Id": tup[0], "ProductArn": tup[1]})
                         ident_to_cachekeys[tup] = {"FindingId": f["FindingId"], "RuleId": f["RuleId"]}
@@ -566,8 +826,12 @@ class SuppressionRuleEngine:
                 action = first_item["Action"]
                 new_severity = first_item.get("NewSeverity")
                 ser_id = first_item.get("SerId")
-                ser_link = first_item.get("SerLink")
-                due_date = first_item.get("SerDueDate")
+                if is_compact_cache_item(first_item):
+                    ser_link = rule.ser_link
+                    due_date = rule.due_date.strftime('%m/%d/%Y') if rule.due_date else None
+                else:
+                    ser_link = first_item.get("SerLink")
+                    due_date = first_item.get("SerDueDate")
 
                 update_kwargs = {"FindingIdentifiers": identifiers}
 
@@ -587,12 +851,7 @@ class SuppressionRuleEngine:
                 new_note_text = f"[{current_dt}] Rule {rule.id} | Action={action} | {' | '.join(notes)}".strip(" |")
 
                 # Append to existing note if available
-                existing_note = first_item["Finding"].get("notes", {})
-
-                if existing_note and isinstance(existing_note, dict) and "Text" in existing_note:
-                    combined_text = f"{existing_note['Text']}\n---\n{new_note_text}"
-                else:
-                    combined_text = new_note_text
+                combined_text = self._combined_note_text(self._previous_note_text(first_item), new_note_text)
 
                 update_kwargs["Note"] = {
                     "Text": combined_text,
@@ -624,6 +883,11 @@ class SuppressionRuleEngine:
                             # defensive fallback
                             processed_ids.add((p.get("Id"), p.get("ProductArn")))
 
+                    self.metrics.count("FindingsUpdated", len(processed_ids))
+                    # Unsuppressing is not the rule firing, it is cached under the rule that stopped matching
+                    if action != "unsuppress":
+                        self._count_rule(rule.id, "Applied", len(processed_ids))
+
                     unprocessed_entries = resp.get("UnprocessedFindings", [])
                     unprocessed_dict = {}
 
@@ -677,6 +941,7 @@ class SuppressionRuleEngine:
         2. Suppress any historic finding which is in NEW state and now a rule exists to suppress it.
     '''
 
+    @timed_phase("HistoricSuppressed")
     def reevaluate_historic_suppressed_findings(self):
         logger.info(f"Will work on suppressed historic findings in {self.supported_regions[0]}")
         paginator = securityhub.get_paginator("get_findings")
@@ -716,10 +981,85 @@ class SuppressionRuleEngine:
                         old_status="SUPPRESSED",
                         new_status="NEW"
                     )
+                self.flush_cache_items()
         except Exception as e:
             logger.error(f'Exception happened while getting finding for SUPPRESSED so stopping further processing. Error : {e}')
             return
+        finally:
+            self.flush_cache_items()
 
+    @staticmethod
+    def _rule_change_filters(rule_image: Dict, regions: List[str]) -> Dict:
+        """
+            Narrowest get_findings filter that still returns every finding the given rule image could match in the
+            supported regions. The engine re-checks each returned finding with Rule.matches, so the filter only has
+            to be a superset.
+        """
+        rule = Rule({key: value for key, value in rule_image.items() if value is not None})
+        filters = {
+            "RecordState": [{"Value": "ACTIVE", "Comparison": "EQUALS"}],
+            "WorkflowStatus": [{"Value": "NEW", "Comparison": "EQUALS"},
+                               {"Value": "SUPPRESSED", "Comparison": "EQUALS"}],
+            "Region": [{"Value": region, "Comparison": "EQUALS"} for region in regions]
+        }
+        if rule.product_name == "Security Hub":
+            filters["ComplianceSecurityControlId"] = [{"Value": rule.id, "Comparison": "EQUALS"}]
+        else:
+            # get_findings cannot filter on the vulnerability id (Vulnerabilities[0].Id) an Inspector rule matches,
+            # so Inspector findings are narrowed by product and resource type and the id is left to Rule.matches
+            filters["ProductName"] = [{"Value": rule.product_name, "Comparison": "EQUALS"}]
+            # resource_type is matched with re.search, so only a plain string can be pushed down as CONTAINS
+            if rule.resource_type and re.escape(rule.resource_type) == rule.resource_type:
+                filters["ResourceType"] = [{"Value": rule.resource_type, "Comparison": "CONTAINS"}]
+        return filters
+
+    @timed_phase("RuleChange")
+    def reevaluate_findings_for_rule_change(self, change: Dict):
+        """
+            Re-evaluates only the findings a created, updated or deleted rule could affect, instead of waiting
+            for the historic schedulers to sweep every finding in every region.
+            The change carries the old and new rule image, findings matching either one are re-checked
+            against the current rule set (already loaded with the change applied).
+        """
+        rule_id = change.get("id")
+        images = [image for image in (change.get("old_rule"), change.get("new_rule")) if image]
+        logger.info(f"Rule change {change.get('action')} for RuleId={rule_id} SerId={change.get('ser_id')}, "
+                    f"re-evaluating findings for {len(images)} rule image(s)")
+        seen_finding_ids = set()
+        paginator = securityhub.get_paginator("get_findings")
+        try:
+            for image in images:
+                filters = self._rule_change_filters(image, self.supported_regions)
+                logger.debug(f"Querying findings for rule change with filters {filters}")
+                for page in paginator.paginate(Filters=filters):
+                    for finding in page.get("Findings", []):
+                        if finding["Id"] in seen_finding_ids:
+                            continue
+                        seen_finding_ids.add(finding["Id"])
+                        sec_hub_finding = SecurityHubFinding(finding)
+                        if sec_hub_finding.workflow_status == "SUPPRESSED":
+                            self.cache_eligible_for_suppression_finding(
+                                finding=sec_hub_finding,
+                                event_type="historic",
+                                old_status="SUPPRESSED",
+                                new_status="NEW"
+                            )
+                        else:
+                            self.cache_eligible_for_suppression_finding(
+                                finding=sec_hub_finding,
+                                event_type="historic",
+                                old_status="NEW",
+                                new_status="SUPPRESSED"
+                            )
+                    self.flush_cache_items()
+        except Exception as e:
+            logger.error(f'Exception happened while re-evaluating findings for RuleId={rule_id}. Error : {e}')
+            raise
+        finally:
+            self.flush_cache_items()
+        logger.info(f"Re-evaluated {len(seen_finding_ids)} findings for rule change on RuleId={rule_id}")
+
+    @timed_phase("HistoricNew")
     def reevaluate_historic_new_findings(self, context):
         logger.debug(f"Will work on new historic findings in {self.supported_regions[0]}")
         paginator = securityhub.get_paginator("get_findings")
@@ -748,15 +1088,82 @@ class SuppressionRuleEngine:
                         old_status="NEW",
                         new_status="SUPPRESSED"
                     )
+                self.flush_cache_items()
         except Exception as e:
             logger.error(f'Exception happened while getting finding for NEW so stopping further processing. Error : {e}')
             return
+        finally:
+            self.flush_cache_items()
+
+
+class LocalFindingEventQueue:
+    """
+        In-memory stand-in for the findings ingestion queue and its Lambda event source mapping, for tests and
+        local runs. Events are buffered and handed out as SQS-shaped Lambda events once either the batch size
+        is reached or the oldest buffered event has waited for the maximum latency.
+    """
+
+    def __init__(self, batch_size: int = INGEST_BATCH_SIZE, max_latency_seconds: float = INGEST_MAX_LATENCY_SECONDS):
+        self.batch_size = batch_size
+        self.max_latency_seconds = max_latency_seconds
+        self.buffer = deque()
+        self.message_count = 0
+
+    def put(self, event: Dict):
+        self.message_count += 1
+        self.buffer.append((f"local-{self.message_count}", time.monotonic(), event))
+
+    def poll(self, force: bool = False) -> Optional[Dict]:
+        if not self.buffer:
+            return None
+        oldest_enqueued_at = self.buffer[0][1]
+        if not force and len(self.buffer) < self.batch_size and \
+                time.monotonic() - oldest_enqueued_at < self.max_latency_seconds:
+            return None
+        records = []
+        while self.buffer and len(records) < self.batch_size:
+            message_id, _, event = self.buffer.popleft()
+            records.append({"messageId": message_id, "eventSource": "aws:sqs", "body": json.dumps(event)})
+        return {"Records": records}
+
+
+def _process_sqs_records(suppression_engine: SuppressionRuleEngine, records: List[Dict]) -> Dict:
+    """
+        Handles a batch delivered by an SQS event source mapping. Bodies are either Security Hub events
+        (findings ingestion queue) or rule change events published by the portal.
+    """
+    failed_message_ids = []
+    finding_events = []
+    finding_message_ids = []
+    for record in records:
+        try:
+            body = json.loads(record["body"])
+            if body.get("source") == "aws.securityhub":
+                finding_events.append(body)
+                finding_message_ids.append(record.get("messageId"))
+            else:
+                suppression_engine.reevaluate_findings_for_rule_change(body)
+        except Exception as e:
+            logger.error(f"Failed to process message {record.get('messageId')}. Error : {e}")
+            failed_message_ids.append(record.get("messageId"))
+
+    if finding_events:
+        try:
+            suppression_engine.evaluate_finding_events(finding_events)
+        except Exception as e:
+            logger.error(f"Failed to evaluate batch of {len(finding_events)} Security Hub events. Error : {e}")
+            failed_message_ids.extend(finding_message_ids)
+
+    # Only failed messages go back to the queue (ReportBatchItemFailures)
+    return {"batchItemFailures": [{"itemIdentifier": message_id} for message_id in failed_message_ids]}
 
 
 def lambda_handler(event, context):
     # 🔍 BREAKPOINT 1: Lambda entry point
     logger.info(f"🚀 Lambda handler started")
-    logger.info(f"Incoming event : {repr(event)}")
+    # The whole event only at DEBUG level, a micro-batch can carry hundreds of findings
+    if logger.isEnabledFor(logging.DEBUG):
+        logger.debug(f"Incoming event : {repr(event)}")
     
     # 🔍 BREAKPOINT 2: SuppressionRuleEngine initialization
     logger.info("🔧 Initializing SuppressionRuleEngine...")
@@ -768,30 +1175,37 @@ def lambda_handler(event, context):
     event_source = event.get("source")
     logger.info(f"📋 Event analysis: source={event_source}, scheduler_type={scheduler_type}")
 
+    try:
+        response = _handle_event(suppression_engine, event, context)
+        suppression_engine.flush_rule_counters()
+    finally:
+        # Also for a failed invocation, with what was decided until the failure
+        suppression_engine.metrics.emit()
+
+    # 🔍 BREAKPOINT 12: Lambda completion
+    logger.info("🏁 Lambda handler completed successfully")
+    return response
+
+
+def _handle_event(suppression_engine: SuppressionRuleEngine, event, context):
+    response = None
+    scheduler_type = event.get("scheduler-type")
+    event_source = event.get("source")
+    metrics = suppression_engine.metrics
+
     # --- Case 2: New Security Hub finding ---
     if event_source == "aws.securityhub":
         # 🔍 BREAKPOINT 4: Security Hub event processing
         logger.info("🎯 Event type : SecurityHub")
-        findings = event.get("detail", {}).get("findings", [])
-        logger.info(f"📊 Processing {len(findings)} findings")
-        
-        for i, finding in enumerate(findings, 1):
-            # 🔍 BREAKPOINT 5: Individual finding processing
-            logger.info(f"🔍 Processing finding {i}/{len(findings)}")
-            sec_hub_finding = SecurityHubFinding(finding)
-            logger.info(f"✅ Transformed to SecurityHubFinding: {sec_hub_finding}")
-            
-            # 🔍 BREAKPOINT 6: Cache eligibility check
-            logger.info(f"🎯 Checking eligibility for suppression...")
-            suppression_engine.cache_eligible_for_suppression_finding(
-                finding=sec_hub_finding,
-                event_type="SecurityHub"
-            )
+        metrics.trigger = "SecurityHub"
+        # 🔍 BREAKPOINT 5: Evaluate all findings, then write all matched findings in one batch
+        suppression_engine.evaluate_finding_events([event])
 
     # --- Case 3: Scheduled rule ---
     elif scheduler_type:
         # 🔍 BREAKPOINT 7: Scheduled event processing
         logger.info(f"🎯 Event type : Scheduled ({scheduler_type})")
+        metrics.trigger = scheduler_type
         
         if scheduler_type == 'historic-suppressed':
             # 🔍 BREAKPOINT 8: Historic suppressed findings
@@ -814,10 +1228,15 @@ def lambda_handler(event, context):
         else:
             logger.warning(f"❌ Unknown scheduler type: {scheduler_type}")
 
+    # --- Case 4: Queued Security Hub events (micro-batch ingestion) or rule changes published by the portal ---
+    elif event.get("Records") and event["Records"][0].get("eventSource") == "aws:sqs":
+        logger.info(f"🎯 Event type : SQS batch ({len(event['Records'])} records)")
+        metrics.trigger = "SQS"
+        response = _process_sqs_records(suppression_engine, event["Records"])
+
     else:
         # 🔍 BREAKPOINT 11: Unknown event type
         logger.warning("❌ Unknown event type received")
         logger.warning(f"Event details: {json.dumps(event, indent=2)}")
-    
-    # 🔍 BREAKPOINT 12: Lambda completion
-    logger.info("🏁 Lambda handler completed successfully")
+
+    return response
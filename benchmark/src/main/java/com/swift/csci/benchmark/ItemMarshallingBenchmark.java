@@ -0,0 +1,129 @@
+package com.swift.csci.benchmark;
+
+import com.amazonaws.auth.AWSStaticCredentialsProvider;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.client.builder.AwsClientBuilder;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperTableModel;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.swift.csci.model.SuppressionData;
+import com.swift.csci.model.SuppressionDataSchema;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converting a 10k item scan page of the SuppressionData table, DynamoDBMapper against SuppressionDataSchema,
+ * in both directions. No request is sent; the client only backs the mapper.
+ * <p>
+ * texts=plain has only short text attributes, so it measures the conversion itself; texts=compressed has a share
+ * of long descriptions and account lists as written by CompressedTextConverter, as in the production table, where
+ * inflating them takes a good part of the time with either implementation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItemMarshallingBenchmark {
+    private static final int PAGE_SIZE = 10_000;
+
+    @Param({"plain", "compressed"})
+    private String texts;
+
+    private AmazonDynamoDB client;
+    private DynamoDBMapper mapper;
+    private DynamoDBMapperTableModel<SuppressionData> tableModel;
+    private List<SuppressionData> rules;
+    private List<Map<String, AttributeValue>> page;
+
+    @Setup
+    public void setUp() {
+        client = AmazonDynamoDBClientBuilder.standard()
+                .withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration("http://localhost:8000", "eu-central-1"))
+                .withCredentials(new AWSStaticCredentialsProvider(new BasicAWSCredentials("benchmark", "benchmark")))
+                .build();
+        mapper = new DynamoDBMapper(client);
+        tableModel = mapper.getTableModel(SuppressionData.class);
+        boolean compressed = texts.equals("compressed");
+        Random random = new Random(1);
+        rules = new ArrayList<>(PAGE_SIZE);
+        page = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            SuppressionData rule = rule(i, compressed, random);
+            rules.add(rule);
+            page.add(tableModel.convert(rule));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.shutdown();
+    }
+
+    @Benchmark
+    public List<SuppressionData> readWithMapper() {
+        return mapper.marshallIntoObjects(SuppressionData.class, page);
+    }
+
+    @Benchmark
+    public List<SuppressionData> readWithSchema() {
+        List<SuppressionData> result = new ArrayList<>(page.size());
+        for (Map<String, AttributeValue> item : page) {
+            result.add(SuppressionDataSchema.fromItem(item));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<Map<String, AttributeValue>> writeWithMapper() {
+        List<Map<String, AttributeValue>> result = new ArrayList<>(rules.size());
+        for (SuppressionData rule : rules) {
+            result.add(tableModel.convert(rule));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<Map<String, AttributeValue>> writeWithSchema() {
+        List<Map<String, AttributeValue>> result = new ArrayList<>(rules.size());
+        for (SuppressionData rule : rules) {
+            result.add(SuppressionDataSchema.toItem(rule));
+        }
+        return result;
+    }
+
+    // Shaped like the rules in the table: every tenth with a long description, a third with long account lists
+    private static SuppressionData rule(int i, boolean compressed, Random random) {
+        SuppressionData rule = new SuppressionData();
+        rule.setId("CVE-2024-" + i);
+        rule.setSerId("SER-" + (i % 50));
+        rule.setFindingTitle("Finding title " + i);
+        rule.setFindingType("Software and Configuration Checks/Vulnerabilities/CVE");
+        rule.setProductName(i % 2 == 0 ? "Inspector" : "Security Hub");
+        rule.setSerLink("https://ser.example.com/SER-" + (i % 50));
+        rule.setDueDate("2027-01-0" + (1 + i % 9));
+        rule.setDescription(compressed && i % 10 == 0 ? "Accepted risk, compensating control in place. ".repeat(10) : "Accepted risk");
+        StringBuilder accounts = new StringBuilder();
+        int accountCount = compressed ? (i % 3) * 30 : 1;
+        for (int k = 0; k < accountCount; k++) {
+            accounts.append(k == 0 ? "" : ",").append(100_000_000_000L + random.nextInt(1_000_000));
+        }
+        rule.setAccountInclusion(accounts.toString());
+        rule.setAccountException("");
+        rule.setFromSeverity("HIGH");
+        rule.setToSeverity("LOW");
+        rule.setResourceType("AwsLambdaFunction");
+        rule.setResourcePattern(i % 7 == 0 ? null : "arn:aws:lambda:.*:function:service-" + (i % 20) + "-.*");
+        rule.setExtraResourcePattern("");
+        rule.setLastModified(i % 5 == 0 ? null : 1_700_000_000_000L + i);
+        return rule;
+    }
+}
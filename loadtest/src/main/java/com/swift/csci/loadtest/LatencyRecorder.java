@@ -0,0 +1,82 @@
+package com.swift.csci.loadtest;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latency histogram and outcome counts of one operation. Buckets are log-linear (64 per power of two above
+ * 128 microseconds, so about 1.5% precision) and fixed in size, so recording allocates nothing. Each worker thread has its
+ * own recorders, merged after the run.
+ */
+final class LatencyRecorder {
+    private static final int LINEAR_LIMIT = 128;
+    private static final int SUB_BUCKETS = 64;
+    private static final int BUCKETS = LINEAR_LIMIT + (63 - 7) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private final Map<Integer, Long> statuses = new TreeMap<>();
+    private long count;
+    private long maxMicros;
+
+    void record(long micros, int status) {
+        counts[bucket(micros)]++;
+        count++;
+        maxMicros = Math.max(maxMicros, micros);
+        statuses.merge(status, 1L, Long::sum);
+    }
+
+    void merge(LatencyRecorder other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        maxMicros = Math.max(maxMicros, other.maxMicros);
+        other.statuses.forEach((status, n) -> statuses.merge(status, n, Long::sum));
+    }
+
+    long count() {
+        return count;
+    }
+
+    Map<Integer, Long> statuses() {
+        return statuses;
+    }
+
+    long maxMicros() {
+        return maxMicros;
+    }
+
+    // Upper bound of the bucket holding the given percentile
+    long percentileMicros(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile / 100 * count);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(maxMicros, lowerBound(i + 1) - 1);
+            }
+        }
+        return maxMicros;
+    }
+
+    static int bucket(long micros) {
+        if (micros < LINEAR_LIMIT) {
+            return (int) Math.max(0, micros);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int subBucket = (int) (micros >>> (exponent - 6)) & (SUB_BUCKETS - 1);
+        return LINEAR_LIMIT + (exponent - 7) * SUB_BUCKETS + subBucket;
+    }
+
+    static long lowerBound(int bucket) {
+        if (bucket < LINEAR_LIMIT) {
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + 7;
+        int subBucket = (bucket - LINEAR_LIMIT) % SUB_BUCKETS;
+        return (SUB_BUCKETS + (long) subBucket) << (exponent - 6);
+    }
+}
@@ -0,0 +1,81 @@
+package com.swift.csci.loadtest;
+
+import com.amazonaws.auth.AWSStaticCredentialsProvider;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.client.builder.AwsClientBuilder;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Capacity test of the portal against DynamoDB Local.
+ * <pre>
+ * 1. Start DynamoDB Local:
+ *      docker run -p 8000:8000 amazon/dynamodb-local -jar DynamoDBLocal.jar -sharedDb -inMemory
+ * 2. Seed the rule table:
+ *      mvn -f loadtest/pom.xml compile exec:java -Dexec.args="seed -rows 100000"
+ * 3. Start the portal with the local profile on DynamoDB Local (the testing.dynamodb.* fallback of DynamoDBConfig),
+ *    with the per-user write limits raised since all load test requests come from one address:
+ *      java -jar target/csci-app-0.1.0.jar --spring.profiles.active=local --amazon.useLocalCredentials=false \
+ *           --throttle.mutations.rate-per-second=100000 --throttle.mutations.burst=100000
+ * 4. Run a workload and compare the report with the previous run:
+ *      mvn -f loadtest/pom.xml compile exec:java -Dexec.args="run -rows 100000 -readers 50 -admins 5 -duration 120"
+ * </pre>
+ * seed options: -endpoint (http://localhost:8000), -region (eu-central-1), -table (the SuppressionData table),
+ * -rows (10000), -threads (8).
+ * run options: -url (http://localhost:8080), -rows (10000, as seeded), -readers (20), -admins (2),
+ * -warmup (10 s), -duration (60 s), -list-ratio (0.05, share of reader requests loading the list),
+ * -think-millis (0, pause between requests of a worker).
+ */
+public final class LoadTest {
+    private static final String DEFAULT_TABLE = "sw-securityhub-suppression-ser-db-v2-main-aws";
+
+    private LoadTest() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0 || !(args[0].equals("seed") || args[0].equals("run"))) {
+            System.err.println("Usage: LoadTest seed|run [-option value]..., see the LoadTest class documentation.");
+            System.exit(2);
+        }
+        Map<String, String> options = options(args);
+        long rows = Long.parseLong(options.getOrDefault("rows", "10000"));
+        if (args[0].equals("seed")) {
+            // DynamoDB Local accepts any credentials; the portal's local fallback uses test/test and eu-central-1
+            AmazonDynamoDB dynamoDb = AmazonDynamoDBClientBuilder.standard()
+                    .withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration(
+                            options.getOrDefault("endpoint", "http://localhost:8000"), options.getOrDefault("region", "eu-central-1")))
+                    .withCredentials(new AWSStaticCredentialsProvider(new BasicAWSCredentials("test", "test")))
+                    .build();
+            TableSeeder seeder = new TableSeeder(dynamoDb, options.getOrDefault("table", DEFAULT_TABLE));
+            seeder.createTableIfMissing();
+            seeder.seed(rows, Integer.parseInt(options.getOrDefault("threads", "8")));
+            dynamoDb.shutdown();
+            return;
+        }
+        int readers = Integer.parseInt(options.getOrDefault("readers", "20"));
+        int admins = Integer.parseInt(options.getOrDefault("admins", "2"));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60")));
+        WorkloadDriver driver = new WorkloadDriver(options.getOrDefault("url", "http://localhost:8080"), rows,
+                Double.parseDouble(options.getOrDefault("list-ratio", "0.05")), Long.parseLong(options.getOrDefault("think-millis", "0")));
+        System.out.println("Running " + readers + " readers and " + admins + " admins against " + rows + " rules for "
+                + duration.getSeconds() + " s after " + warmup.getSeconds() + " s warm-up...");
+        LoadTestReport.print(driver.run(readers, admins, warmup, duration), duration);
+    }
+
+    private static Map<String, String> options(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 1; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("-")) {
+                throw new IllegalArgumentException("Expected an option name instead of " + args[i]);
+            }
+            options.put(args[i].substring(1), args[i + 1]);
+        }
+        return options;
+    }
+}
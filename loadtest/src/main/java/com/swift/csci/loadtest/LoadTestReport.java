@@ -0,0 +1,33 @@
+package com.swift.csci.loadtest;
+
+import java.time.Duration;
+import java.util.Map;
+
+final class LoadTestReport {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private LoadTestReport() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    // Throughput and latency percentiles (ms) per operation; statuses show errors, 304s and 429s of the write limiter
+    static void print(Map<WorkloadDriver.Operation, LatencyRecorder> results, Duration duration) {
+        double seconds = duration.toMillis() / 1000.0;
+        System.out.printf("%-8s %9s %9s %9s %9s %9s %9s %9s  %s%n", "op", "count", "ops/s", "p50", "p90", "p99", "p99.9", "max", "statuses");
+        LatencyRecorder total = new LatencyRecorder();
+        for (Map.Entry<WorkloadDriver.Operation, LatencyRecorder> entry : results.entrySet()) {
+            print(entry.getKey().name(), entry.getValue(), seconds);
+            total.merge(entry.getValue());
+        }
+        print("TOTAL", total, seconds);
+    }
+
+    private static void print(String name, LatencyRecorder recorder, double seconds) {
+        StringBuilder line = new StringBuilder(String.format("%-8s %9d %9.1f", name, recorder.count(), recorder.count() / seconds));
+        for (double percentile : PERCENTILES) {
+            line.append(String.format(" %9.1f", recorder.percentileMicros(percentile) / 1000.0));
+        }
+        line.append(String.format(" %9.1f  %s", recorder.maxMicros() / 1000.0, recorder.statuses()));
+        System.out.println(line);
+    }
+}
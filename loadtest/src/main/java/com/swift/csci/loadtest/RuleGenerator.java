@@ -0,0 +1,79 @@
+package com.swift.csci.loadtest;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Synthetic suppression rules shaped like the production table: mostly Inspector vulnerability rules on Lambda
+ * functions and container images, the rest Security Hub control rules, with accounts, descriptions and due dates
+ * spread like the real ones. Rule n is the same on every run (seeded by n), so a run can address seeded rules
+ * by index without reading the table first.
+ */
+final class RuleGenerator {
+    private static final List<String> SER_PROJECTS = List.of("GS", "TARM", "SECOPS", "CLOUD");
+    private static final List<String> CONTROLS = List.of("S3.1", "S3.8", "EC2.2", "EC2.19", "IAM.6", "IAM.21", "KMS.4", "Lambda.2", "ECR.3", "CloudTrail.5");
+    private static final List<String> RESOURCE_TYPES = List.of("AwsEc2Instance", "AwsS3Bucket", "AwsIamRole", "AwsLambdaFunction", "AwsEcrContainerImage", "AwsEc2SecurityGroup");
+    private static final List<String> SERVICES = List.of("esf", "oasis", "landing-zone", "csci", "payments-gw", "alliance-lite", "gpi-tracker", "swiftnet-link");
+    private static final List<String> REGIONS = List.of("eu-central-1", "eu-west-1", "us-east-1");
+    private static final List<String> WORDS = List.of("risk", "accepted", "compensating", "control", "vendor", "patch", "pending", "legacy",
+            "runtime", "not", "reachable", "network", "isolated", "exception", "approved", "by", "security", "architecture", "until", "migration");
+    private static final LocalDate TODAY = LocalDate.now();
+
+    private RuleGenerator() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    // Attribute name to value, as stored in DynamoDB and sent to the portal (snake_case JSON)
+    static Map<String, String> rule(long n) {
+        SplittableRandom random = new SplittableRandom(n * 0x9E3779B97F4A7C15L);
+        Map<String, String> rule = new LinkedHashMap<>();
+        String account = account(random);
+        String service = pick(random, SERVICES);
+        boolean inspector = random.nextInt(10) < 7;
+        // Ids are unique per index; the SER part varies so several rules can share a SER, as in production
+        rule.put("id", inspector ? "CVE-" + (2015 + n % 11) + "-" + (10000 + n) : pick(random, CONTROLS) + "-" + n);
+        String project = pick(random, SER_PROJECTS);
+        String serId = project + "-" + (1000 + random.nextInt(9000));
+        rule.put("ser_id", serId);
+        rule.put("finding_title", (inspector ? "Lambda vulnerability suppression for sw-" : "Control exception for sw-") + service);
+        rule.put("finding_type", inspector ? "Vulnerabilities" : "Industry and Regulatory Standards");
+        rule.put("product_name", inspector ? "Inspector" : "Security Hub");
+        rule.put("ser_link", "https://jira.swift.com/browse/" + serId);
+        rule.put("due_date", TODAY.plusDays(random.nextInt(-60, 366)).toString());
+        rule.put("description", description(random));
+        rule.put("account_exception", random.nextInt(10) == 0 ? account(random) : "");
+        rule.put("account_inclusion", random.nextInt(4) == 0 ? account + "," + account(random) : "");
+        boolean severityChange = random.nextInt(5) == 0;
+        rule.put("from_severity", severityChange ? "HIGH" : "");
+        rule.put("to_severity", severityChange ? "LOW" : "");
+        if (random.nextBoolean()) {
+            rule.put("resource_type", pick(random, RESOURCE_TYPES));
+            rule.put("resource_pattern", "");
+        } else {
+            rule.put("resource_type", "");
+            rule.put("resource_pattern", "arn:aws:lambda:" + pick(random, REGIONS) + ":" + account + ":function:sw-" + service + "-" + random.nextInt(100) + ".*");
+        }
+        rule.put("extra_resource_pattern", "");
+        return rule;
+    }
+
+    private static String description(SplittableRandom random) {
+        StringBuilder description = new StringBuilder("Suppressed:");
+        int words = random.nextInt(15, 60);
+        for (int i = 0; i < words; i++) {
+            description.append(' ').append(pick(random, WORDS));
+        }
+        return description.append('.').toString();
+    }
+
+    private static String account(SplittableRandom random) {
+        return Long.toString(100_000_000_000L + random.nextLong(900_000_000_000L));
+    }
+
+    private static String pick(SplittableRandom random, List<String> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+}
@@ -0,0 +1,93 @@
+package com.swift.csci.loadtest;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Creates the rule table in DynamoDB Local (same keys as in production) and fills it with generated rules,
+ * 25 items per BatchWriteItem request from several threads.
+ */
+final class TableSeeder {
+    private static final int BATCH_SIZE = 25;
+
+    private final AmazonDynamoDB dynamoDb;
+    private final String tableName;
+
+    TableSeeder(AmazonDynamoDB dynamoDb, String tableName) {
+        this.dynamoDb = dynamoDb;
+        this.tableName = tableName;
+    }
+
+    void createTableIfMissing() {
+        if (dynamoDb.listTables().getTableNames().contains(tableName)) {
+            return;
+        }
+        dynamoDb.createTable(new CreateTableRequest()
+                .withTableName(tableName)
+                .withKeySchema(new KeySchemaElement("id", KeyType.HASH), new KeySchemaElement("ser_id", KeyType.RANGE))
+                .withAttributeDefinitions(new AttributeDefinition("id", ScalarAttributeType.S), new AttributeDefinition("ser_id", ScalarAttributeType.S))
+                .withBillingMode(BillingMode.PAY_PER_REQUEST));
+        System.out.println("Created table " + tableName + ".");
+    }
+
+    void seed(long rows, int threads) throws Exception {
+        long start = System.nanoTime();
+        AtomicLong written = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            long perThread = (rows + threads - 1) / threads;
+            for (int t = 0; t < threads; t++) {
+                long from = t * perThread;
+                long to = Math.min(rows, from + perThread);
+                futures.add(executor.submit(() -> {
+                    for (long batchStart = from; batchStart < to; batchStart += BATCH_SIZE) {
+                        writeBatch(batchStart, Math.min(to, batchStart + BATCH_SIZE));
+                        long total = written.addAndGet(Math.min(to, batchStart + BATCH_SIZE) - batchStart);
+                        if (total % 50_000 < BATCH_SIZE) {
+                            System.out.println("Seeded " + total + " of " + rows + " rules.");
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Seeded %d rules into %s in %.1f s (%.0f items/s).%n", rows, tableName, seconds, rows / seconds);
+    }
+
+    private void writeBatch(long from, long to) throws InterruptedException {
+        List<WriteRequest> requests = new ArrayList<>(BATCH_SIZE);
+        for (long n = from; n < to; n++) {
+            requests.add(new WriteRequest(new PutRequest(toItem(RuleGenerator.rule(n)))));
+        }
+        Map<String, List<WriteRequest>> pending = Map.of(tableName, requests);
+        for (int attempt = 0; !pending.isEmpty(); attempt++) {
+            if (attempt > 0) {
+                Thread.sleep(Math.min(1000, 50L << Math.min(attempt, 5)));
+            }
+            pending = dynamoDb.batchWriteItem(new BatchWriteItemRequest(pending)).getUnprocessedItems();
+        }
+    }
+
+    static Map<String, AttributeValue> toItem(Map<String, String> rule) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        rule.forEach((name, value) -> item.put(name, new AttributeValue(value)));
+        item.put("last_modified", new AttributeValue().withN("0"));
+        return item;
+    }
+}
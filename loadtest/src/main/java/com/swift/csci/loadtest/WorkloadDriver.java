@@ -0,0 +1,178 @@
+package com.swift.csci.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Drives a mixed workload against a running portal (local profile, no login) with closed-loop workers.
+ * <ul>
+ * <li>Readers load the landing page list like the UI does (projected fields, revalidated with If-None-Match) and
+ * open single rules with getItem.</li>
+ * <li>Admins create a rule, update it, read it back and delete it again, and update due dates of seeded rules.</li>
+ * </ul>
+ * Requests completing during the warm-up are not recorded.
+ */
+final class WorkloadDriver {
+    enum Operation { LIST, GET, CREATE, UPDATE, DELETE }
+
+    // The columns the landing page requests
+    private static final String LIST_FIELDS = "id,finding_title,product_name,ser_id,ser_link,due_date";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).connectTimeout(Duration.ofSeconds(5)).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final long seededRows;
+    private final double listRatio;
+    private final long thinkMillis;
+
+    WorkloadDriver(String baseUrl, long seededRows, double listRatio, long thinkMillis) {
+        this.baseUrl = baseUrl;
+        this.seededRows = seededRows;
+        this.listRatio = listRatio;
+        this.thinkMillis = thinkMillis;
+    }
+
+    Map<Operation, LatencyRecorder> run(int readers, int admins, Duration warmup, Duration duration) throws InterruptedException {
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        List<Worker> workers = new ArrayList<>();
+        for (int i = 0; i < readers; i++) {
+            workers.add(new Worker("reader-" + i, false, measureFrom, end));
+        }
+        for (int i = 0; i < admins; i++) {
+            workers.add(new Worker("admin-" + i, true, measureFrom, end));
+        }
+        workers.forEach(Thread::start);
+        for (Worker worker : workers) {
+            worker.join();
+        }
+        Map<Operation, LatencyRecorder> merged = new EnumMap<>(Operation.class);
+        for (Worker worker : workers) {
+            worker.recorders.forEach((operation, recorder) -> merged.computeIfAbsent(operation, o -> new LatencyRecorder()).merge(recorder));
+        }
+        return merged;
+    }
+
+    private final class Worker extends Thread {
+        private final boolean admin;
+        private final long measureFrom;
+        private final long end;
+        private final Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+        private String listETag;
+        private long cycle;
+
+        private Worker(String name, boolean admin, long measureFrom, long end) {
+            super(name);
+            this.admin = admin;
+            this.measureFrom = measureFrom;
+            this.end = end;
+        }
+
+        @Override
+        public void run() {
+            while (System.nanoTime() < end) {
+                try {
+                    if (admin) {
+                        adminCycle();
+                    } else {
+                        readerStep();
+                    }
+                    if (thinkMillis > 0) {
+                        Thread.sleep(thinkMillis);
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        private void readerStep() throws InterruptedException {
+            if (ThreadLocalRandom.current().nextDouble() < listRatio) {
+                HttpRequest.Builder request = HttpRequest.newBuilder(uri("/listItems?fields=" + LIST_FIELDS));
+                if (listETag != null) {
+                    request.header("If-None-Match", listETag);
+                }
+                HttpResponse<?> response = send(Operation.LIST, request.GET());
+                if (response != null) {
+                    listETag = response.headers().firstValue("ETag").orElse(listETag);
+                }
+            } else {
+                Map<String, String> rule = RuleGenerator.rule(ThreadLocalRandom.current().nextLong(seededRows));
+                send(Operation.GET, HttpRequest.newBuilder(getItemUri(rule)).GET());
+            }
+        }
+
+        private void adminCycle() throws InterruptedException {
+            // A rule like the seeded ones, with an id of its own so workers never touch each other's rules
+            Map<String, String> rule = RuleGenerator.rule(seededRows + cycle++);
+            rule.put("id", "LOADTEST-" + getName() + "-" + cycle);
+            send(Operation.CREATE, jsonRequest("/createItem").POST(json(rule)));
+            rule.put("due_date", LocalDate.now().plusDays(30).toString());
+            send(Operation.UPDATE, jsonRequest("/updateItem").PUT(json(rule)));
+            send(Operation.GET, HttpRequest.newBuilder(getItemUri(rule)).GET());
+            send(Operation.DELETE, HttpRequest.newBuilder(uri("/deleteItem?id=" + encode(rule.get("id")) + "&serId=" + encode(rule.get("ser_id")))).DELETE());
+
+            Map<String, String> seeded = RuleGenerator.rule(ThreadLocalRandom.current().nextLong(seededRows));
+            seeded.put("due_date", LocalDate.now().plusDays(ThreadLocalRandom.current().nextInt(1, 365)).toString());
+            send(Operation.UPDATE, jsonRequest("/updateItem").PUT(json(seeded)));
+        }
+
+        private HttpResponse<?> send(Operation operation, HttpRequest.Builder request) throws InterruptedException {
+            long start = System.nanoTime();
+            int status;
+            HttpResponse<?> response = null;
+            try {
+                response = httpClient.send(request.timeout(REQUEST_TIMEOUT).build(), HttpResponse.BodyHandlers.discarding());
+                status = response.statusCode();
+            } catch (IOException e) {
+                // Connection errors and timeouts are reported as status 0
+                status = 0;
+            }
+            long finished = System.nanoTime();
+            if (finished >= measureFrom && finished < end) {
+                recorders.computeIfAbsent(operation, o -> new LatencyRecorder()).record((finished - start) / 1000, status);
+            }
+            return response;
+        }
+    }
+
+    private URI getItemUri(Map<String, String> rule) {
+        return uri("/getItem?id=" + encode(rule.get("id")) + "&serId=" + encode(rule.get("ser_id")));
+    }
+
+    private HttpRequest.Builder jsonRequest(String path) {
+        return HttpRequest.newBuilder(uri(path)).header("Content-Type", "application/json");
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private HttpRequest.BodyPublisher json(Map<String, String> rule) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(rule));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
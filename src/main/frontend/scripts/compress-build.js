@@ -0,0 +1,52 @@
+// Writes gzip and brotli variants next to the text files of the production build (runs as "postbuild").
+// The portal serves them according to Accept-Encoding, so assets are compressed once here instead of per request.
+const fs = require("fs");
+const path = require("path");
+const zlib = require("zlib");
+
+const BUILD_DIR = path.join(__dirname, "..", "build");
+const COMPRESSIBLE = new Set([".js", ".css", ".html", ".json", ".svg", ".map", ".txt", ".ico"]);
+// Smaller files fit in a packet anyway; the variants would only add lookups
+const MIN_SIZE = 1024;
+
+const compressors = {
+    ".gz": (content) => zlib.gzipSync(content, {level: zlib.constants.Z_BEST_COMPRESSION}),
+    ".br": (content) => zlib.brotliCompressSync(content, {
+        params: {
+            [zlib.constants.BROTLI_PARAM_MODE]: zlib.constants.BROTLI_MODE_TEXT,
+            [zlib.constants.BROTLI_PARAM_QUALITY]: zlib.constants.BROTLI_MAX_QUALITY,
+            [zlib.constants.BROTLI_PARAM_SIZE_HINT]: content.length,
+        },
+    }),
+};
+
+function files(dir) {
+    return fs.readdirSync(dir, {withFileTypes: true}).flatMap((entry) => {
+        const file = path.join(dir, entry.name);
+        return entry.isDirectory() ? files(file) : [file];
+    });
+}
+
+let originalBytes = 0;
+let brotliBytes = 0;
+for (const file of files(BUILD_DIR)) {
+    if (!COMPRESSIBLE.has(path.extname(file))) {
+        continue;
+    }
+    const content = fs.readFileSync(file);
+    if (content.length < MIN_SIZE) {
+        continue;
+    }
+    for (const [extension, compress] of Object.entries(compressors)) {
+        const compressed = compress(content);
+        // A variant that is not smaller is not written, the server then falls back to the original
+        if (compressed.length < content.length) {
+            fs.writeFileSync(file + extension, compressed);
+            if (extension === ".br") {
+                originalBytes += content.length;
+                brotliBytes += compressed.length;
+            }
+        }
+    }
+}
+console.log(`Precompressed build assets: ${originalBytes} bytes, ${brotliBytes} bytes with brotli.`);
@@ -1,4 +1,4 @@
-import { useEffect, useState } from "react";
+import { useEffect, useRef, useState } from "react";
 import { useNavigate } from "react-router-dom";
 import ContentHeader from "../components/content-header";
 import CardHeader from "../components/card-header";
@@ -7,6 +7,17 @@ import normalizeUrl from "normalize-url";
 import {MDBDataTable, MDBDataTableV5} from 'mdbreact';
 import Alert from "react-bootstrap/Alert";
 
+// Only the table columns are requested, the backend skips reading the other attributes
+const LIST_FIELDS = "id,finding_title,product_name,ser_id,ser_link,due_date";
+// Delay before a rule change stream the browser gave up on is opened again
+const STREAM_RETRY_MILLIS = 5000;
+
+// The table version in the /listItems ETag: "<version>" or "<version>-<fields hash>"
+const versionFromETag = (eTag) => {
+    const match = eTag ? /^(?:W\/)?"(\d+)/.exec(eTag) : null;
+    return match ? Number(match[1]) : null;
+};
+
 export default function UserLandingPage({ userProfile }) {
     const navigate = useNavigate();
     const [items, setItems] = useState({});
@@ -18,6 +29,9 @@ export default function UserLandingPage({ userProfile }) {
     const totalPages = Math.ceil(items.length / itemsPerPage);
 
     const [showDanger, setShowDanger] = useState(false);
+    // Table version the rows are up to date with, and whether the rule change stream is connected
+    const syncedVersion = useRef(null);
+    const streamConnected = useRef(false);
 
     const session = localStorage.getItem("session");
 
@@ -63,7 +77,7 @@ export default function UserLandingPage({ userProfile }) {
 
             console.log(localStorage);
 
-            const apiUrl = `${apiHostName}/listItems`;
+            const apiUrl = `${apiHostName}/listItems?fields=${LIST_FIELDS}`;
 
             console.log(apiUrl);
             fetch(apiUrl)
@@ -95,67 +109,195 @@ export default function UserLandingPage({ userProfile }) {
         navigate(newPage);
     }
 
+    // Match counts are optional: the rule list is shown without them when they cannot be read
+    const fetchRuleHits = async () => {
+        try {
+            const response = await fetch(apiHostName + '/ruleHits');
+            if (!response.ok) {
+                return {};
+            }
+            const report = await response.json();
+            const hits = {};
+            report.rules.forEach(hit => hits[hit.id] = hit);
+            return hits;
+        } catch (error) {
+            console.error("Error getting rule hits:", error);
+            return {};
+        }
+    };
+
+    const hitColumns = (hit) => ({
+        matches_30d: hit ? hit.matches30d : "",
+        last_match: hit ? (hit.last_matched_at ? hit.last_matched_at.substring(0, 10) : "none") : ""
+    });
+
     const reviewEntry = (event) => {
         event.preventDefault();
     };
 
 
-    useEffect(() => {
-        console.log("Getting entries....");
-        const fetchEntrys = async () => {
-            const fetchData = async () => {
-                try {
-                    const response = await fetch(apiHostName + '/listItems');
-                    if (!response.ok) {
-                        throw new Error("Request failed");
-                    }
-                    const jsonData = await response.json();
-                    //setData(jsonData);
-                    //console.log(jsonData);
+    const toRow = (item, previous) => ({
+        id: item.id,
+        finding_title: item.finding_title,
+        product_name: item.product_name,
+        ser_id: item.ser_id,
+        ser_link: item.ser_link,
+        due_date: item.due_date,
+        matches_30d: previous ? previous.matches_30d : "",
+        last_match: previous ? previous.last_match : "",
+        clickEvent: row => viewEntryClickRow(row)
+    });
+
+    // Replaces the rows of the upserted items and removes the rows of the deleted ones
+    const applyChanges = (upserted, deleted) => {
+        setItems(current => {
+            if (!current.rows) {
+                return current;
+            }
+            const sameKey = (row, item) => row['id'] === item.id && row['ser_id'] === item.ser_id;
+            let rows = current.rows.filter(row => !deleted.some(item => sameKey(row, item)));
+            upserted.forEach(item => {
+                const previous = rows.find(row => row['id'] === item.id);
+                rows = rows.filter(row => !sameKey(row, item));
+                rows.push(toRow(item, previous));
+            });
+            rows.sort((a, b) => a.id.localeCompare(b.id));
+            return { ...current, rows: rows };
+        });
+    };
 
-                    for(let i=0; i<jsonData.length; i++)
+    const loadItems = async () => {
+        try {
+            const response = await fetch(apiHostName + '/listItems?fields=' + LIST_FIELDS);
+            if (!response.ok) {
+                throw new Error("Request failed");
+            }
+            const listVersion = versionFromETag(response.headers.get('ETag'));
+            const jsonData = await response.json();
+            //setData(jsonData);
+            //console.log(jsonData);
+
+            const hits = await fetchRuleHits();
+            for(let i=0; i<jsonData.length; i++)
+            {
+                jsonData[i]['clickEvent'] = row => viewEntryClickRow(row);
+                Object.assign(jsonData[i], hitColumns(hits[jsonData[i]['id']]));
+            }
+
+            const tableData = {
+                columns: [
+                    {
+                        label: "Id",
+                        field: "id"
+                    },
+                    {
+                        label: "Finding Title",
+                        field: "finding_title"
+                    },
+                    {
+                        label: "Product Name",
+                        field: "product_name"
+                    },
+                    {
+                        label: "SER Id",
+                        field: "ser_id"
+                    },
+                    {
+                        label: "SER Link",
+                        field: "ser_link"
+                    },
+                    {
+                        label: "Due Date",
+                        field: "due_date"
+                    },
                     {
-                        jsonData[i]['clickEvent'] = row => viewEntryClickRow(row);
+                        label: "Matches (30d)",
+                        field: "matches_30d"
+                    },
+                    {
+                        label: "Last Match",
+                        field: "last_match"
                     }
+                ],
+                rows: jsonData
+            }
 
-                    const tableData = {
-                        columns: [
-                            {
-                                label: "Id",
-                                field: "id"
-                            },
-                            {
-                                label: "Finding Title",
-                                field: "finding_title"
-                            },
-                            {
-                                label: "Product Name",
-                                field: "product_name"
-                            },
-                            {
-                                label: "SER Id",
-                                field: "ser_id"
-                            },
-                            {
-                                label: "SER Link",
-                                field: "ser_link"
-                            },
-                            {
-                                label: "Due Date",
-                                field: "due_date"
-                            }
-                        ],
-                        rows: jsonData
-                    }
+            setItems(tableData);
+            syncedVersion.current = listVersion;
+            // Changes made after the list was read and before the stream connected are not pushed
+            if (listVersion !== null && streamConnected.current) {
+                catchUp();
+            }
+        } catch (error) {
+            console.error("Error:", error);
+        }
+    };
+
+    // Fetches the changes the stream did not deliver, after a reconnect or a stream closed by the portal
+    const catchUp = async () => {
+        const since = syncedVersion.current;
+        if (since === null) {
+            return;
+        }
+        try {
+            const response = await fetch(apiHostName + '/changes?since=' + since + '&fields=' + LIST_FIELDS);
+            if (response.status === 410) {
+                // The portal no longer knows the deletes since that version
+                loadItems();
+                return;
+            }
+            if (!response.ok) {
+                throw new Error("Request failed");
+            }
+            const changes = await response.json();
+            applyChanges(changes.upserted, changes.deleted);
+            syncedVersion.current = Math.max(syncedVersion.current ?? 0, changes.version);
+        } catch (error) {
+            console.error("Error getting rule changes:", error);
+            loadItems();
+        }
+    };
+
+    useEffect(() => {
+        console.log("Getting entries....");
+        loadItems();
+    }, []);
 
-                    setItems(tableData);
-                } catch (error) {
-                    console.error("Error:", error);
+    useEffect(() => {
+        // Rule changes made in other sessions are pushed by the portal, the table is updated in place
+        let source = null;
+        let retry = null;
+        const open = () => {
+            source = new EventSource(apiHostName + '/ruleChanges', { withCredentials: true });
+            // Sent on every (re)connect, also after the portal closed a stream that fell behind
+            source.addEventListener('connected', () => {
+                streamConnected.current = true;
+                catchUp();
+            });
+            source.addEventListener('rule-change', (event) => {
+                const change = JSON.parse(event.data);
+                if (change.action === 'DELETE') {
+                    applyChanges([], [change]);
+                } else {
+                    applyChanges([change], []);
+                }
+                if (syncedVersion.current !== null) {
+                    syncedVersion.current = Math.max(syncedVersion.current, change.version);
                 }
-            };
-            fetchData();
+            });
+            source.addEventListener('error', () => {
+                streamConnected.current = false;
+                // The browser reconnects by itself unless the portal refused the stream
+                if (source.readyState === EventSource.CLOSED) {
+                    retry = setTimeout(open, STREAM_RETRY_MILLIS);
+                }
+            });
+        };
+        open();
+        return () => {
+            clearTimeout(retry);
+            source.close();
         };
-        fetchEntrys();
     }, []);
 
     return (
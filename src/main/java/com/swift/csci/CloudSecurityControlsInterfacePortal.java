@@ -2,11 +2,19 @@ package com.swift.csci;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class CloudSecurityControlsInterfacePortal {
     public static void main(String[] args) {
-        SpringApplication.run(CloudSecurityControlsInterfacePortal.class, args);
+        SpringApplication application = new SpringApplication(CloudSecurityControlsInterfacePortal.class);
+        // Records startup steps for StartupTimingReport
+        if (Boolean.getBoolean("startup.report")) {
+            application.setApplicationStartup(new BufferingApplicationStartup(10_000));
+        }
+        application.run(args);
     }
 
 }
@@ -0,0 +1,55 @@
+package com.swift.csci.analysis;
+
+/**
+ * One finding of the rule overlap analysis: {@code rule} is a duplicate of, shadowed by, or in conflict with {@code by}.
+ */
+public class RuleOverlap {
+
+    public enum Type {
+        DUPLICATE, SHADOWED, CONFLICT
+    }
+
+    private final Type type;
+    private final String id;
+    private final String serId;
+    private final String byId;
+    private final String bySerId;
+    private final String reason;
+
+    public RuleOverlap(Type type, String id, String serId, String byId, String bySerId, String reason) {
+        this.type = type;
+        this.id = id;
+        this.serId = serId;
+        this.byId = byId;
+        this.bySerId = bySerId;
+        this.reason = reason;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getSerId() {
+        return serId;
+    }
+
+    public String getById() {
+        return byId;
+    }
+
+    public String getBySerId() {
+        return bySerId;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public boolean involves(String id, String serId) {
+        return (this.id.equals(id) && this.serId.equals(serId)) || (this.byId.equals(id) && this.bySerId.equals(serId));
+    }
+}
@@ -0,0 +1,194 @@
+package com.swift.csci.analysis;
+
+import com.swift.csci.model.SuppressionData;
+import com.swift.csci.utils.DueDateUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Finds suppression rules that add evaluation cost to the engine without changing its outcome.
+ * <p>
+ * Rule A covers rule B when every finding B matches is also matched by A, following the engine's matching
+ * (Rule.matches): same product, same id or an Inspector "*" id, each non-empty pattern field of A equal to
+ * B's, and A's allowed accounts a superset of B's. Since the engine applies the first matching rule, a covered
+ * rule is either a duplicate, shadowed (same action) or in conflict (different action, e.g. a severity change
+ * overridden by a suppress rule).
+ * <p>
+ * Rules are bucketed by product and id, and "*" rules are only compared with rules sharing their resource
+ * type (or resource pattern), so the analysis stays close to linear in the number of rules.
+ */
+@Component
+public class RuleOverlapAnalyzer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RuleOverlapAnalyzer.class);
+    private static final String WILDCARD = "*";
+
+    public RuleOverlapReport analyze(List<SuppressionData> items) {
+        long start = System.nanoTime();
+        LocalDate today = DueDateUtils.todayUtc();
+
+        List<RuleView> rules = new ArrayList<>(items.size());
+        int expired = 0;
+        for (SuppressionData item : items) {
+            if (DueDateUtils.isExpired(item.getDueDate(), today)) {
+                expired++;
+                continue;
+            }
+            RuleView rule = new RuleView(item);
+            if (rule.isValid()) {
+                rules.add(rule);
+            }
+        }
+        rules.sort(Comparator.comparing(RuleView::id).thenComparing(RuleView::serId));
+
+        List<RuleOverlap> duplicates = new ArrayList<>();
+        List<RuleOverlap> shadowed = new ArrayList<>();
+        List<RuleOverlap> conflicts = new ArrayList<>();
+
+        // Duplicates: identical matching fields and action, only the first rule of each signature is effective
+        Map<List<Object>, RuleView> bySignature = new HashMap<>();
+        for (RuleView rule : rules) {
+            RuleView first = bySignature.putIfAbsent(rule.signature(), rule);
+            if (first != null) {
+                duplicates.add(new RuleOverlap(RuleOverlap.Type.DUPLICATE, rule.id(), rule.serId(), first.id(), first.serId(),
+                        "Same id, product, resource fields, accounts and action"));
+            }
+        }
+
+        Map<String, List<RuleView>> byProductId = new HashMap<>();
+        Map<String, List<RuleView>> byProductType = new HashMap<>();
+        Map<String, List<RuleView>> byProductPattern = new HashMap<>();
+        List<RuleView> wildcards = new ArrayList<>();
+        for (RuleView rule : rules) {
+            byProductId.computeIfAbsent(rule.product() + "|" + rule.id(), k -> new ArrayList<>()).add(rule);
+            byProductType.computeIfAbsent(rule.product() + "|" + rule.resourceType(), k -> new ArrayList<>()).add(rule);
+            byProductPattern.computeIfAbsent(rule.product() + "|" + rule.resourcePattern(), k -> new ArrayList<>()).add(rule);
+            if (rule.isWildcard()) {
+                wildcards.add(rule);
+            }
+        }
+
+        Set<String> seenPairs = new HashSet<>();
+        for (List<RuleView> bucket : byProductId.values()) {
+            for (RuleView a : bucket) {
+                for (RuleView b : bucket) {
+                    classify(a, b, seenPairs, shadowed, conflicts);
+                }
+            }
+        }
+        for (RuleView wildcard : wildcards) {
+            List<RuleView> candidates = !wildcard.resourceType().isEmpty()
+                    ? byProductType.get(wildcard.product() + "|" + wildcard.resourceType())
+                    : byProductPattern.get(wildcard.product() + "|" + wildcard.resourcePattern());
+            for (RuleView candidate : candidates) {
+                classify(wildcard, candidate, seenPairs, shadowed, conflicts);
+            }
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        LOGGER.info("Analyzed " + rules.size() + " rules in " + elapsedMillis + " ms: " + duplicates.size() + " duplicates, "
+                + shadowed.size() + " shadowed, " + conflicts.size() + " conflicts.");
+        return new RuleOverlapReport(rules.size(), expired, elapsedMillis, duplicates, shadowed, conflicts);
+    }
+
+    private static void classify(RuleView a, RuleView b, Set<String> seenPairs, List<RuleOverlap> shadowed, List<RuleOverlap> conflicts) {
+        if (a == b || !a.covers(b) || a.signature().equals(b.signature())) {
+            return;
+        }
+        // Mutually covering rules with different actions are reported once
+        if (seenPairs.contains(b.key() + "->" + a.key()) || !seenPairs.add(a.key() + "->" + b.key())) {
+            return;
+        }
+        if (a.action().equals(b.action())) {
+            shadowed.add(new RuleOverlap(RuleOverlap.Type.SHADOWED, b.id(), b.serId(), a.id(), a.serId(),
+                    "Every finding matched by this rule is also matched by a broader rule with the same action (" + a.action() + ")"));
+        } else {
+            conflicts.add(new RuleOverlap(RuleOverlap.Type.CONFLICT, b.id(), b.serId(), a.id(), a.serId(),
+                    "A broader rule matches the same findings with action " + a.action() + " instead of " + b.action()));
+        }
+    }
+
+    private record RuleView(String id, String serId, String product, String resourceType, String resourcePattern,
+                            String extraResourcePattern, Set<String> inclusion, Set<String> exception, String action) {
+
+        RuleView(SuppressionData item) {
+            this(strip(item.getId()), strip(item.getSerId()), strip(item.getProductName()).toLowerCase(Locale.ROOT),
+                    strip(item.getResourceType()), strip(item.getResourcePattern()), strip(item.getExtraResourcePattern()),
+                    accounts(item.getAccountInclusion()), accounts(item.getAccountException()),
+                    action(strip(item.getFromSeverity()), strip(item.getToSeverity())));
+        }
+
+        boolean isValid() {
+            return !resourceType.isEmpty() || !resourcePattern.isEmpty();
+        }
+
+        // The engine matches Inspector ids as a prefix with "*" stripped, so "*" matches every Inspector finding
+        boolean isWildcard() {
+            return "inspector".equals(product) && id.replace(WILDCARD, "").isEmpty();
+        }
+
+        String key() {
+            return id + "/" + serId;
+        }
+
+        List<Object> signature() {
+            return List.of(product, id, resourceType, resourcePattern, extraResourcePattern, inclusion, exception, action);
+        }
+
+        boolean covers(RuleView other) {
+            if (!product.equals(other.product)) {
+                return false;
+            }
+            if (!(isWildcard() || id.equals(other.id))) {
+                return false;
+            }
+            if (!resourcePattern.isEmpty() && !resourcePattern.equals(other.resourcePattern)) {
+                return false;
+            }
+            if (!resourceType.isEmpty() && !resourceType.equals(other.resourceType)) {
+                return false;
+            }
+            if (!extraResourcePattern.isEmpty() && !extraResourcePattern.equals(other.extraResourcePattern)) {
+                return false;
+            }
+            return allowsAllAccountsOf(other);
+        }
+
+        // account_inclusion wins over account_exception in the engine
+        private boolean allowsAllAccountsOf(RuleView other) {
+            if (!inclusion.isEmpty()) {
+                return !other.inclusion.isEmpty() && inclusion.containsAll(other.inclusion);
+            }
+            if (!other.inclusion.isEmpty()) {
+                return Collections.disjoint(exception, other.inclusion);
+            }
+            return other.exception.containsAll(exception);
+        }
+
+        private static String action(String fromSeverity, String toSeverity) {
+            if (fromSeverity.isEmpty() || toSeverity.isEmpty()) {
+                return "suppress";
+            }
+            return "severity_update " + fromSeverity.toUpperCase(Locale.ROOT) + "->" + toSeverity.toUpperCase(Locale.ROOT);
+        }
+
+        private static Set<String> accounts(String accounts) {
+            Set<String> result = new TreeSet<>();
+            if (accounts != null) {
+                for (String account : accounts.split(",")) {
+                    if (!account.isBlank()) {
+                        result.add(account.strip());
+                    }
+                }
+            }
+            return result;
+        }
+
+        private static String strip(String value) {
+            return value == null ? "" : value.strip();
+        }
+    }
+}
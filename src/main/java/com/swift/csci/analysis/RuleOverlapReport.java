@@ -0,0 +1,53 @@
+package com.swift.csci.analysis;
+
+import java.util.List;
+
+public class RuleOverlapReport {
+    private final int rulesAnalyzed;
+    private final int expiredRulesSkipped;
+    private final long elapsedMillis;
+    private final List<RuleOverlap> duplicates;
+    private final List<RuleOverlap> shadowed;
+    private final List<RuleOverlap> conflicts;
+
+    public RuleOverlapReport(int rulesAnalyzed, int expiredRulesSkipped, long elapsedMillis,
+                             List<RuleOverlap> duplicates, List<RuleOverlap> shadowed, List<RuleOverlap> conflicts) {
+        this.rulesAnalyzed = rulesAnalyzed;
+        this.expiredRulesSkipped = expiredRulesSkipped;
+        this.elapsedMillis = elapsedMillis;
+        this.duplicates = duplicates;
+        this.shadowed = shadowed;
+        this.conflicts = conflicts;
+    }
+
+    public int getRulesAnalyzed() {
+        return rulesAnalyzed;
+    }
+
+    public int getExpiredRulesSkipped() {
+        return expiredRulesSkipped;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public List<RuleOverlap> getDuplicates() {
+        return duplicates;
+    }
+
+    public List<RuleOverlap> getShadowed() {
+        return shadowed;
+    }
+
+    public List<RuleOverlap> getConflicts() {
+        return conflicts;
+    }
+
+    public RuleOverlapReport filterFor(String id, String serId) {
+        return new RuleOverlapReport(rulesAnalyzed, expiredRulesSkipped, elapsedMillis,
+                duplicates.stream().filter(o -> o.involves(id, serId)).toList(),
+                shadowed.stream().filter(o -> o.involves(id, serId)).toList(),
+                conflicts.stream().filter(o -> o.involves(id, serId)).toList());
+    }
+}
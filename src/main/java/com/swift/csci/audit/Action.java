@@ -2,5 +2,5 @@ package com.swift.csci.audit;
 
 public enum Action {
 
-    CREATE, UPDATE, DELETE
+    CREATE, UPDATE, DELETE, IMPORT, ARCHIVE
 }
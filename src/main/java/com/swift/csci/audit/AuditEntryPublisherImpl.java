@@ -9,6 +9,7 @@ import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
 import java.io.ByteArrayInputStream;
@@ -42,7 +43,7 @@ public class AuditEntryPublisherImpl implements AuditEntryPublisher {
     @Value("${audit.s3.enabled:false}")
     private boolean s3Enabled;
 
-    public AuditEntryPublisherImpl(AmazonS3 s3Client) {
+    public AuditEntryPublisherImpl(@Lazy AmazonS3 s3Client) {
         this.s3Client = s3Client;
     }
     @Override
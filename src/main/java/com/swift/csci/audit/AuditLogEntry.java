@@ -51,13 +51,20 @@ public class AuditLogEntry<T> {
     public static <T> AuditLogEntry<T> create(Action action, String securityControlId, String serId, T content) {
         return new AuditLogEntry<>(action, securityControlId, serId, content, LocalDateTime.now());
     }
+    // For scheduled jobs, which run without a signed in user
+    public static <T> AuditLogEntry<T> createBySystem(String jobName, Action action, String securityControlId, String serId, T content) {
+        return new AuditLogEntry<>(action, securityControlId, serId, content, LocalDateTime.now(), UserProfile.system(jobName));
+    }
     private AuditLogEntry(Action action, String securityControlId, String serId, T content, LocalDateTime time) {
+        this(action, securityControlId, serId, content, time, new UserProfile((Saml2AuthenticatedPrincipal)
+                SecurityContextHolder.getContext().getAuthentication().getPrincipal()));
+    }
+    private AuditLogEntry(Action action, String securityControlId, String serId, T content, LocalDateTime time, UserProfile userProfile) {
         this.securityControlId = securityControlId;
         this.serId = serId;
         this.action = action;
         this.content = content;
         this.time = time;
-        this.userProfile = new UserProfile((Saml2AuthenticatedPrincipal)
-                SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+        this.userProfile = userProfile;
     }
 }
@@ -1,23 +1,31 @@
 package com.swift.csci.config;
 
+import com.amazonaws.ClientConfiguration;
 import com.amazonaws.auth.AWSStaticCredentialsProvider;
 import com.amazonaws.auth.BasicAWSCredentials;
 import com.amazonaws.auth.DefaultAWSCredentialsProviderChain;
 import com.amazonaws.auth.STSAssumeRoleSessionCredentialsProvider;
 import com.amazonaws.client.builder.AwsClientBuilder;
 import com.amazonaws.regions.Regions;
+import com.amazonaws.retry.PredefinedRetryPolicies;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
 import com.amazonaws.services.securitytoken.AWSSecurityTokenService;
 import com.amazonaws.services.securitytoken.AWSSecurityTokenServiceClientBuilder;
 import com.swift.csci.exception.DynamoDBException;
+import com.swift.csci.resilience.FaultInjectingDynamoDb;
+import com.swift.csci.tracing.AwsTracingRequestHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 
+// The clients are lazy so assuming the cross-account role does not delay startup; they are created on first use
+// (or by AwsClientWarmup in the background right after startup)
 @Configuration
 public class DynamoDBConfig {
     private static final Logger LOGGER = LoggerFactory.getLogger(DynamoDBConfig.class);
@@ -43,21 +51,55 @@ public class DynamoDBConfig {
     @Value("${amazon.useLocalCredentials:false}")
     private boolean useLocalCredentials;
 
+    @Value("${dynamodb.request-timeout-millis:5000}")
+    private int requestTimeoutMillis;
+
+    @Value("${dynamodb.fault-injection.enabled:false}")
+    private boolean faultInjectionEnabled;
+    @Value("${dynamodb.fault-injection.error-rate:0.2}")
+    private double faultInjectionErrorRate;
+    @Value("${dynamodb.fault-injection.slow-rate:0.1}")
+    private double faultInjectionSlowRate;
+    @Value("${dynamodb.fault-injection.slow-millis:500}")
+    private long faultInjectionSlowMillis;
+
+    @Autowired
+    private AwsTracingRequestHandler tracingRequestHandler;
+
 
 
     @Bean
+    @Lazy
     public DynamoDBMapper mapper() {
         return new DynamoDBMapper(amazonDynamoDBConfig());
     }
 
     @Bean
+    @Lazy
     public AmazonDynamoDB amazonDynamoDBConfig() {
+        AmazonDynamoDB client = dynamoDbClient();
+        if (faultInjectionEnabled && !isRunningInContainer) {
+            return FaultInjectingDynamoDb.wrap(client, faultInjectionErrorRate, faultInjectionSlowRate, faultInjectionSlowMillis);
+        }
+        return client;
+    }
+
+    // Retries are made by DynamoDbResilience (retry quota, circuit breaker), so the SDK must not retry on its own as well
+    private ClientConfiguration clientConfiguration() {
+        return new ClientConfiguration()
+                .withRetryPolicy(PredefinedRetryPolicies.NO_RETRY_POLICY)
+                .withRequestTimeout(requestTimeoutMillis);
+    }
+
+    private AmazonDynamoDB dynamoDbClient() {
 
         // Check if we should use local AWS credentials (for connecting to real AWS DynamoDB locally)
         if (useLocalCredentials) {
             LOGGER.info("Using local AWS credentials to connect to real AWS DynamoDB.");
             return AmazonDynamoDBClientBuilder.standard()
                     .withCredentials(DefaultAWSCredentialsProviderChain.getInstance())
+                    .withClientConfiguration(clientConfiguration())
+                    .withRequestHandlers(tracingRequestHandler)
                     .withRegion(awsRegion)  // Use awsRegion instead of awsRegionForTesting
                     .build();
         }
@@ -92,6 +134,8 @@ public class DynamoDBConfig {
 
                 return AmazonDynamoDBClientBuilder.standard()
                         .withCredentials(assumeRoleProvider)
+                        .withClientConfiguration(clientConfiguration())
+                        .withRequestHandlers(tracingRequestHandler)
                         .build();
             }
             catch(Exception e)
@@ -108,6 +152,8 @@ public class DynamoDBConfig {
             return AmazonDynamoDBClientBuilder.standard()
                     .withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration(awsDynamoDBEndpointForTesting, awsRegionForTesting))
                     .withCredentials(new AWSStaticCredentialsProvider(awsCredentials))
+                    .withClientConfiguration(clientConfiguration())
+                    .withRequestHandlers(tracingRequestHandler)
                     .build();
         }
     }
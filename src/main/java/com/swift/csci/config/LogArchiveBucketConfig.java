@@ -2,15 +2,19 @@ package com.swift.csci.config;
 
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.swift.csci.tracing.AwsTracingRequestHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 
 @Configuration
 public class LogArchiveBucketConfig {
     @Bean
-    public AmazonS3 s3Client() {
+    @Lazy
+    public AmazonS3 s3Client(AwsTracingRequestHandler tracingRequestHandler) {
         return AmazonS3ClientBuilder.standard()
                 .withRegion("eu-central-1")
+                .withRequestHandlers(tracingRequestHandler)
                 .build();
     }
 }
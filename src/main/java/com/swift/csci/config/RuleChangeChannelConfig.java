@@ -0,0 +1,42 @@
+package com.swift.csci.config;
+
+import com.amazonaws.services.sqs.AmazonSQS;
+import com.amazonaws.services.sqs.AmazonSQSClientBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swift.csci.rulechange.LocalRuleChangeChannel;
+import com.swift.csci.rulechange.RuleChangeChannel;
+import com.swift.csci.rulechange.SqsRuleChangeChannel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+@Configuration
+public class RuleChangeChannelConfig {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RuleChangeChannelConfig.class);
+
+    // Queue lives in the suppression engine account; its queue policy grants the portal task role sqs:SendMessage
+    @Value("${rule.change.queue-url:}")
+    private String queueUrl;
+
+    @Value("${amazon.region:us-east-1}")
+    private String awsRegion;
+
+    @Bean
+    @Lazy
+    public AmazonSQS ruleChangeSqsClient() {
+        return AmazonSQSClientBuilder.standard().withRegion(awsRegion).build();
+    }
+
+    @Bean
+    public RuleChangeChannel ruleChangeChannel(ObjectMapper objectMapper, @Lazy AmazonSQS ruleChangeSqsClient) {
+        if (queueUrl == null || queueUrl.isBlank()) {
+            LOGGER.info("No rule change queue configured, rule change events are kept in memory.");
+            return new LocalRuleChangeChannel();
+        }
+        LOGGER.info("Rule change events are sent to " + queueUrl);
+        return new SqsRuleChangeChannel(ruleChangeSqsClient, queueUrl, objectMapper);
+    }
+}
@@ -0,0 +1,49 @@
+package com.swift.csci.config;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.swift.csci.resilience.DynamoDbResilience;
+import com.swift.csci.sync.ClusterLease;
+import com.swift.csci.sync.DynamoDbClusterLease;
+import com.swift.csci.sync.DynamoDbTableVersionStore;
+import com.swift.csci.sync.LocalClusterLease;
+import com.swift.csci.sync.LocalTableVersionStore;
+import com.swift.csci.sync.TableVersionStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+import java.util.concurrent.TimeUnit;
+
+// State the portal instances share through the rule sync table: the table version, deletes and job leases
+@Configuration
+public class RuleSyncTableConfig {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RuleSyncTableConfig.class);
+
+    // Without it every instance has its own version, misses the deletes of the others and runs every job itself
+    @Value("${rule.sync.table-name:}")
+    private String tableName;
+
+    @Value("${rule.sync.delete-retention-days:7}")
+    private long deleteRetentionDays;
+
+    @Bean
+    public TableVersionStore tableVersionStore(@Lazy AmazonDynamoDB amazonDynamoDB, DynamoDbResilience resilience) {
+        if (tableName == null || tableName.isBlank()) {
+            LOGGER.warn("No rule sync table configured, the table version and deletes are kept in memory. Only run a single portal instance like this.");
+            return new LocalTableVersionStore();
+        }
+        LOGGER.info("Table version and deletes are kept in " + tableName);
+        return new DynamoDbTableVersionStore(amazonDynamoDB, resilience, tableName, TimeUnit.DAYS.toMillis(deleteRetentionDays));
+    }
+
+    @Bean
+    public ClusterLease clusterLease(@Lazy AmazonDynamoDB amazonDynamoDB, DynamoDbResilience resilience) {
+        if (tableName == null || tableName.isBlank()) {
+            return new LocalClusterLease();
+        }
+        return new DynamoDbClusterLease(amazonDynamoDB, resilience, tableName);
+    }
+}
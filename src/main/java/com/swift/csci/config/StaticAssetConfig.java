@@ -0,0 +1,40 @@
+package com.swift.csci.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+
+import java.time.Duration;
+
+/**
+ * Serving of the bundled React UI.
+ * <p>
+ * The frontend build writes .br and .gz variants next to its assets (scripts/compress-build.js), and the
+ * EncodedResourceResolver picks the variant matching Accept-Encoding, so nothing is compressed per request.
+ * The files under /static/ have a content hash in their name and are cached by the browser for a year without
+ * revalidation; index.html and the other unhashed files are revalidated on every load, so a new release is
+ * picked up right away. Assets stay behind the SSO login, hence private caching only.
+ */
+@Configuration
+public class StaticAssetConfig implements WebMvcConfigurer {
+    private static final String BUILD_LOCATION = "classpath:/static/";
+    private static final Duration HASHED_ASSET_MAX_AGE = Duration.ofDays(365);
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        registry.addResourceHandler("/static/**")
+                .addResourceLocations(BUILD_LOCATION + "static/")
+                .setCacheControl(CacheControl.maxAge(HASHED_ASSET_MAX_AGE).cachePrivate().immutable())
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver());
+
+        // Replaces Spring Boot's default /** handler, which would serve these files without the encoded variants
+        registry.addResourceHandler("/**")
+                .addResourceLocations(BUILD_LOCATION)
+                .setCacheControl(CacheControl.noCache().cachePrivate())
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver());
+    }
+}
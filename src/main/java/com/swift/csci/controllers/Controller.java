@@ -1,26 +1,63 @@
 package com.swift.csci.controllers;
 
 import com.azure.core.annotation.QueryParam;
+import com.swift.csci.analysis.RuleOverlapAnalyzer;
+import com.swift.csci.analysis.RuleOverlapReport;
 import com.swift.csci.audit.AuditEntryPublisher;
 import com.swift.csci.audit.AuditLogEntry;
 import com.swift.csci.audit.AuditUtils;
 import com.swift.csci.exception.DynamoDBException;
+import com.swift.csci.expiry.ExpirySweepReport;
+import com.swift.csci.expiry.RuleExpirySweeper;
+import com.swift.csci.hits.RuleHits;
+import com.swift.csci.hits.RuleHitsReport;
 import com.swift.csci.model.SuppressionData;
+import com.swift.csci.model.SuppressionDataFields;
+import com.swift.csci.pending.PendingSuppressionPage;
+import com.swift.csci.pending.PendingSuppressionQueue;
+import com.swift.csci.pending.PendingSuppressionSummary;
 import com.swift.csci.repository.DynamoDbRepository;
+import com.swift.csci.resilience.CircuitOpenException;
+import com.swift.csci.rulechange.RuleChangeEvent;
+import com.swift.csci.rulechange.RuleChangePublisher;
+import com.swift.csci.search.RuleSearchIndex;
+import com.swift.csci.search.RuleSearchResult;
 import com.swift.csci.security.UserProfile;
+import com.swift.csci.snapshot.RuleTableCache;
+import com.swift.csci.stats.RuleStatistics;
+import com.swift.csci.stats.RuleStatisticsReport;
+import com.swift.csci.sync.RuleChangeStream;
+import com.swift.csci.sync.TableChanges;
+import com.swift.csci.sync.TableVersionTracker;
+import com.swift.csci.throttle.MutationThrottle;
+import com.swift.csci.throttle.MutationThrottleReport;
+import com.swift.csci.tracing.Span;
+import com.swift.csci.tracing.TraceStatsReport;
+import com.swift.csci.tracing.Tracer;
+import com.swift.csci.transfer.RuleExporter;
+import com.swift.csci.transfer.RuleImportReport;
+import com.swift.csci.transfer.RuleImporter;
+import com.swift.csci.transfer.TransferFormat;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.saml2.provider.service.authentication.Saml2AuthenticatedPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import static com.swift.csci.audit.Action.*;
 import static com.swift.csci.audit.AuditUtils.*;
 import java.util.*;
+import com.swift.csci.utils.DueDateUtils;
 import com.swift.csci.utils.InspectorValidationUtils;
+import com.swift.csci.utils.PatternValidationUtils;
 
 // Documentation of REST-related annotations:
 // https://docs.spring.io/spring-framework/docs/current/javadoc-api/org/springframework/web/bind/annotation/package-summary.html
@@ -34,11 +71,44 @@ public class Controller {
 
     private final DynamoDbRepository dynamoDbRepository;
     private final AuditEntryPublisher auditEntryPublisher;
+    private final RuleChangePublisher ruleChangePublisher;
+    private final RuleOverlapAnalyzer ruleOverlapAnalyzer;
+    private final TableVersionTracker tableVersionTracker;
+    private final RuleChangeStream ruleChangeStream;
+    private final RuleStatistics ruleStatistics;
+    private final RuleSearchIndex ruleSearchIndex;
+    private final RuleTableCache ruleTableCache;
+    private final MutationThrottle mutationThrottle;
+    private final RuleExporter ruleExporter;
+    private final RuleImporter ruleImporter;
+    private final RuleExpirySweeper ruleExpirySweeper;
+    private final PendingSuppressionQueue pendingSuppressionQueue;
+    private final RuleHits ruleHits;
+    private final Tracer tracer;
 
     @Autowired
-    public Controller(DynamoDbRepository dynamoDbRepository, AuditEntryPublisher auditEntryPublisher) {
+    public Controller(DynamoDbRepository dynamoDbRepository, AuditEntryPublisher auditEntryPublisher, RuleChangePublisher ruleChangePublisher,
+                      RuleOverlapAnalyzer ruleOverlapAnalyzer, TableVersionTracker tableVersionTracker, RuleChangeStream ruleChangeStream,
+                      RuleStatistics ruleStatistics, RuleSearchIndex ruleSearchIndex, RuleTableCache ruleTableCache,
+                      MutationThrottle mutationThrottle, RuleExporter ruleExporter, RuleImporter ruleImporter,
+                      RuleExpirySweeper ruleExpirySweeper, PendingSuppressionQueue pendingSuppressionQueue, RuleHits ruleHits,
+                      Tracer tracer) {
         this.dynamoDbRepository = dynamoDbRepository;
         this.auditEntryPublisher = auditEntryPublisher;
+        this.ruleChangePublisher = ruleChangePublisher;
+        this.ruleOverlapAnalyzer = ruleOverlapAnalyzer;
+        this.tableVersionTracker = tableVersionTracker;
+        this.ruleChangeStream = ruleChangeStream;
+        this.ruleStatistics = ruleStatistics;
+        this.ruleSearchIndex = ruleSearchIndex;
+        this.ruleTableCache = ruleTableCache;
+        this.mutationThrottle = mutationThrottle;
+        this.ruleExporter = ruleExporter;
+        this.ruleImporter = ruleImporter;
+        this.ruleExpirySweeper = ruleExpirySweeper;
+        this.pendingSuppressionQueue = pendingSuppressionQueue;
+        this.ruleHits = ruleHits;
+        this.tracer = tracer;
     }
 
 
@@ -96,15 +166,37 @@ public class Controller {
         }
     }
 
+    // fields=id,finding_title,... returns only those fields (plus the id and ser_id keys) and reads only them from DynamoDB
     @GetMapping("/getItem")
-    public ResponseEntity<SuppressionData> getItem(@RequestParam String id, @RequestParam String serId) {
+    public ResponseEntity<?> getItem(@RequestParam String id, @RequestParam String serId, @RequestParam(required = false) String fields) {
+        Set<String> projection;
+        try {
+            projection = SuppressionDataFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            LOGGER.error("Invalid fields parameter: " + fields);
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
         try {
             LOGGER.info("Getting item with id: " + id + " and ser id: " + serId + "...");
-            SuppressionData item = dynamoDbRepository.getItem(id, serId);
+            SuppressionData item;
+            try (Span span = tracer.start("getItem.read")) {
+                try {
+                    item = projection.isEmpty()
+                            ? dynamoDbRepository.getItem(id, serId)
+                            : dynamoDbRepository.getItem(id, serId, projection);
+                } catch (CircuitOpenException e) {
+                    span.setAttribute("served_from_cache", true);
+                    item = cachedItem(id, serId, e);
+                }
+            }
             if(item != null)
             {
                 LOGGER.info("Got item with data: " + item.toString());
-                return new ResponseEntity<>(item, HttpStatus.OK);
+                if(projection.isEmpty())
+                {
+                    return new ResponseEntity<>(item, HttpStatus.OK);
+                }
+                return new ResponseEntity<>(SuppressionDataFields.project(item, projection), HttpStatus.OK);
             }
             else
             {
@@ -117,17 +209,52 @@ public class Controller {
         }
     }
 
+    // fields=id,finding_title,... returns only those fields (plus the id and ser_id keys), and reads only them when scanning DynamoDB.
+    // The ETag is the table version, so a client revalidating with If-None-Match gets a 304 without a table scan.
     @GetMapping("/listItems")
-    public ResponseEntity<List<SuppressionData>> listItems() {
+    public ResponseEntity<?> listItems(@RequestParam(required = false) String fields,
+                                       @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Set<String> projection;
+        try {
+            projection = SuppressionDataFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            LOGGER.error("Invalid fields parameter: " + fields);
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+        // Read before the scan: a write finishing during the scan makes the next request miss the ETag, never the reverse
+        long version = tableVersionTracker.current();
+        String eTag = listItemsETag(version, projection);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(eTag);
+        headers.setCacheControl("no-cache");
+        // Until the version is settled a write of another instance may still land under it
+        if(eTagMatches(eTag, ifNoneMatch) && tableVersionTracker.isSettled(version))
+        {
+            LOGGER.info("Item list not modified since " + eTag + ".");
+            return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+        }
         try {
             LOGGER.info("Listing all items...");
-            List<SuppressionData> items = dynamoDbRepository.listItems();
+            // Served from the rule table cache while it is current with DynamoDB, else scanned with the projection
+            List<SuppressionData> items;
+            try (Span span = tracer.start("listItems.read")) {
+                Optional<List<SuppressionData>> cachedItems = ruleTableCache.items();
+                span.setAttribute("served_from_cache", cachedItems.isPresent());
+                items = cachedItems.isPresent() ? cachedItems.get() : scanItems(projection);
+            }
             if(items != null)
             {
-                List<SuppressionData> sortedList = new ArrayList<>(items);
-                sortedList.sort(Comparator.comparing(SuppressionData::getId)); // sort by id
-                LOGGER.info("Listing and sorting of items successful.");
-                return new ResponseEntity<>(sortedList, HttpStatus.OK);
+                try (Span span = tracer.start("listItems.sortAndProject")) {
+                    span.setAttribute("items", items.size());
+                    List<SuppressionData> sortedList = new ArrayList<>(items);
+                    sortedList.sort(Comparator.comparing(SuppressionData::getId)); // sort by id
+                    LOGGER.info("Listing and sorting of items successful.");
+                    if(projection.isEmpty())
+                    {
+                        return new ResponseEntity<>(sortedList, headers, HttpStatus.OK);
+                    }
+                    return new ResponseEntity<>(project(sortedList, projection), headers, HttpStatus.OK);
+                }
             }
             else
             {
@@ -141,15 +268,265 @@ public class Controller {
         }
     }
 
+    // Items created, updated or deleted after the given version (the version in the /listItems ETag or of a previous /changes call).
+    // 410 GONE when deletes that old are no longer known, the client then reloads /listItems.
+    @GetMapping(value = "/changes", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> changes(@RequestParam long since, @RequestParam(required = false) String fields) {
+        Set<String> projection;
+        try {
+            projection = SuppressionDataFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            LOGGER.error("Invalid fields parameter: " + fields);
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+        if(!projection.isEmpty())
+        {
+            projection.add("last_modified");
+        }
+        try {
+            LOGGER.info("Listing changes since version " + since + "...");
+            long version = tableVersionTracker.current();
+            Optional<List<TableVersionTracker.Tombstone>> deleted = tableVersionTracker.deletedSince(since);
+            if(deleted.isEmpty())
+            {
+                return new ResponseEntity<>("Version " + since + " is too old, reload the full list.", HttpStatus.GONE);
+            }
+            if(since >= version && tableVersionTracker.isSettled(version))
+            {
+                return new ResponseEntity<>(new TableChanges(version, List.of(), List.of()), HttpStatus.OK);
+            }
+            // Read again from before the given version, writes of other instances may have landed under it since
+            List<SuppressionData> upserted = new ArrayList<>(dynamoDbRepository.listItemsModifiedSince(tableVersionTracker.rereadFrom(since), projection));
+            upserted.sort(Comparator.comparing(SuppressionData::getId));
+            List<TableVersionTracker.Tombstone> removed = withoutRecreated(deleted.get(), upserted);
+            LOGGER.info("Found " + upserted.size() + " created or updated and " + removed.size() + " deleted items since version " + since + ".");
+            return new ResponseEntity<>(new TableChanges(version, projection.isEmpty() ? upserted : project(upserted, projection), removed), HttpStatus.OK);
+        } catch (Exception e) {
+            LOGGER.error("Failed to list changes.");
+            throw new DynamoDBException("Failed to list changes.", e);
+        }
+    }
+
+    // Server-Sent Events stream of rule changes (create, update, delete) for open portal sessions
+    @GetMapping(value = "/ruleChanges", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> ruleChanges() {
+        LOGGER.info("Opening rule change stream...");
+        return ruleChangeStream.subscribe()
+                .map(emitter -> new ResponseEntity<>(emitter, HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE));
+    }
+
+    // Rule counts per product, finding type, SER and action, and expiry, from incrementally maintained counters
+    @GetMapping(value = "/stats", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<RuleStatisticsReport> stats() {
+        LOGGER.info("Getting rule statistics...");
+        return ruleStatistics.report()
+                .map(report -> new ResponseEntity<>(report, HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE));
+    }
+
+    // Admitted and rejected create/update/delete requests of the per-user rate limit and the write bulkhead
+    @GetMapping(value = "/throttleStats", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<MutationThrottleReport> throttleStats() {
+        LOGGER.info("Getting mutation throttle statistics...");
+        return new ResponseEntity<>(mutationThrottle.report(), HttpStatus.OK);
+    }
+
+    // Latency histograms per request, request phase and DynamoDB / S3 operation since startup, from the tracing spans
+    @GetMapping(value = "/traceStats", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<TraceStatsReport> traceStats() {
+        LOGGER.info("Getting trace statistics...");
+        return new ResponseEntity<>(tracer.report(), HttpStatus.OK);
+    }
+
+    // Ranked full-text search over titles, descriptions, resource patterns and account ids, e.g. /search?q=s3 123456789012
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> search(@RequestParam(required = false) String q, @RequestParam(required = false) String product,
+                                    @RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "20") int size) {
+        if(page < 0 || size < 1 || size > 100)
+        {
+            LOGGER.error("Invalid search page " + page + " or size " + size + ".");
+            return new ResponseEntity<>("page must be 0 or more and size between 1 and 100.", HttpStatus.BAD_REQUEST);
+        }
+        LOGGER.info("Searching rules for: " + q + "...");
+        Optional<RuleSearchResult> result = ruleSearchIndex.search(q, product, page, size);
+        if(result.isEmpty())
+        {
+            LOGGER.info("Rule search index is not built yet.");
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        return new ResponseEntity<>(result.get(), HttpStatus.OK);
+    }
+
+    // Findings the engine matched but has not yet updated in Security Hub, counted per rule, SER and action, a page of rules at a time
+    @GetMapping(value = "/pendingSuppressions", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> pendingSuppressions(@RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "50") int size) {
+        if(page < 0 || size < 1 || size > 200)
+        {
+            LOGGER.error("Invalid pending suppressions page " + page + " or size " + size + ".");
+            return new ResponseEntity<>("page must be 0 or more and size between 1 and 200.", HttpStatus.BAD_REQUEST);
+        }
+        try {
+            LOGGER.info("Getting pending suppressions...");
+            PendingSuppressionSummary summary = pendingSuppressionQueue.summary(page, size);
+            return new ResponseEntity<>(summary, HttpStatus.OK);
+        } catch (Exception e) {
+            LOGGER.error("Failed to get pending suppressions.");
+            throw new DynamoDBException("Failed to get pending suppressions.", e);
+        }
+    }
+
+    // The pending findings of one rule; pass the returned next_token as nextToken for the next page
+    @GetMapping(value = "/pendingSuppressionItems", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> pendingSuppressionItems(@RequestParam String ruleId, @RequestParam(required = false) String nextToken,
+                                                     @RequestParam(defaultValue = "100") int limit) {
+        if(limit < 1 || limit > 1000)
+        {
+            LOGGER.error("Invalid pending suppression items limit " + limit + ".");
+            return new ResponseEntity<>("limit must be between 1 and 1000.", HttpStatus.BAD_REQUEST);
+        }
+        try {
+            LOGGER.info("Getting pending suppressions of rule " + ruleId + "...");
+            PendingSuppressionPage items = pendingSuppressionQueue.items(ruleId, nextToken, limit);
+            return new ResponseEntity<>(items, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            LOGGER.error(e.getMessage());
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            LOGGER.error("Failed to get pending suppression items.");
+            throw new DynamoDBException("Failed to get pending suppression items.", e);
+        }
+    }
+
+    // Matches and applied findings per rule over the last 7 and 30 days, as counted by the engine; unusedForDays lists only the rules with no match in that time
+    @GetMapping(value = "/ruleHits", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> ruleHits(@RequestParam(required = false) Integer unusedForDays) {
+        if(unusedForDays != null && (unusedForDays < 1 || unusedForDays > RuleHits.WINDOW_DAYS))
+        {
+            LOGGER.error("Invalid rule hits unusedForDays " + unusedForDays + ".");
+            return new ResponseEntity<>("unusedForDays must be between 1 and " + RuleHits.WINDOW_DAYS + ".", HttpStatus.BAD_REQUEST);
+        }
+        try {
+            LOGGER.info("Getting rule hits...");
+            RuleHitsReport report = ruleHits.report(unusedForDays);
+            return new ResponseEntity<>(report, HttpStatus.OK);
+        } catch (Exception e) {
+            LOGGER.error("Failed to get rule hits.");
+            throw new DynamoDBException("Failed to get rule hits.", e);
+        }
+    }
+
+    // Reports duplicate, shadowed and conflicting rules; with id and serId only those involving that rule (e.g. right after saving it)
+    @GetMapping(value = "/analyzeRules", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<RuleOverlapReport> analyzeRules(@RequestParam(required = false) String id, @RequestParam(required = false) String serId) {
+        try {
+            LOGGER.info("Analyzing rule overlaps...");
+            RuleOverlapReport report = ruleOverlapAnalyzer.analyze(ruleTableCache.items().orElseGet(dynamoDbRepository::listItems));
+            if(id != null && serId != null)
+            {
+                report = report.filterFor(id, serId);
+            }
+            return new ResponseEntity<>(report, HttpStatus.OK);
+        } catch (Exception e) {
+            LOGGER.error("Failed to analyze rules.");
+            throw new DynamoDBException("Failed to analyze rules.", e);
+        }
+    }
+
+    // The whole rule table as a gzip compressed download, format=ndjson (one rule per line) or format=csv
+    @GetMapping("/export")
+    public ResponseEntity<?> exportItems(@RequestParam(defaultValue = "ndjson") String format) {
+        TransferFormat transferFormat;
+        try {
+            transferFormat = TransferFormat.parse(format);
+        } catch (IllegalArgumentException e) {
+            LOGGER.error("Invalid export format: " + format);
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+        LOGGER.info("Exporting items as " + transferFormat + "...");
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/gzip"));
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename("suppression-rules-" + DueDateUtils.todayUtc() + "." + transferFormat.getExtension() + ".gz").build());
+        StreamingResponseBody body = out -> ruleExporter.export(transferFormat, out);
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    // Creates and updates rules from an export file (NDJSON or CSV, gzip compressed or not) sent as the request body
+    @PostMapping(value = "/import", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> importItems(@RequestParam(defaultValue = "ndjson") String format, HttpServletRequest request) {
+        TransferFormat transferFormat;
+        try {
+            transferFormat = TransferFormat.parse(format);
+        } catch (IllegalArgumentException e) {
+            LOGGER.error("Invalid import format: " + format);
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+        try {
+            LOGGER.info("Importing items from " + transferFormat + "...");
+            Optional<RuleImportReport> report = ruleImporter.importRules(transferFormat, request.getInputStream());
+            if(report.isEmpty())
+            {
+                LOGGER.error("Another import is already running.");
+                return new ResponseEntity<>("Another import is already running.", HttpStatus.CONFLICT);
+            }
+            return new ResponseEntity<>(report.get(), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            LOGGER.error("Invalid import file: " + e.getMessage());
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            LOGGER.error("Failed to import items.");
+            throw new DynamoDBException("Failed to import items.", e);
+        }
+    }
+
+    // Progress of the running import, or the outcome of the last one since startup
+    @GetMapping(value = "/importStatus", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<RuleImportReport> importStatus() {
+        return ruleImporter.status()
+                .map(report -> new ResponseEntity<>(report, HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NO_CONTENT));
+    }
+
+    // Runs the expiry sweep now; by default only reports the rules it would archive, dryRun=false archives them
+    @PostMapping(value = "/expirySweep", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> expirySweep(@RequestParam(defaultValue = "true") boolean dryRun) {
+        try {
+            LOGGER.info("Running the rule expiry sweep" + (dryRun ? " (dry run)" : "") + "...");
+            Optional<ExpirySweepReport> report = ruleExpirySweeper.sweep(dryRun);
+            if(report.isEmpty())
+            {
+                LOGGER.error("The rule expiry sweep is already running.");
+                return new ResponseEntity<>("The rule expiry sweep is already running.", HttpStatus.CONFLICT);
+            }
+            return new ResponseEntity<>(report.get(), HttpStatus.OK);
+        } catch (Exception e) {
+            LOGGER.error("Failed to run the rule expiry sweep.");
+            throw new DynamoDBException("Failed to run the rule expiry sweep.", e);
+        }
+    }
+
     @DeleteMapping("/deleteItem")
     public ResponseEntity<String> deleteItem(@RequestParam String id, @RequestParam String serId) {
         try {
             LOGGER.info("Deleting item with finding title: " + id + " and ser id: " + serId + " ...");
-            SuppressionData item = dynamoDbRepository.getItem(id, serId);
+            SuppressionData item = tracer.phase("deleteItem.read", () -> dynamoDbRepository.getItem(id, serId));
             if(item != null)
             {
-                dynamoDbRepository.deleteItem(id, serId);
-                auditEntryPublisher.publish(AuditLogEntry.create(DELETE, id, serId, computeDiffs(item, null, DELETE)));
+                try (Span span = tracer.start("deleteItem.write")) {
+                    long version = tableVersionTracker.begin();
+                    span.setAttribute("table_version", version);
+                    try {
+                        dynamoDbRepository.deleteItem(id, serId);
+                        tableVersionTracker.recordDelete(id, serId, version);
+                        // Published before the version completes so in-process listeners are up to date with it
+                        ruleChangePublisher.publish(RuleChangeEvent.create(DELETE, item, null, version));
+                    } finally {
+                        tableVersionTracker.complete(version);
+                    }
+                }
+                Map<String, Object> diffs = tracer.phase("deleteItem.auditDiff", () -> computeDiffs(item, null, DELETE));
+                tracer.phase("deleteItem.auditPublish", () -> auditEntryPublisher.publish(AuditLogEntry.create(DELETE, id, serId, diffs)));
                 LOGGER.info("Deleted item with data: " + item.toString());
                 return new ResponseEntity<>("Deleted item with data: " + item.toString(), HttpStatus.OK);
             }
@@ -168,41 +545,27 @@ public class Controller {
     public ResponseEntity<String> updateItem(@RequestBody SuppressionData user_input) {
         try {
             LOGGER.info("Updating item with data: " + user_input.toString() + "...");
-            if(user_input.getSerId() == null || Objects.equals(user_input.getSerId(), ""))
-            {
-                LOGGER.error("A SER Id (ser_id field) is required.");
-                return new ResponseEntity<>("Cannot update item which is missing a SER Id.", HttpStatus.BAD_REQUEST);
-            }
-            if(user_input.getSerLink() == null || Objects.equals(user_input.getSerLink(), ""))
-            {
-                LOGGER.error("A SER link (ser_link field) is required.");
-                return new ResponseEntity<>("Cannot update item which is missing a SER link.", HttpStatus.BAD_REQUEST);
-            }
-            if(user_input.getFindingTitle() == null || Objects.equals(user_input.getFindingTitle(), ""))
-            {
-                LOGGER.error("A finding title (finding_title field) is required.");
-                return new ResponseEntity<>("Cannot update item which is missing a finding title.", HttpStatus.BAD_REQUEST);
-            }
-            if(user_input.getProductName() == null || Objects.equals(user_input.getProductName(), ""))
+            ResponseEntity<String> missingField = tracer.phase("updateItem.validateFields", () -> checkUpdateFields(user_input));
+            if(missingField != null)
             {
-                LOGGER.error("A Product Name (product_name field) is required.");
-                return new ResponseEntity<>("Cannot update item which is missing a product name.", HttpStatus.BAD_REQUEST);
-            }
-            if(user_input.getDueDate() == null || Objects.equals(user_input.getDueDate(), ""))
-            {
-                LOGGER.error("A due date (due_date field) is required.");
-                return new ResponseEntity<>("Cannot update item which is missing a due date.", HttpStatus.BAD_REQUEST);
+                return missingField;
             }
 
             // Inspector-specific validation (J1-J7) for update
             if(InspectorValidationUtils.isInspector(user_input.getProductName())) {
-                InspectorValidationUtils.ValidationResult validationResult = InspectorValidationUtils.validate(user_input);
+                InspectorValidationUtils.ValidationResult validationResult = tracer.phase("updateItem.validateInspector", () -> InspectorValidationUtils.validate(user_input));
                 if(!validationResult.isValid()) {
                     return new ResponseEntity<>(validationResult.getErrorMessage(), HttpStatus.BAD_REQUEST);
                 }
             }
 
-            SuppressionData item = dynamoDbRepository.getItem(user_input.getId(), user_input.getSerId());
+            // Regex fields are run by the engine against every finding, reject invalid or backtracking-prone patterns
+            InspectorValidationUtils.ValidationResult patternValidationResult = tracer.phase("updateItem.validatePatterns", () -> PatternValidationUtils.validate(user_input));
+            if(!patternValidationResult.isValid()) {
+                return new ResponseEntity<>(patternValidationResult.getErrorMessage(), HttpStatus.BAD_REQUEST);
+            }
+
+            SuppressionData item = tracer.phase("updateItem.read", () -> dynamoDbRepository.getItem(user_input.getId(), user_input.getSerId()));
             if(item != null)
             {
                 if(user_input.equals(item))
@@ -216,8 +579,19 @@ public class Controller {
                     } else if(user_input.getProductName().equalsIgnoreCase("Security Hub")){
                         user_input.setFindingType("Industry and Regulatory Standards");
                     }
-                    dynamoDbRepository.updateItem(user_input);
-                    auditEntryPublisher.publish(AuditLogEntry.create(UPDATE, user_input.getId(), user_input.getSerId(), computeDiffs(item, user_input, UPDATE)));
+                    try (Span span = tracer.start("updateItem.write")) {
+                        long version = tableVersionTracker.begin();
+                        span.setAttribute("table_version", version);
+                        try {
+                            user_input.setLastModified(version);
+                            dynamoDbRepository.updateItem(user_input);
+                            ruleChangePublisher.publish(RuleChangeEvent.create(UPDATE, item, user_input, version));
+                        } finally {
+                            tableVersionTracker.complete(version);
+                        }
+                    }
+                    Map<String, Object> diffs = tracer.phase("updateItem.auditDiff", () -> computeDiffs(item, user_input, UPDATE));
+                    tracer.phase("updateItem.auditPublish", () -> auditEntryPublisher.publish(AuditLogEntry.create(UPDATE, user_input.getId(), user_input.getSerId(), diffs)));
                     LOGGER.info("Updated item with data: " + user_input.toString());
                     return new ResponseEntity<>("Updated item with data: " + user_input.toString(), HttpStatus.OK);
                 }
@@ -238,26 +612,27 @@ public class Controller {
     public ResponseEntity<String> createItem(@RequestBody SuppressionData user_input) {
         try {
             LOGGER.info("Creating item with data: " + user_input.toString() + "...");
-            if(user_input.getSerLink() == null || Objects.equals(user_input.getSerLink(), ""))
+            ResponseEntity<String> missingField = tracer.phase("createItem.validateFields", () -> checkCreateFields(user_input));
+            if(missingField != null)
             {
-                LOGGER.error("A SER link (ser_link field) is required.");
-                return new ResponseEntity<>("Cannot create item which is missing a SER link.", HttpStatus.BAD_REQUEST);
-            }
-            if(user_input.getProductName() == null || Objects.equals(user_input.getProductName(), ""))
-            {
-                LOGGER.error("A ProductName (product_name field) is required.");
-                return new ResponseEntity<>("Cannot create item which is missing a ProductName.", HttpStatus.BAD_REQUEST);
+                return missingField;
             }
 
             // Inspector-specific validation (J1-J7)
             if(InspectorValidationUtils.isInspector(user_input.getProductName())) {
-                InspectorValidationUtils.ValidationResult validationResult = InspectorValidationUtils.validate(user_input);
+                InspectorValidationUtils.ValidationResult validationResult = tracer.phase("createItem.validateInspector", () -> InspectorValidationUtils.validate(user_input));
                 if(!validationResult.isValid()) {
                     return new ResponseEntity<>(validationResult.getErrorMessage(), HttpStatus.BAD_REQUEST);
                 }
             }
 
-            SuppressionData item = dynamoDbRepository.getItem(user_input.getId(), user_input.getSerId());
+            // Regex fields are run by the engine against every finding, reject invalid or backtracking-prone patterns
+            InspectorValidationUtils.ValidationResult patternValidationResult = tracer.phase("createItem.validatePatterns", () -> PatternValidationUtils.validate(user_input));
+            if(!patternValidationResult.isValid()) {
+                return new ResponseEntity<>(patternValidationResult.getErrorMessage(), HttpStatus.BAD_REQUEST);
+            }
+
+            SuppressionData item = tracer.phase("createItem.read", () -> dynamoDbRepository.getItem(user_input.getId(), user_input.getSerId()));
             if(item != null)
             {
                 LOGGER.error("Cannot create item which already exists.");
@@ -270,8 +645,19 @@ public class Controller {
                 } else if(user_input.getProductName().equalsIgnoreCase("Security Hub")){
                     user_input.setFindingType("Industry and Regulatory Standards");
                 }
-                dynamoDbRepository.createItem(user_input);
-                auditEntryPublisher.publish(AuditLogEntry.create(CREATE, user_input.getId(), user_input.getSerId(), computeDiffs(null, user_input, CREATE)));
+                try (Span span = tracer.start("createItem.write")) {
+                    long version = tableVersionTracker.begin();
+                    span.setAttribute("table_version", version);
+                    try {
+                        user_input.setLastModified(version);
+                        dynamoDbRepository.createItem(user_input);
+                        ruleChangePublisher.publish(RuleChangeEvent.create(CREATE, null, user_input, version));
+                    } finally {
+                        tableVersionTracker.complete(version);
+                    }
+                }
+                Map<String, Object> diffs = tracer.phase("createItem.auditDiff", () -> computeDiffs(null, user_input, CREATE));
+                tracer.phase("createItem.auditPublish", () -> auditEntryPublisher.publish(AuditLogEntry.create(CREATE, user_input.getId(), user_input.getSerId(), diffs)));
                 LOGGER.info("Created item with data: " + user_input.toString());
                 return new ResponseEntity<>("Created item with data: " + user_input.toString(), HttpStatus.OK);
             }
@@ -280,4 +666,122 @@ public class Controller {
             throw new DynamoDBException("Failed to create item.", e);
         }
     }
-}
\ No newline at end of file
+
+    // Fields required to update an item; the response for the first one missing, null when all are given
+    private static ResponseEntity<String> checkUpdateFields(SuppressionData user_input) {
+        if(user_input.getSerId() == null || Objects.equals(user_input.getSerId(), ""))
+        {
+            LOGGER.error("A SER Id (ser_id field) is required.");
+            return new ResponseEntity<>("Cannot update item which is missing a SER Id.", HttpStatus.BAD_REQUEST);
+        }
+        if(user_input.getSerLink() == null || Objects.equals(user_input.getSerLink(), ""))
+        {
+            LOGGER.error("A SER link (ser_link field) is required.");
+            return new ResponseEntity<>("Cannot update item which is missing a SER link.", HttpStatus.BAD_REQUEST);
+        }
+        if(user_input.getFindingTitle() == null || Objects.equals(user_input.getFindingTitle(), ""))
+        {
+            LOGGER.error("A finding title (finding_title field) is required.");
+            return new ResponseEntity<>("Cannot update item which is missing a finding title.", HttpStatus.BAD_REQUEST);
+        }
+        if(user_input.getProductName() == null || Objects.equals(user_input.getProductName(), ""))
+        {
+            LOGGER.error("A Product Name (product_name field) is required.");
+            return new ResponseEntity<>("Cannot update item which is missing a product name.", HttpStatus.BAD_REQUEST);
+        }
+        if(user_input.getDueDate() == null || Objects.equals(user_input.getDueDate(), ""))
+        {
+            LOGGER.error("A due date (due_date field) is required.");
+            return new ResponseEntity<>("Cannot update item which is missing a due date.", HttpStatus.BAD_REQUEST);
+        }
+        return null;
+    }
+
+    // Fields required to create an item; the response for the first one missing, null when all are given
+    private static ResponseEntity<String> checkCreateFields(SuppressionData user_input) {
+        if(user_input.getSerLink() == null || Objects.equals(user_input.getSerLink(), ""))
+        {
+            LOGGER.error("A SER link (ser_link field) is required.");
+            return new ResponseEntity<>("Cannot create item which is missing a SER link.", HttpStatus.BAD_REQUEST);
+        }
+        if(user_input.getProductName() == null || Objects.equals(user_input.getProductName(), ""))
+        {
+            LOGGER.error("A ProductName (product_name field) is required.");
+            return new ResponseEntity<>("Cannot create item which is missing a ProductName.", HttpStatus.BAD_REQUEST);
+        }
+        return null;
+    }
+
+    // While DynamoDB is unavailable (circuit breaker open), the list is answered from the rule table cache however old
+    private List<SuppressionData> scanItems(Set<String> projection) {
+        try {
+            return projection.isEmpty() ? dynamoDbRepository.listItems() : dynamoDbRepository.listItems(projection);
+        } catch (CircuitOpenException e) {
+            List<SuppressionData> items = ruleTableCache.lastKnownItems().orElseThrow(() -> e);
+            LOGGER.warn("DynamoDB unavailable, listing items from the rule table cache.");
+            return items;
+        }
+    }
+
+    // While DynamoDB is unavailable (circuit breaker open), reads are answered from the rule table cache if it is loaded
+    private SuppressionData cachedItem(String id, String serId, CircuitOpenException e) {
+        List<SuppressionData> items = ruleTableCache.lastKnownItems().orElseThrow(() -> e);
+        LOGGER.warn("DynamoDB unavailable, serving item with id: " + id + " and ser id: " + serId + " from the rule table cache.");
+        for (SuppressionData item : items) {
+            if (id.equals(item.getId()) && serId.equals(item.getSerId())) {
+                return item;
+            }
+        }
+        return null;
+    }
+
+    private static List<Map<String, Object>> project(List<SuppressionData> items, Set<String> projection) {
+        List<Map<String, Object>> projectedList = new ArrayList<>(items.size());
+        for (SuppressionData item : items) {
+            projectedList.add(SuppressionDataFields.project(item, projection));
+        }
+        return projectedList;
+    }
+
+    // The reread window can hold the delete of an item and its re-creation; the item is reported as upserted only
+    private static List<TableVersionTracker.Tombstone> withoutRecreated(List<TableVersionTracker.Tombstone> deleted, List<SuppressionData> upserted) {
+        Map<String, Long> upsertedVersions = new HashMap<>();
+        for (SuppressionData item : upserted) {
+            upsertedVersions.put(item.getId() + "\u0000" + item.getSerId(), item.getLastModified());
+        }
+        List<TableVersionTracker.Tombstone> removed = new ArrayList<>(deleted.size());
+        for (TableVersionTracker.Tombstone tombstone : deleted) {
+            Long upsertedVersion = upsertedVersions.get(tombstone.getId() + "\u0000" + tombstone.getSerId());
+            if(upsertedVersion == null || upsertedVersion < tombstone.getVersion())
+            {
+                removed.add(tombstone);
+            }
+        }
+        return removed;
+    }
+
+    private static String listItemsETag(long version, Set<String> projection) {
+        return projection.isEmpty()
+                ? "\"" + version + "\""
+                : "\"" + version + "-" + Integer.toHexString(projection.hashCode()) + "\"";
+    }
+
+    private static boolean eTagMatches(String eTag, String ifNoneMatch) {
+        if(ifNoneMatch == null)
+        {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.strip();
+            if(value.startsWith("W/"))
+            {
+                value = value.substring(2);
+            }
+            if(value.equals(eTag) || value.equals("*"))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+}
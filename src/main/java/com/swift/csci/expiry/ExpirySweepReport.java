@@ -0,0 +1,106 @@
+package com.swift.csci.expiry;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+public class ExpirySweepReport {
+    private final boolean dryRun;
+    private final int graceDays;
+    private final LocalDate expiredBefore;
+    private final String archiveTable;
+    private final Instant startedAt;
+    private final long elapsedMillis;
+    private final int expired;
+    private final int archived;
+    private final int skipped;
+    private final int deferred;
+    private final List<ExpiredRule> rules;
+
+    public ExpirySweepReport(boolean dryRun, int graceDays, LocalDate expiredBefore, String archiveTable, Instant startedAt, long elapsedMillis,
+                             int expired, int archived, int skipped, int deferred, List<ExpiredRule> rules) {
+        this.dryRun = dryRun;
+        this.graceDays = graceDays;
+        this.expiredBefore = expiredBefore;
+        this.archiveTable = archiveTable;
+        this.startedAt = startedAt;
+        this.elapsedMillis = elapsedMillis;
+        this.expired = expired;
+        this.archived = archived;
+        this.skipped = skipped;
+        this.deferred = deferred;
+        this.rules = rules;
+    }
+
+    public boolean isDryRun() {
+        return dryRun;
+    }
+
+    public int getGraceDays() {
+        return graceDays;
+    }
+
+    // Rules due before this date are archived
+    public LocalDate getExpiredBefore() {
+        return expiredBefore;
+    }
+
+    public String getArchiveTable() {
+        return archiveTable;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public int getExpired() {
+        return expired;
+    }
+
+    public int getArchived() {
+        return archived;
+    }
+
+    // Rules edited (e.g. given a new due date) or deleted between the scan and the archiving
+    public int getSkipped() {
+        return skipped;
+    }
+
+    // Expired rules over the per run limit, left for the next run
+    public int getDeferred() {
+        return deferred;
+    }
+
+    // The expired rules handled by this run
+    public List<ExpiredRule> getRules() {
+        return rules;
+    }
+
+    public static class ExpiredRule {
+        private final String id;
+        private final String serId;
+        private final String dueDate;
+
+        public ExpiredRule(String id, String serId, String dueDate) {
+            this.id = id;
+            this.serId = serId;
+            this.dueDate = dueDate;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getSerId() {
+            return serId;
+        }
+
+        public String getDueDate() {
+            return dueDate;
+        }
+    }
+}
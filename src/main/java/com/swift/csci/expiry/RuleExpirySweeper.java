@@ -0,0 +1,214 @@
+package com.swift.csci.expiry;
+
+import com.swift.csci.audit.Action;
+import com.swift.csci.audit.AuditEntryPublisher;
+import com.swift.csci.audit.AuditLogEntry;
+import com.swift.csci.model.SuppressionData;
+import com.swift.csci.repository.DynamoDbRepository;
+import com.swift.csci.rulechange.RuleChangeEvent;
+import com.swift.csci.rulechange.RuleChangePublisher;
+import com.swift.csci.sync.ClusterLease;
+import com.swift.csci.sync.TableVersionTracker;
+import com.swift.csci.utils.DueDateUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.saml2.provider.service.authentication.Saml2AuthenticatedPrincipal;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.swift.csci.audit.AuditUtils.computeDiffs;
+
+/**
+ * Moves rules whose due date has passed, plus a grace period, from the rule table to an archive table, so neither
+ * the engine nor the portal keep loading rules that no longer apply.
+ * <p>
+ * A run scans only the keys and due dates, then handles the expired rules 25 at a time: the full rules are read
+ * and checked again, copied to the archive table and deleted from the rule table on condition that they were not
+ * written in the meantime (a rule given a new due date stays, and its archive copy is removed). Each archived rule
+ * is deleted like a portal delete (table version, rule change event, so the engine re-evaluates its findings) and
+ * gets an ARCHIVE audit entry.
+ * <p>
+ * One sweep runs at a time across all portal instances: it holds the "expiry-sweep" cluster lease while it runs.
+ * <p>
+ * The nightly run only reports what it would archive until expiry.sweep.dry-run is turned off, which needs the
+ * archive table (same key schema as the rule table) to exist.
+ */
+@Component
+public class RuleExpirySweeper {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RuleExpirySweeper.class);
+    private static final String JOB_NAME = "Rule expiry sweep";
+    private static final String LEASE_NAME = "expiry-sweep";
+    private static final List<String> CANDIDATE_ATTRIBUTES = List.of("id", "ser_id", "due_date");
+    // Limit of BatchWriteItem
+    private static final int BATCH_SIZE = 25;
+
+    private final DynamoDbRepository dynamoDbRepository;
+    private final TableVersionTracker tableVersionTracker;
+    private final RuleChangePublisher ruleChangePublisher;
+    private final AuditEntryPublisher auditEntryPublisher;
+    private final ClusterLease clusterLease;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final boolean scheduled;
+    private final boolean scheduledDryRun;
+    private final int graceDays;
+    private final int maxRulesPerRun;
+    private final String archiveTable;
+    private final Duration leaseDuration;
+
+    public RuleExpirySweeper(DynamoDbRepository dynamoDbRepository, TableVersionTracker tableVersionTracker,
+                             RuleChangePublisher ruleChangePublisher, AuditEntryPublisher auditEntryPublisher, ClusterLease clusterLease,
+                             @Value("${expiry.sweep.enabled:true}") boolean scheduled,
+                             @Value("${expiry.sweep.dry-run:true}") boolean scheduledDryRun,
+                             @Value("${expiry.sweep.grace-days:30}") int graceDays,
+                             @Value("${expiry.sweep.max-rules-per-run:1000}") int maxRulesPerRun,
+                             @Value("${expiry.sweep.archive-table:sw-securityhub-suppression-ser-db-v2-main-aws-archive}") String archiveTable,
+                             // Longer than a sweep of max-rules-per-run can take; a lease left by a dead instance blocks sweeps this long
+                             @Value("${expiry.sweep.lease-minutes:60}") long leaseMinutes) {
+        this.dynamoDbRepository = dynamoDbRepository;
+        this.tableVersionTracker = tableVersionTracker;
+        this.ruleChangePublisher = ruleChangePublisher;
+        this.auditEntryPublisher = auditEntryPublisher;
+        this.clusterLease = clusterLease;
+        this.scheduled = scheduled;
+        this.scheduledDryRun = scheduledDryRun;
+        this.graceDays = graceDays;
+        this.maxRulesPerRun = maxRulesPerRun;
+        this.archiveTable = archiveTable;
+        this.leaseDuration = Duration.ofMinutes(leaseMinutes);
+    }
+
+    @Scheduled(cron = "${expiry.sweep.cron:0 30 2 * * *}", zone = "UTC")
+    public void scheduledSweep() {
+        if (!scheduled) {
+            return;
+        }
+        try {
+            if (sweep(scheduledDryRun).isEmpty()) {
+                LOGGER.info("Rule expiry sweep already running here or on another instance, skipping the scheduled run.");
+            }
+        } catch (Exception e) {
+            LOGGER.error("Rule expiry sweep failed.", e);
+        }
+    }
+
+    /**
+     * Archives the expired rules, or with dryRun only reports them. Returns empty when a sweep is already running,
+     * on this or another instance.
+     */
+    public Optional<ExpirySweepReport> sweep(boolean dryRun) {
+        if (!running.compareAndSet(false, true)) {
+            return Optional.empty();
+        }
+        try {
+            if (!clusterLease.tryAcquire(LEASE_NAME, leaseDuration)) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.of(run(dryRun));
+            } finally {
+                clusterLease.release(LEASE_NAME);
+            }
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private ExpirySweepReport run(boolean dryRun) {
+        Instant startedAt = Instant.now();
+        long start = System.nanoTime();
+        // A rule is expired the day after its due date, so with the grace period it goes once due before this date
+        LocalDate expiredBefore = DueDateUtils.todayUtc().minusDays(graceDays);
+
+        List<SuppressionData> expired = new ArrayList<>();
+        for (SuppressionData head : dynamoDbRepository.listItems(CANDIDATE_ATTRIBUTES)) {
+            if (DueDateUtils.isExpired(head.getDueDate(), expiredBefore)) {
+                expired.add(head);
+            }
+        }
+        int found = expired.size();
+        List<SuppressionData> handled = expired.subList(0, Math.min(found, maxRulesPerRun));
+        List<ExpirySweepReport.ExpiredRule> rules = new ArrayList<>(handled.size());
+        for (SuppressionData head : handled) {
+            rules.add(new ExpirySweepReport.ExpiredRule(head.getId(), head.getSerId(), head.getDueDate()));
+        }
+
+        int archived = 0;
+        int skipped = 0;
+        if (!dryRun) {
+            for (int from = 0; from < handled.size(); from += BATCH_SIZE) {
+                List<SuppressionData> batch = handled.subList(from, Math.min(handled.size(), from + BATCH_SIZE));
+                List<SuppressionData> items = new ArrayList<>();
+                for (SuppressionData item : dynamoDbRepository.getItems(batch)) {
+                    if (DueDateUtils.isExpired(item.getDueDate(), expiredBefore)) {
+                        items.add(item);
+                    }
+                }
+                skipped += batch.size() - items.size();
+                if (items.isEmpty()) {
+                    continue;
+                }
+                dynamoDbRepository.archiveItems(items, archiveTable);
+                for (SuppressionData item : items) {
+                    if (archive(item)) {
+                        archived++;
+                    } else {
+                        skipped++;
+                    }
+                }
+            }
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        LOGGER.info((dryRun ? "Rule expiry dry run: " : "Rule expiry sweep: ") + found + " rules due before " + expiredBefore + ", "
+                + archived + " archived to " + archiveTable + ", " + skipped + " skipped, " + (found - handled.size())
+                + " left for the next run (" + elapsedMillis + " ms).");
+        return new ExpirySweepReport(dryRun, graceDays, expiredBefore, archiveTable, startedAt, elapsedMillis, found, archived, skipped,
+                found - handled.size(), rules);
+    }
+
+    // Deletes the rule, already copied to the archive, unless it changed since it was read
+    private boolean archive(SuppressionData item) {
+        long version = tableVersionTracker.begin();
+        boolean deleted;
+        try {
+            deleted = dynamoDbRepository.deleteItemIfUnchanged(item);
+            if (deleted) {
+                tableVersionTracker.recordDelete(item.getId(), item.getSerId(), version);
+                // To everyone but the audit log an archived rule is a deleted one
+                ruleChangePublisher.publish(RuleChangeEvent.create(Action.DELETE, item, null, version));
+            }
+        } finally {
+            tableVersionTracker.complete(version);
+        }
+        if (!deleted) {
+            // Gone: deleted meanwhile, its archive copy is left as it is
+            if (dynamoDbRepository.getItem(item.getId(), item.getSerId()) != null) {
+                LOGGER.info("Rule with id: " + item.getId() + " and ser id: " + item.getSerId() + " changed while being archived, keeping it.");
+                dynamoDbRepository.deleteArchivedItem(item, archiveTable);
+            }
+            return false;
+        }
+        Map<String, Object> content = new LinkedHashMap<>(computeDiffs(item, null, Action.DELETE));
+        content.put("archive_table", archiveTable);
+        auditEntryPublisher.publish(auditEntry(item, content));
+        return true;
+    }
+
+    // A sweep started from the portal is attributed to the signed in admin, the nightly one to the job
+    private static AuditLogEntry<Map<String, Object>> auditEntry(SuppressionData item, Map<String, Object> content) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof Saml2AuthenticatedPrincipal) {
+            return AuditLogEntry.create(Action.ARCHIVE, item.getId(), item.getSerId(), content);
+        }
+        return AuditLogEntry.createBySystem(JOB_NAME, Action.ARCHIVE, item.getId(), item.getSerId(), content);
+    }
+}
@@ -0,0 +1,141 @@
+package com.swift.csci.hits;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.swift.csci.model.SuppressionData;
+import com.swift.csci.repository.DynamoDbRepository;
+import com.swift.csci.repository.RuleCounterRepository;
+import com.swift.csci.snapshot.RuleTableCache;
+import com.swift.csci.utils.DueDateUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * How often each rule fired, from the daily counters the suppression engine adds to at the end of every
+ * invocation: findings matched and findings updated in Security Hub, with the time of the last of each, over the
+ * last 7 and 30 days. Rules that never show up in the counters are reported with zero counts, which is what makes
+ * unused rules visible.
+ * <p>
+ * The engine runs a few times an hour, so the counters of the last 30 days are read into memory periodically and
+ * on first use instead of on every request.
+ */
+@Component
+public class RuleHits {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RuleHits.class);
+    private static final List<String> RULE_ID_ATTRIBUTES = List.of("id", "ser_id");
+    public static final int WINDOW_DAYS = 30;
+    private static final int RECENT_DAYS = 7;
+
+    private final RuleCounterRepository ruleCounterRepository;
+    private final DynamoDbRepository dynamoDbRepository;
+    private final RuleTableCache ruleTableCache;
+
+    private volatile Snapshot snapshot;
+
+    public RuleHits(RuleCounterRepository ruleCounterRepository, DynamoDbRepository dynamoDbRepository, RuleTableCache ruleTableCache) {
+        this.ruleCounterRepository = ruleCounterRepository;
+        this.dynamoDbRepository = dynamoDbRepository;
+        this.ruleTableCache = ruleTableCache;
+    }
+
+    @Scheduled(initialDelayString = "${rule.hits.refresh-millis:900000}", fixedDelayString = "${rule.hits.refresh-millis:900000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            LOGGER.error("Failed to refresh rule hits, keeping the previous counts.", e);
+        }
+    }
+
+    /**
+     * The hits of every rule in id order, or with unusedForDays only of the rules that matched nothing in that many
+     * days (at most 30).
+     */
+    public RuleHitsReport report(Integer unusedForDays) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            current = refresh();
+        }
+        SortedSet<String> ruleIds = new TreeSet<>();
+        for (SuppressionData rule : ruleTableCache.items().orElseGet(() -> dynamoDbRepository.listItems(RULE_ID_ATTRIBUTES))) {
+            ruleIds.add(rule.getId());
+        }
+        Instant unusedSince = unusedForDays == null ? null : Instant.now().minusSeconds(unusedForDays * 86400L);
+        List<RuleHitsReport.RuleHit> rules = new ArrayList<>();
+        for (String ruleId : ruleIds) {
+            Counter counter = current.counters.getOrDefault(ruleId, Counter.NONE);
+            if (unusedSince != null && counter.lastMatchedAt != null && !counter.lastMatchedAt.isBefore(unusedSince)) {
+                continue;
+            }
+            rules.add(new RuleHitsReport.RuleHit(ruleId, counter.lastMatchedAt, counter.lastAppliedAt, counter.matches7d,
+                    counter.matches30d, counter.applied7d, counter.applied30d));
+        }
+        return new RuleHitsReport(current.countedFrom, unusedForDays, ruleIds.size(), rules, current.refreshedAt);
+    }
+
+    private synchronized Snapshot refresh() {
+        long start = System.nanoTime();
+        LocalDate today = DueDateUtils.todayUtc();
+        LocalDate countedFrom = today.minusDays(WINDOW_DAYS - 1);
+        String recentFrom = today.minusDays(RECENT_DAYS - 1).toString();
+        Map<String, Counter> counters = new HashMap<>();
+        int[] items = new int[1];
+        ruleCounterRepository.forEachSince(countedFrom, item -> {
+            items[0]++;
+            counters.computeIfAbsent(string(item.get("RuleId")), ruleId -> new Counter())
+                    .add(string(item.get("Day")).compareTo(recentFrom) >= 0, number(item.get("Matches")), number(item.get("Applied")),
+                            number(item.get("LastMatchedAt")), number(item.get("LastAppliedAt")));
+        });
+        Snapshot refreshed = new Snapshot(countedFrom, counters, Instant.now());
+        snapshot = refreshed;
+        LOGGER.info("Read " + items[0] + " rule counters of " + counters.size() + " rules since " + countedFrom + " ("
+                + (System.nanoTime() - start) / 1_000_000 + " ms).");
+        return refreshed;
+    }
+
+    private static String string(AttributeValue value) {
+        return value == null ? "" : value.getS();
+    }
+
+    private static long number(AttributeValue value) {
+        return value == null || value.getN() == null ? 0 : Long.parseLong(value.getN());
+    }
+
+    private record Snapshot(LocalDate countedFrom, Map<String, Counter> counters, Instant refreshedAt) {
+    }
+
+    private static final class Counter {
+        private static final Counter NONE = new Counter();
+
+        private long matches7d;
+        private long matches30d;
+        private long applied7d;
+        private long applied30d;
+        private Instant lastMatchedAt;
+        private Instant lastAppliedAt;
+
+        // Epoch seconds of 0 mean the day had no match (or no applied finding)
+        private void add(boolean recent, long matches, long applied, long lastMatched, long lastApplied) {
+            matches30d += matches;
+            applied30d += applied;
+            if (recent) {
+                matches7d += matches;
+                applied7d += applied;
+            }
+            lastMatchedAt = latest(lastMatchedAt, lastMatched);
+            lastAppliedAt = latest(lastAppliedAt, lastApplied);
+        }
+
+        private static Instant latest(Instant current, long epochSecond) {
+            if (epochSecond <= 0 || current != null && current.getEpochSecond() >= epochSecond) {
+                return current;
+            }
+            return Instant.ofEpochSecond(epochSecond);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.swift.csci.hits;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+public class RuleHitsReport {
+    private final LocalDate countedFrom;
+    private final Integer unusedForDays;
+    private final int totalRules;
+    private final List<RuleHit> rules;
+    private final Instant refreshedAt;
+
+    public RuleHitsReport(LocalDate countedFrom, Integer unusedForDays, int totalRules, List<RuleHit> rules, Instant refreshedAt) {
+        this.countedFrom = countedFrom;
+        this.unusedForDays = unusedForDays;
+        this.totalRules = totalRules;
+        this.rules = rules;
+        this.refreshedAt = refreshedAt;
+    }
+
+    // First day of the 30 day window; hits before it are not known to the portal
+    public LocalDate getCountedFrom() {
+        return countedFrom;
+    }
+
+    // The filter the report was asked for, null for all rules
+    public Integer getUnusedForDays() {
+        return unusedForDays;
+    }
+
+    public int getTotalRules() {
+        return totalRules;
+    }
+
+    public List<RuleHit> getRules() {
+        return rules;
+    }
+
+    // When the counters were last read from the counters table
+    public Instant getRefreshedAt() {
+        return refreshedAt;
+    }
+
+    // Counts of one rule id over all of its SERs
+    public static class RuleHit {
+        private final String id;
+        private final Instant lastMatchedAt;
+        private final Instant lastAppliedAt;
+        private final long matches7d;
+        private final long matches30d;
+        private final long applied7d;
+        private final long applied30d;
+
+        public RuleHit(String id, Instant lastMatchedAt, Instant lastAppliedAt, long matches7d, long matches30d, long applied7d, long applied30d) {
+            this.id = id;
+            this.lastMatchedAt = lastMatchedAt;
+            this.lastAppliedAt = lastAppliedAt;
+            this.matches7d = matches7d;
+            this.matches30d = matches30d;
+            this.applied7d = applied7d;
+            this.applied30d = applied30d;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        // Null when the rule matched nothing in the last 30 days
+        public Instant getLastMatchedAt() {
+            return lastMatchedAt;
+        }
+
+        public Instant getLastAppliedAt() {
+            return lastAppliedAt;
+        }
+
+        public long getMatches7d() {
+            return matches7d;
+        }
+
+        public long getMatches30d() {
+            return matches30d;
+        }
+
+        public long getApplied7d() {
+            return applied7d;
+        }
+
+        public long getApplied30d() {
+            return applied30d;
+        }
+    }
+}
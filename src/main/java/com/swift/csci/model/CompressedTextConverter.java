@@ -0,0 +1,94 @@
+package com.swift.csci.model;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTypeConverter;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Stores long text attributes (description, resource patterns, account lists) compressed, since scans are billed
+ * by item size. Values of at least THRESHOLD_BYTES are written as a binary attribute holding the format marker
+ * "cz" 0x01 followed by a zlib stream of the UTF-8 text, shorter values (and values that do not shrink) stay plain
+ * strings. Reading accepts both, so items written before this converter existed read unchanged.
+ * The suppression engine decodes the same format (decode_text_attribute).
+ */
+public class CompressedTextConverter implements DynamoDBTypeConverter<AttributeValue, String> {
+    static final int THRESHOLD_BYTES = 256;
+    private static final byte[] MARKER = {'c', 'z', 1};
+
+    @Override
+    public AttributeValue convert(String text) {
+        if (text == null) {
+            return null;
+        }
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        if (utf8.length >= THRESHOLD_BYTES) {
+            byte[] compressed = compress(utf8);
+            if (compressed.length < utf8.length) {
+                return new AttributeValue().withB(ByteBuffer.wrap(compressed));
+            }
+        }
+        return new AttributeValue().withS(text);
+    }
+
+    @Override
+    public String unconvert(AttributeValue value) {
+        if (value.getS() != null) {
+            return value.getS();
+        }
+        if (value.getB() == null) {
+            return null;
+        }
+        ByteBuffer buffer = value.getB().duplicate();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        if (bytes.length < MARKER.length || !Arrays.equals(bytes, 0, MARKER.length, MARKER, 0, MARKER.length)) {
+            throw new IllegalArgumentException("Binary text attribute without a known format marker.");
+        }
+        return new String(decompress(bytes, MARKER.length), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] compress(byte[] utf8) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(utf8);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(utf8.length / 2 + MARKER.length);
+            out.write(MARKER, 0, MARKER.length);
+            byte[] chunk = new byte[1024];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] decompress(byte[] bytes, int offset) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, offset, bytes.length - offset);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length * 4);
+            byte[] chunk = new byte[1024];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(chunk);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalArgumentException("Truncated compressed text attribute.");
+                }
+                out.write(chunk, 0, n);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupt compressed text attribute.", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -40,6 +40,8 @@ public class SuppressionData implements Serializable {
     private String resource_type = "";
     private String resource_pattern = "";
     private String extra_resource_pattern = "";
+    // Table version of the last create or update of this item, 0 for items written before versions were recorded
+    private Long last_modified = 0L;
 
 
 
@@ -90,6 +92,7 @@ public class SuppressionData implements Serializable {
     }
 
     @DynamoDBAttribute(attributeName = "account_exception")
+    @DynamoDBTypeConverted(converter = CompressedTextConverter.class)
     public String getAccountException() {
         return account_exception;
     }
@@ -99,6 +102,7 @@ public class SuppressionData implements Serializable {
     }
 
     @DynamoDBAttribute(attributeName = "account_inclusion")
+    @DynamoDBTypeConverted(converter = CompressedTextConverter.class)
     public String getAccountInclusion() {
         return account_inclusion;
     }
@@ -117,6 +121,7 @@ public class SuppressionData implements Serializable {
     }
 
     @DynamoDBAttribute(attributeName = "extra_resource_pattern")
+    @DynamoDBTypeConverted(converter = CompressedTextConverter.class)
     public String getExtraResourcePattern() {
         return extra_resource_pattern;
     }
@@ -135,6 +140,7 @@ public class SuppressionData implements Serializable {
     }
 
     @DynamoDBAttribute(attributeName = "resource_pattern")
+    @DynamoDBTypeConverted(converter = CompressedTextConverter.class)
     public String getResourcePattern() {
         return resource_pattern;
     }
@@ -171,6 +177,7 @@ public class SuppressionData implements Serializable {
     }
 
     @DynamoDBAttribute(attributeName = "description")
+    @DynamoDBTypeConverted(converter = CompressedTextConverter.class)
     public String getDescription() {
         return description;
     }
@@ -179,6 +186,15 @@ public class SuppressionData implements Serializable {
         this.description = description;
     }
 
+    @DynamoDBAttribute(attributeName = "last_modified")
+    public Long getLastModified() {
+        return last_modified;
+    }
+
+    public void setLastModified(Long last_modified) {
+        this.last_modified = last_modified;
+    }
+
     @Override
     public String toString()
     {
@@ -0,0 +1,77 @@
+package com.swift.csci.model;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Field projection for SuppressionData (the fields= parameter of /listItems and /getItem).
+ * Field names are the JSON names returned by the API, which are also the DynamoDB attribute names.
+ * The table keys (id, ser_id) are always part of a projection so rows stay identifiable.
+ */
+public final class SuppressionDataFields {
+    public static final List<String> KEY_FIELDS = List.of("id", "ser_id");
+
+    private static final Map<String, Function<SuppressionData, Object>> ACCESSORS = new LinkedHashMap<>();
+
+    static {
+        ACCESSORS.put("id", SuppressionData::getId);
+        ACCESSORS.put("ser_id", SuppressionData::getSerId);
+        ACCESSORS.put("finding_title", SuppressionData::getFindingTitle);
+        ACCESSORS.put("finding_type", SuppressionData::getFindingType);
+        ACCESSORS.put("product_name", SuppressionData::getProductName);
+        ACCESSORS.put("ser_link", SuppressionData::getSerLink);
+        ACCESSORS.put("due_date", SuppressionData::getDueDate);
+        ACCESSORS.put("description", SuppressionData::getDescription);
+        ACCESSORS.put("account_exception", SuppressionData::getAccountException);
+        ACCESSORS.put("account_inclusion", SuppressionData::getAccountInclusion);
+        ACCESSORS.put("from_severity", SuppressionData::getFromSeverity);
+        ACCESSORS.put("to_severity", SuppressionData::getToSeverity);
+        ACCESSORS.put("resource_type", SuppressionData::getResourceType);
+        ACCESSORS.put("resource_pattern", SuppressionData::getResourcePattern);
+        ACCESSORS.put("extra_resource_pattern", SuppressionData::getExtraResourcePattern);
+        ACCESSORS.put("last_modified", SuppressionData::getLastModified);
+    }
+
+    private SuppressionDataFields() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Parses a comma separated field list, e.g. "id,finding_title,due_date", into the attributes to read.
+     * Returns an empty set when no projection was requested.
+     *
+     * @throws IllegalArgumentException if a field name is unknown
+     */
+    public static Set<String> parse(String fields) {
+        Set<String> result = new LinkedHashSet<>();
+        if (fields == null || fields.isBlank()) {
+            return result;
+        }
+        result.addAll(KEY_FIELDS);
+        for (String field : fields.split(",")) {
+            String name = field.strip();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!ACCESSORS.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown field '" + name + "'. Supported fields: " + String.join(", ", ACCESSORS.keySet()));
+            }
+            result.add(name);
+        }
+        return result;
+    }
+
+    // All field names, in the order of the columns of a CSV export
+    public static Set<String> names() {
+        return Collections.unmodifiableSet(ACCESSORS.keySet());
+    }
+
+    // Builds the JSON object for an item with only the requested fields, in the order they were requested
+    public static Map<String, Object> project(SuppressionData item, Set<String> fields) {
+        Map<String, Object> result = new LinkedHashMap<>(fields.size() * 2);
+        for (String field : fields) {
+            result.put(field, ACCESSORS.get(field).apply(item));
+        }
+        return result;
+    }
+}
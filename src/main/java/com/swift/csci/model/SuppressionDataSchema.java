@@ -0,0 +1,128 @@
+package com.swift.csci.model;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The DynamoDB item layout of SuppressionData, written out by hand: converts between the low-level client's
+ * Map&lt;String, AttributeValue&gt; and SuppressionData with plain getter and setter calls. DynamoDBMapper derives
+ * the same conversion from the annotations reflectively and runs it per attribute of every item, which dominates
+ * the CPU time of a table scan.
+ * <p>
+ * Produces exactly the items DynamoDBMapper produces for the annotations of SuppressionData (attribute names,
+ * CompressedTextConverter on the long text attributes, last_modified as a number, null attributes and empty plain strings left out), so
+ * items written by either are read the same way by both. An attribute added to SuppressionData must be added here
+ * and to SuppressionDataFields.
+ */
+public final class SuppressionDataSchema {
+    // Taken from the annotation once, so the mapper and the low-level client always use the same table
+    public static final String TABLE_NAME = SuppressionData.class.getAnnotation(DynamoDBTable.class).tableName();
+    public static final String HASH_KEY = "id";
+    public static final String RANGE_KEY = "ser_id";
+
+    private static final CompressedTextConverter COMPRESSED_TEXT = new CompressedTextConverter();
+    // 16 attributes at the default load factor without resizing
+    private static final int ITEM_CAPACITY = 32;
+
+    private SuppressionDataSchema() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    public static Map<String, AttributeValue> key(String id, String serId) {
+        Map<String, AttributeValue> key = new HashMap<>(4);
+        key.put(HASH_KEY, new AttributeValue(id));
+        key.put(RANGE_KEY, new AttributeValue(serId));
+        return key;
+    }
+
+    public static Map<String, AttributeValue> toItem(SuppressionData data) {
+        Map<String, AttributeValue> item = new HashMap<>(ITEM_CAPACITY);
+        putString(item, "id", data.getId());
+        putString(item, "ser_id", data.getSerId());
+        putString(item, "finding_title", data.getFindingTitle());
+        putString(item, "finding_type", data.getFindingType());
+        putString(item, "product_name", data.getProductName());
+        putString(item, "ser_link", data.getSerLink());
+        putString(item, "due_date", data.getDueDate());
+        putCompressed(item, "description", data.getDescription());
+        putCompressed(item, "account_exception", data.getAccountException());
+        putCompressed(item, "account_inclusion", data.getAccountInclusion());
+        putString(item, "from_severity", data.getFromSeverity());
+        putString(item, "to_severity", data.getToSeverity());
+        putString(item, "resource_type", data.getResourceType());
+        putCompressed(item, "resource_pattern", data.getResourcePattern());
+        putCompressed(item, "extra_resource_pattern", data.getExtraResourcePattern());
+        if (data.getLastModified() != null) {
+            item.put("last_modified", new AttributeValue().withN(Long.toString(data.getLastModified())));
+        }
+        return item;
+    }
+
+    /**
+     * Attributes missing from the item (not projected, or never written) keep their SuppressionData default;
+     * attributes unknown to SuppressionData are ignored, as DynamoDBMapper does.
+     *
+     * @throws IllegalArgumentException if an attribute has a type SuppressionData cannot hold
+     */
+    public static SuppressionData fromItem(Map<String, AttributeValue> item) {
+        SuppressionData data = new SuppressionData();
+        for (Map.Entry<String, AttributeValue> attribute : item.entrySet()) {
+            AttributeValue value = attribute.getValue();
+            switch (attribute.getKey()) {
+                case "id" -> data.setId(string(attribute.getKey(), value));
+                case "ser_id" -> data.setSerId(string(attribute.getKey(), value));
+                case "finding_title" -> data.setFindingTitle(string(attribute.getKey(), value));
+                case "finding_type" -> data.setFindingType(string(attribute.getKey(), value));
+                case "product_name" -> data.setProductName(string(attribute.getKey(), value));
+                case "ser_link" -> data.setSerLink(string(attribute.getKey(), value));
+                case "due_date" -> data.setDueDate(string(attribute.getKey(), value));
+                case "description" -> data.setDescription(COMPRESSED_TEXT.unconvert(value));
+                case "account_exception" -> data.setAccountException(COMPRESSED_TEXT.unconvert(value));
+                case "account_inclusion" -> data.setAccountInclusion(COMPRESSED_TEXT.unconvert(value));
+                case "from_severity" -> data.setFromSeverity(string(attribute.getKey(), value));
+                case "to_severity" -> data.setToSeverity(string(attribute.getKey(), value));
+                case "resource_type" -> data.setResourceType(string(attribute.getKey(), value));
+                case "resource_pattern" -> data.setResourcePattern(COMPRESSED_TEXT.unconvert(value));
+                case "extra_resource_pattern" -> data.setExtraResourcePattern(COMPRESSED_TEXT.unconvert(value));
+                case "last_modified" -> data.setLastModified(number(attribute.getKey(), value));
+                default -> {
+                }
+            }
+        }
+        return data;
+    }
+
+    // The mapper writes no attribute for an empty string without a converter
+    private static void putString(Map<String, AttributeValue> item, String name, String value) {
+        if (value != null && !value.isEmpty()) {
+            item.put(name, new AttributeValue(value));
+        }
+    }
+
+    private static void putCompressed(Map<String, AttributeValue> item, String name, String value) {
+        if (value != null) {
+            item.put(name, COMPRESSED_TEXT.convert(value));
+        }
+    }
+
+    // A NULL attribute is read as null, like the mapper does
+    private static String string(String name, AttributeValue value) {
+        if (value.getS() != null || Boolean.TRUE.equals(value.getNULL())) {
+            return value.getS();
+        }
+        throw new IllegalArgumentException("Attribute " + name + " is not a string.");
+    }
+
+    private static Long number(String name, AttributeValue value) {
+        if (value.getN() != null) {
+            return Long.valueOf(value.getN());
+        }
+        if (Boolean.TRUE.equals(value.getNULL())) {
+            return null;
+        }
+        throw new IllegalArgumentException("Attribute " + name + " is not a number.");
+    }
+}
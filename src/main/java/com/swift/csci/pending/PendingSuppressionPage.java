@@ -0,0 +1,77 @@
+package com.swift.csci.pending;
+
+import java.time.Instant;
+import java.util.List;
+
+public class PendingSuppressionPage {
+    private final String ruleId;
+    private final List<Item> items;
+    private final String nextToken;
+
+    public PendingSuppressionPage(String ruleId, List<Item> items, String nextToken) {
+        this.ruleId = ruleId;
+        this.items = items;
+        this.nextToken = nextToken;
+    }
+
+    public String getRuleId() {
+        return ruleId;
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    // Pass as nextToken for the next page; null on the last page
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    public static class Item {
+        private final String findingId;
+        private final String serId;
+        private final String action;
+        private final String oldStatus;
+        private final String newStatus;
+        private final Instant cachedAt;
+        private final Long ageSeconds;
+
+        public Item(String findingId, String serId, String action, String oldStatus, String newStatus, Instant cachedAt, Long ageSeconds) {
+            this.findingId = findingId;
+            this.serId = serId;
+            this.action = action;
+            this.oldStatus = oldStatus;
+            this.newStatus = newStatus;
+            this.cachedAt = cachedAt;
+            this.ageSeconds = ageSeconds;
+        }
+
+        public String getFindingId() {
+            return findingId;
+        }
+
+        public String getSerId() {
+            return serId;
+        }
+
+        public String getAction() {
+            return action;
+        }
+
+        public String getOldStatus() {
+            return oldStatus;
+        }
+
+        public String getNewStatus() {
+            return newStatus;
+        }
+
+        public Instant getCachedAt() {
+            return cachedAt;
+        }
+
+        public Long getAgeSeconds() {
+            return ageSeconds;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.swift.csci.pending;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swift.csci.model.SuppressionData;
+import com.swift.csci.repository.DynamoDbRepository;
+import com.swift.csci.repository.PendingSuppressionRepository;
+import com.swift.csci.snapshot.RuleTableCache;
+import com.swift.csci.tracing.Tracer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The engine's backlog of matched but not yet applied findings, as counts per rule, SER and action with the age
+ * of the oldest finding, so a scheduler falling behind shows up as growing counts and ages.
+ * <p>
+ * The summary is paged by rule (in id order): the rules of a page are read from the rule table cache and the
+ * cache table is queried per rule through its RuleId index, a few rules at a time. Findings cached for a rule that
+ * no longer exists are not in any page; the engine unsuppresses those on its next cache run.
+ */
+@Component
+public class PendingSuppressionQueue {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PendingSuppressionQueue.class);
+    private static final List<String> RULE_ID_ATTRIBUTES = List.of("id", "ser_id");
+    private static final TypeReference<Map<String, String>> TOKEN_TYPE = new TypeReference<>() {
+    };
+
+    private final PendingSuppressionRepository pendingSuppressionRepository;
+    private final DynamoDbRepository dynamoDbRepository;
+    private final RuleTableCache ruleTableCache;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService queries;
+
+    public PendingSuppressionQueue(PendingSuppressionRepository pendingSuppressionRepository, DynamoDbRepository dynamoDbRepository,
+                                   RuleTableCache ruleTableCache, ObjectMapper objectMapper,
+                                   @Value("${engine.cache.query-threads:4}") int queryThreads) {
+        this.pendingSuppressionRepository = pendingSuppressionRepository;
+        this.dynamoDbRepository = dynamoDbRepository;
+        this.ruleTableCache = ruleTableCache;
+        this.objectMapper = objectMapper;
+        this.queries = Executors.newFixedThreadPool(queryThreads, runnable -> {
+            Thread thread = new Thread(runnable, "pending-suppression-query");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public PendingSuppressionSummary summary(int page, int size) {
+        List<String> ruleIds = ruleIds();
+        int from = (int) Math.min((long) page * size, ruleIds.size());
+        List<String> pageRuleIds = ruleIds.subList(from, Math.min(ruleIds.size(), from + size));
+
+        Instant now = Instant.now();
+        List<CompletableFuture<Collection<GroupCounter>>> counts = new ArrayList<>(pageRuleIds.size());
+        for (String ruleId : pageRuleIds) {
+            counts.add(CompletableFuture.supplyAsync(Tracer.wrap(() -> count(ruleId)), queries));
+        }
+        List<PendingSuppressionSummary.Group> groups = new ArrayList<>();
+        long pending = 0;
+        Long oldestCachedAt = null;
+        for (CompletableFuture<Collection<GroupCounter>> ruleCounts : counts) {
+            for (GroupCounter counter : join(ruleCounts)) {
+                groups.add(new PendingSuppressionSummary.Group(counter.ruleId, counter.serId, counter.action, counter.count,
+                        counter.oldestCachedAt == null ? null : Instant.ofEpochSecond(counter.oldestCachedAt), ageSeconds(counter.oldestCachedAt, now)));
+                pending += counter.count;
+                if (counter.oldestCachedAt != null && (oldestCachedAt == null || counter.oldestCachedAt < oldestCachedAt)) {
+                    oldestCachedAt = counter.oldestCachedAt;
+                }
+            }
+        }
+        LOGGER.info("Pending suppressions for rules " + from + " to " + (from + pageRuleIds.size()) + " of " + ruleIds.size() + ": "
+                + pending + " findings in " + groups.size() + " groups.");
+        return new PendingSuppressionSummary(page, size, ruleIds.size(), pending, ageSeconds(oldestCachedAt, now), groups, now);
+    }
+
+    /**
+     * One page of the findings cached for a rule.
+     *
+     * @throws IllegalArgumentException if the token was not returned by a previous page
+     */
+    public PendingSuppressionPage items(String ruleId, String nextToken, int limit) {
+        QueryResult result = pendingSuppressionRepository.queryByRule(ruleId, decodeToken(nextToken), limit);
+        Instant now = Instant.now();
+        List<PendingSuppressionPage.Item> items = new ArrayList<>(result.getItems().size());
+        for (Map<String, AttributeValue> item : result.getItems()) {
+            Long cachedAt = number(item.get("CachedAt"));
+            items.add(new PendingSuppressionPage.Item(string(item.get("FindingId")), string(item.get("SerId")), string(item.get("Action")),
+                    string(item.get("OldStatus")), string(item.get("NewStatus")),
+                    cachedAt == null ? null : Instant.ofEpochSecond(cachedAt), ageSeconds(cachedAt, now)));
+        }
+        return new PendingSuppressionPage(ruleId, items, encodeToken(result.getLastEvaluatedKey()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        queries.shutdownNow();
+    }
+
+    // Reads all of the rule's cached findings, only the index attributes of each
+    private Collection<GroupCounter> count(String ruleId) {
+        Map<String, GroupCounter> counters = new TreeMap<>();
+        Map<String, AttributeValue> startKey = null;
+        do {
+            QueryResult result = pendingSuppressionRepository.queryByRule(ruleId, startKey, null);
+            for (Map<String, AttributeValue> item : result.getItems()) {
+                String serId = string(item.get("SerId"));
+                String action = string(item.get("Action"));
+                counters.computeIfAbsent(serId + "\n" + action, key -> new GroupCounter(ruleId, serId, action)).add(number(item.get("CachedAt")));
+            }
+            startKey = result.getLastEvaluatedKey();
+        } while (startKey != null && !startKey.isEmpty());
+        return counters.values();
+    }
+
+    private List<String> ruleIds() {
+        List<SuppressionData> rules = ruleTableCache.items().orElseGet(() -> dynamoDbRepository.listItems(RULE_ID_ATTRIBUTES));
+        SortedSet<String> ruleIds = new TreeSet<>();
+        for (SuppressionData rule : rules) {
+            ruleIds.add(rule.getId());
+        }
+        return new ArrayList<>(ruleIds);
+    }
+
+    // The LastEvaluatedKey of an index query holds string keys (FindingId, RuleId); sent back as opaque base64 JSON
+    private String encodeToken(Map<String, AttributeValue> lastEvaluatedKey) {
+        if (lastEvaluatedKey == null || lastEvaluatedKey.isEmpty()) {
+            return null;
+        }
+        Map<String, String> key = new TreeMap<>();
+        lastEvaluatedKey.forEach((name, value) -> key.put(name, value.getS()));
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(key));
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to encode the page token.", e);
+        }
+    }
+
+    private Map<String, AttributeValue> decodeToken(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            Map<String, String> key = objectMapper.readValue(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8), TOKEN_TYPE);
+            Map<String, AttributeValue> startKey = new HashMap<>();
+            key.forEach((name, value) -> startKey.put(name, new AttributeValue(value)));
+            return startKey;
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid nextToken.", e);
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : e;
+        }
+    }
+
+    private static Long ageSeconds(Long cachedAt, Instant now) {
+        return cachedAt == null ? null : Math.max(0, now.getEpochSecond() - cachedAt);
+    }
+
+    private static String string(AttributeValue value) {
+        return value == null ? null : value.getS();
+    }
+
+    private static Long number(AttributeValue value) {
+        return value == null || value.getN() == null ? null : Long.valueOf(value.getN());
+    }
+
+    private static final class GroupCounter {
+        private final String ruleId;
+        private final String serId;
+        private final String action;
+        private long count;
+        // Null until a finding with CachedAt is counted
+        private Long oldestCachedAt;
+
+        private GroupCounter(String ruleId, String serId, String action) {
+            this.ruleId = ruleId;
+            this.serId = serId;
+            this.action = action;
+        }
+
+        private void add(Long cachedAt) {
+            count++;
+            if (cachedAt != null && (oldestCachedAt == null || cachedAt < oldestCachedAt)) {
+                oldestCachedAt = cachedAt;
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.swift.csci.pending;
+
+import java.time.Instant;
+import java.util.List;
+
+public class PendingSuppressionSummary {
+    private final int page;
+    private final int size;
+    private final int totalRules;
+    private final long pending;
+    private final Long oldestAgeSeconds;
+    private final List<Group> groups;
+    private final Instant generatedAt;
+
+    public PendingSuppressionSummary(int page, int size, int totalRules, long pending, Long oldestAgeSeconds, List<Group> groups, Instant generatedAt) {
+        this.page = page;
+        this.size = size;
+        this.totalRules = totalRules;
+        this.pending = pending;
+        this.oldestAgeSeconds = oldestAgeSeconds;
+        this.groups = groups;
+        this.generatedAt = generatedAt;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    // Rules per page; the summary covers the rules of the requested page, in id order
+    public int getSize() {
+        return size;
+    }
+
+    public int getTotalRules() {
+        return totalRules;
+    }
+
+    public long getPending() {
+        return pending;
+    }
+
+    public Long getOldestAgeSeconds() {
+        return oldestAgeSeconds;
+    }
+
+    public List<Group> getGroups() {
+        return groups;
+    }
+
+    public Instant getGeneratedAt() {
+        return generatedAt;
+    }
+
+    // Cached findings of one rule, SER and action
+    public static class Group {
+        private final String ruleId;
+        private final String serId;
+        private final String action;
+        private final long count;
+        private final Instant oldestCachedAt;
+        private final Long oldestAgeSeconds;
+
+        public Group(String ruleId, String serId, String action, long count, Instant oldestCachedAt, Long oldestAgeSeconds) {
+            this.ruleId = ruleId;
+            this.serId = serId;
+            this.action = action;
+            this.count = count;
+            this.oldestCachedAt = oldestCachedAt;
+            this.oldestAgeSeconds = oldestAgeSeconds;
+        }
+
+        public String getRuleId() {
+            return ruleId;
+        }
+
+        public String getSerId() {
+            return serId;
+        }
+
+        public String getAction() {
+            return action;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        // Null when all of the group's findings were cached by an engine version that did not record the time
+        public Instant getOldestCachedAt() {
+            return oldestCachedAt;
+        }
+
+        public Long getOldestAgeSeconds() {
+            return oldestAgeSeconds;
+        }
+    }
+}
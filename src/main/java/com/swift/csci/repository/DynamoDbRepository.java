@@ -1,18 +1,36 @@
 package com.swift.csci.repository;
 
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBDeleteExpression;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
-import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import com.swift.csci.exception.DynamoDBException;
 import com.swift.csci.model.SuppressionData;
+import com.swift.csci.model.SuppressionDataSchema;
+import com.swift.csci.resilience.DynamoDbResilience;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 
 // Documentation of DynamoDBMapper methods:
 // https://docs.aws.amazon.com/amazondynamodb/latest/developerguide/DynamoDBMapper.Methods.html
+// Reads go through the low-level client and SuppressionDataSchema instead of the mapper, whose reflective
+// conversion is most of the CPU time of a scan; writes still use the mapper.
 
 
 @Repository
@@ -20,18 +38,115 @@ public class DynamoDbRepository {
     private static final Logger LOGGER = LoggerFactory.getLogger(DynamoDbRepository.class);
 
     @Autowired
+    @Lazy
     private DynamoDBMapper mapper;
 
+    @Autowired
+    @Lazy
+    private AmazonDynamoDB amazonDynamoDB;
+
+    // Every call goes through retry, circuit breaker and (point reads) hedging. Paginated results are read in full
+    // inside the call, otherwise the next pages would be loaded later, outside of it.
+    @Autowired
+    private DynamoDbResilience resilience;
+
     public SuppressionData getItem(String id, String ser_id) {
-        return mapper.load(SuppressionData.class, id, ser_id);
+        GetItemRequest request = new GetItemRequest(SuppressionDataSchema.TABLE_NAME, SuppressionDataSchema.key(id, ser_id));
+        return resilience.hedgedCall("getItem", () -> item(amazonDynamoDB.getItem(request).getItem()));
+    }
+
+    // Reads only the given attributes; attributes that are not read keep their default ("") in the returned item
+    public SuppressionData getItem(String id, String ser_id, Collection<String> attributes) {
+        Map<String, String> names = new HashMap<>();
+        GetItemRequest request = new GetItemRequest(SuppressionDataSchema.TABLE_NAME, SuppressionDataSchema.key(id, ser_id))
+                .withProjectionExpression(projectionExpression(attributes, names))
+                .withExpressionAttributeNames(names);
+        return resilience.hedgedCall("getItem", () -> item(amazonDynamoDB.getItem(request).getItem()));
     }
 
     public List<SuppressionData> listItems() {
-        return mapper.scan(SuppressionData.class, new DynamoDBScanExpression());
+        return resilience.call("listItems", () -> scanAll(new ScanRequest(SuppressionDataSchema.TABLE_NAME)));
+    }
+
+    // The projection is applied by DynamoDB, so unread attributes cost neither read units nor transfer
+    public List<SuppressionData> listItems(Collection<String> attributes) {
+        Map<String, String> names = new HashMap<>();
+        ScanRequest request = new ScanRequest(SuppressionDataSchema.TABLE_NAME)
+                .withProjectionExpression(projectionExpression(attributes, names))
+                .withExpressionAttributeNames(names);
+        return resilience.call("listItems", () -> scanAll(request));
+    }
+
+    // Hands the table to the consumer one scan page (up to 1 MB) at a time, so it is never held in memory as a whole
+    public void forEachPage(Consumer<List<SuppressionData>> pageConsumer) {
+        Map<String, AttributeValue> startKey = null;
+        do {
+            ScanRequest request = new ScanRequest(SuppressionDataSchema.TABLE_NAME).withExclusiveStartKey(startKey);
+            ScanResult page = resilience.call("scanPage", () -> amazonDynamoDB.scan(request));
+            pageConsumer.accept(items(page.getItems()));
+            startKey = page.getLastEvaluatedKey();
+        } while (startKey != null && !startKey.isEmpty());
+    }
+
+    // Items created or updated after the given table version; attributes may be empty to read all of them
+    public List<SuppressionData> listItemsModifiedSince(long version, Collection<String> attributes) {
+        ScanRequest request = new ScanRequest(SuppressionDataSchema.TABLE_NAME);
+        Map<String, String> names = new HashMap<>();
+        if (!attributes.isEmpty()) {
+            request.setProjectionExpression(projectionExpression(attributes, names));
+        }
+        names.put("#lm", "last_modified");
+        request.setFilterExpression("#lm > :since");
+        request.setExpressionAttributeNames(names);
+        request.setExpressionAttributeValues(Map.of(":since", new AttributeValue().withN(Long.toString(version))));
+        return resilience.call("listItemsModifiedSince", () -> scanAll(request));
+    }
+
+    // Loads the items with the given keys (BatchGetItem, 100 keys per request), missing items are left out
+    public List<SuppressionData> getItems(Collection<SuppressionData> keys) {
+        List<SuppressionData> items = new ArrayList<>(keys.size());
+        Map<String, List<Object>> loaded = resilience.call("getItems", () -> mapper.batchLoad(new ArrayList<Object>(keys)));
+        for (List<Object> tableItems : loaded.values()) {
+            for (Object item : tableItems) {
+                items.add((SuppressionData) item);
+            }
+        }
+        return items;
+    }
+
+    // Writes the items with BatchWriteItem (25 items per request)
+    public void saveItems(List<SuppressionData> items) {
+        resilience.run("saveItems", () -> raiseFailedBatches(mapper.batchSave(items), items.size()));
+    }
+
+    // Copies the items to the archive table, which has the key schema of the rule table
+    public void archiveItems(List<SuppressionData> items, String archiveTable) {
+        resilience.run("archiveItems", () -> raiseFailedBatches(mapper.batchWrite(items, List.of(), tableOverride(archiveTable)), items.size()));
+    }
+
+    public void deleteArchivedItem(SuppressionData item, String archiveTable) {
+        resilience.run("deleteArchivedItem", () -> mapper.delete(item, tableOverride(archiveTable)));
+    }
+
+    // Deletes the item unless it was written since it was read, returns false if it was (or is gone)
+    public boolean deleteItemIfUnchanged(SuppressionData item) {
+        // Rules written before last_modified was introduced do not have the attribute and are read as 0.
+        // attribute_not_exists alone would also hold for an item that is gone, e.g. deleted by a concurrent sweep
+        DynamoDBDeleteExpression deleteExpression = new DynamoDBDeleteExpression()
+                .withConditionExpression("attribute_exists(id) AND (attribute_not_exists(#lm) OR #lm = :lm)")
+                .withExpressionAttributeNames(Map.of("#lm", "last_modified"))
+                .withExpressionAttributeValues(Map.of(":lm", new AttributeValue().withN(Long.toString(item.getLastModified()))));
+        try {
+            resilience.run("deleteItemIfUnchanged", () -> mapper.delete(item, deleteExpression));
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            return false;
+        }
     }
 
     public void deleteItem(String id, String ser_id) {
-        mapper.delete(getItem(id, ser_id)); // TODO should nest functions like this?
+        SuppressionData item = getItem(id, ser_id);
+        resilience.run("deleteItem", () -> mapper.delete(item)); // TODO should nest functions like this?
     }
 
     public void updateItem(SuppressionData item) {
@@ -41,10 +156,64 @@ public class DynamoDbRepository {
 //            item.setFindingTitle(finding_title);
 //            item.setStandardId(standard_id);
 //        }
-        mapper.save(item);
+        resilience.run("updateItem", () -> mapper.save(item));
     }
 
     public void createItem(SuppressionData item) {
-        mapper.save(item);
+        resilience.run("createItem", () -> mapper.save(item));
+    }
+
+    // Reads all pages of the scan; the request is reused with each page's start key
+    private List<SuppressionData> scanAll(ScanRequest request) {
+        List<SuppressionData> items = new ArrayList<>();
+        Map<String, AttributeValue> startKey = null;
+        do {
+            ScanResult page = amazonDynamoDB.scan(request.withExclusiveStartKey(startKey));
+            items.addAll(items(page.getItems()));
+            startKey = page.getLastEvaluatedKey();
+        } while (startKey != null && !startKey.isEmpty());
+        return items;
+    }
+
+    private static SuppressionData item(Map<String, AttributeValue> item) {
+        return item == null ? null : SuppressionDataSchema.fromItem(item);
+    }
+
+    private static List<SuppressionData> items(List<Map<String, AttributeValue>> items) {
+        List<SuppressionData> result = new ArrayList<>(items.size());
+        for (Map<String, AttributeValue> item : items) {
+            result.add(SuppressionDataSchema.fromItem(item));
+        }
+        return result;
+    }
+
+    // The mapper resends unprocessed items itself; a request that still failed is raised so the whole call is
+    // retried, which is safe since batch puts and deletes are idempotent
+    private static void raiseFailedBatches(List<DynamoDBMapper.FailedBatch> failedBatches, int itemCount) {
+        if (!failedBatches.isEmpty()) {
+            Exception e = failedBatches.get(0).getException();
+            throw e instanceof RuntimeException runtimeException ? runtimeException
+                    : new DynamoDBException("Batch write of " + itemCount + " items failed.", e);
+        }
+    }
+
+    private static DynamoDBMapperConfig tableOverride(String tableName) {
+        return DynamoDBMapperConfig.builder()
+                .withTableNameOverride(DynamoDBMapperConfig.TableNameOverride.withTableNameReplacement(tableName))
+                .build();
+    }
+
+    // Attribute names go through placeholders since some (e.g. description) may clash with DynamoDB reserved words
+    private static String projectionExpression(Collection<String> attributes, Map<String, String> names) {
+        StringBuilder expression = new StringBuilder();
+        for (String attribute : attributes) {
+            String placeholder = "#a" + names.size();
+            names.put(placeholder, attribute);
+            if (!expression.isEmpty()) {
+                expression.append(", ");
+            }
+            expression.append(placeholder);
+        }
+        return expression.toString();
     }
 }
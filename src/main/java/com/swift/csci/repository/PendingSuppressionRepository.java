@@ -0,0 +1,51 @@
+package com.swift.csci.repository;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import com.swift.csci.resilience.DynamoDbResilience;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Repository;
+
+import java.util.Map;
+
+/**
+ * Read access to the suppression engine's cache table, which holds the findings the engine matched to a rule but
+ * has not yet updated in Security Hub. Items are read through the table's RuleId index, which carries only the
+ * small attributes (not the cached finding), so a rule's backlog is read with a query instead of a table scan.
+ */
+@Repository
+public class PendingSuppressionRepository {
+    private static final String PROJECTION = "FindingId, RuleId, SerId, #action, OldStatus, NewStatus, CachedAt";
+
+    @Autowired
+    @Lazy
+    private AmazonDynamoDB amazonDynamoDB;
+
+    @Autowired
+    private DynamoDbResilience resilience;
+
+    @Value("${engine.cache.table-name:sw-securityhub-suppression-cache-main-aws}")
+    private String tableName;
+
+    @Value("${engine.cache.rule-index:RuleId-index}")
+    private String ruleIndex;
+
+    // One page of the rule's cached findings; startKey is the LastEvaluatedKey of the previous page, or null
+    public QueryResult queryByRule(String ruleId, Map<String, AttributeValue> startKey, Integer limit) {
+        QueryRequest request = new QueryRequest()
+                .withTableName(tableName)
+                .withIndexName(ruleIndex)
+                .withKeyConditionExpression("RuleId = :ruleId")
+                .withProjectionExpression(PROJECTION)
+                // Action is a DynamoDB reserved word
+                .withExpressionAttributeNames(Map.of("#action", "Action"))
+                .withExpressionAttributeValues(Map.of(":ruleId", new AttributeValue(ruleId)))
+                .withExclusiveStartKey(startKey)
+                .withLimit(limit);
+        return resilience.call("queryPendingSuppressions", () -> amazonDynamoDB.query(request));
+    }
+}
@@ -0,0 +1,53 @@
+package com.swift.csci.repository;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import com.swift.csci.resilience.DynamoDbResilience;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Read access to the suppression engine's rule counters table: one item per rule and day (RuleId, Day as
+ * yyyy-MM-dd in UTC) with the number of findings the rule matched and applied that day. The engine only adds to
+ * the counters; items expire through the table's TTL some weeks after their day.
+ */
+@Repository
+public class RuleCounterRepository {
+    private static final String PROJECTION = "RuleId, #day, Matches, Applied, LastMatchedAt, LastAppliedAt";
+
+    @Autowired
+    @Lazy
+    private AmazonDynamoDB amazonDynamoDB;
+
+    @Autowired
+    private DynamoDbResilience resilience;
+
+    @Value("${rule.hits.table-name:sw-securityhub-suppression-rule-counters-main-aws}")
+    private String tableName;
+
+    // Every counter item of the given day or later; each page is retried on its own
+    public void forEachSince(LocalDate fromDay, Consumer<Map<String, AttributeValue>> consumer) {
+        Map<String, AttributeValue> startKey = null;
+        do {
+            ScanRequest request = new ScanRequest()
+                    .withTableName(tableName)
+                    .withProjectionExpression(PROJECTION)
+                    .withFilterExpression("#day >= :from")
+                    // Day is a DynamoDB reserved word
+                    .withExpressionAttributeNames(Map.of("#day", "Day"))
+                    .withExpressionAttributeValues(Map.of(":from", new AttributeValue(fromDay.toString())))
+                    .withExclusiveStartKey(startKey);
+            ScanResult result = resilience.call("scanRuleCounters", () -> amazonDynamoDB.scan(request));
+            result.getItems().forEach(consumer);
+            startKey = result.getLastEvaluatedKey();
+        } while (startKey != null && !startKey.isEmpty());
+    }
+}
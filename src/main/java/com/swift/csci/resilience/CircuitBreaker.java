@@ -0,0 +1,125 @@
+package com.swift.csci.resilience;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Count-based circuit breaker. It opens when at least failureRatePercent of the last windowSize calls failed
+ * (once minimumCalls were made), rejects all calls while open, and after openMillis lets a single probe call
+ * through (half open): the probe closing the breaker on success or opening it again on failure.
+ */
+class CircuitBreaker {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final boolean[] outcomes;
+    private final int minimumCalls;
+    private final int failureRatePercent;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int recorded;
+    private int next;
+    private int failures;
+    private long openedAt;
+    private boolean probeInFlight;
+    private long timesOpened;
+
+    CircuitBreaker(String name, int windowSize, int minimumCalls, int failureRatePercent, long openMillis) {
+        this.name = name;
+        this.outcomes = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRatePercent = failureRatePercent;
+        this.openNanos = openMillis * 1_000_000;
+    }
+
+    /**
+     * Returns whether a call may be made now. A call that was permitted must record its outcome.
+     */
+    synchronized boolean tryAcquirePermission() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.nanoTime() - openedAt < openNanos) {
+                    return false;
+                }
+                transition(State.HALF_OPEN);
+                probeInFlight = true;
+                return true;
+            default:
+                if (probeInFlight) {
+                    return false;
+                }
+                probeInFlight = true;
+                return true;
+        }
+    }
+
+    synchronized void recordSuccess() {
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false;
+            reset();
+            transition(State.CLOSED);
+            return;
+        }
+        record(false);
+    }
+
+    synchronized void recordFailure() {
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false;
+            open();
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED && recorded >= minimumCalls && failures * 100 >= failureRatePercent * recorded) {
+            open();
+        }
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    synchronized long timesOpened() {
+        return timesOpened;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == outcomes.length) {
+            if (outcomes[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        outcomes[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % outcomes.length;
+    }
+
+    private void open() {
+        reset();
+        openedAt = System.nanoTime();
+        timesOpened++;
+        transition(State.OPEN);
+    }
+
+    private void reset() {
+        recorded = 0;
+        next = 0;
+        failures = 0;
+    }
+
+    private void transition(State newState) {
+        if (state != newState) {
+            LOGGER.warn("Circuit breaker " + name + " " + state + " -> " + newState + ".");
+            state = newState;
+        }
+    }
+}
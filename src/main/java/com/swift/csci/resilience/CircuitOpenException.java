@@ -0,0 +1,15 @@
+package com.swift.csci.resilience;
+
+import com.swift.csci.exception.DynamoDBException;
+
+import java.io.Serial;
+
+// Thrown instead of calling DynamoDB while the circuit breaker is open
+public class CircuitOpenException extends DynamoDBException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public CircuitOpenException(String message) {
+        super(message);
+    }
+}
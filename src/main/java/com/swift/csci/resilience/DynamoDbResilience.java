@@ -0,0 +1,246 @@
+package com.swift.csci.resilience;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.retry.RetryUtils;
+import com.swift.csci.tracing.Tracer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Retry, circuit breaking and hedging for the DynamoDB calls of DynamoDbRepository. The SDK's own retries are
+ * turned off (DynamoDBConfig), so this is the only retry budget a request waits out.
+ * <ul>
+ * <li>Retries use exponential backoff with full jitter. Each retry takes tokens from a shared retry quota that
+ * successful calls refill, so retries stop by themselves when most calls fail (adaptive retry, as in the SDKs'
+ * standard retry mode) instead of multiplying the load on a struggling table.</li>
+ * <li>The circuit breaker opens when half of the recent calls failed; while it is open calls fail at once with
+ * CircuitOpenException, which the read endpoints answer from the rule table cache.</li>
+ * <li>getItem is hedged: if the first request has not answered after the p95 getItem latency, a second one is
+ * sent and the first answer wins. Hedges are limited to a tenth of the requests, so a slow table gets at most
+ * 10% more load.</li>
+ * </ul>
+ * Only throttling, 5xx and I/O errors are retried and count as failures; a validation or conditional check error
+ * means the table is up.
+ */
+@Component
+public class DynamoDbResilience {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DynamoDbResilience.class);
+    private static final int RETRY_QUOTA = 500;
+    private static final int RETRY_COST = 5;
+    private static final int TIMEOUT_RETRY_COST = 10;
+    private static final int THROTTLING_BACKOFF_FACTOR = 10;
+    // One hedge per ten requests: every request earns one credit, a hedge costs ten
+    private static final int HEDGE_COST = 10;
+    private static final int HEDGE_CREDIT_LIMIT = 100;
+    private static final long MIN_HEDGE_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final CircuitBreaker circuitBreaker;
+    private final LatencyPercentile getItemLatency = new LatencyPercentile(256, 0.95, TimeUnit.MILLISECONDS.toNanos(50));
+    private final AtomicInteger retryQuota = new AtomicInteger(RETRY_QUOTA);
+    private final AtomicInteger hedgeCredits = new AtomicInteger();
+    private final ExecutorService hedgeExecutor;
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final boolean hedgingEnabled;
+
+    public DynamoDbResilience(@Value("${dynamodb.retry.max-attempts:3}") int maxAttempts,
+                              @Value("${dynamodb.retry.base-delay-millis:25}") long baseDelayMillis,
+                              @Value("${dynamodb.retry.max-delay-millis:1000}") long maxDelayMillis,
+                              @Value("${dynamodb.circuit.window:20}") int circuitWindow,
+                              @Value("${dynamodb.circuit.failure-rate-percent:50}") int failureRatePercent,
+                              @Value("${dynamodb.circuit.open-millis:10000}") long openMillis,
+                              @Value("${dynamodb.hedge.enabled:true}") boolean hedgingEnabled,
+                              @Value("${dynamodb.hedge.max-threads:16}") int hedgeThreads) {
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.hedgingEnabled = hedgingEnabled;
+        this.circuitBreaker = new CircuitBreaker("dynamodb", circuitWindow, circuitWindow / 2, failureRatePercent, openMillis);
+        // No queue: when all threads are busy the read simply runs unhedged on the request thread
+        this.hedgeExecutor = new ThreadPoolExecutor(0, hedgeThreads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "dynamodb-hedge");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public <T> T call(String operation, Supplier<T> call) {
+        return execute(operation, call);
+    }
+
+    public void run(String operation, Runnable call) {
+        execute(operation, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    // For point reads only: the hedge doubles the request, which is cheap for a getItem but not for a scan
+    public <T> T hedgedCall(String operation, Supplier<T> call) {
+        if (!hedgingEnabled) {
+            return execute(operation, call);
+        }
+        return execute(operation, () -> hedge(operation, call));
+    }
+
+    public String circuitState() {
+        return circuitBreaker.state().name();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hedgeExecutor.shutdownNow();
+    }
+
+    private <T> T execute(String operation, Supplier<T> call) {
+        for (int attempt = 1; ; attempt++) {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                throw new CircuitOpenException("DynamoDB circuit breaker is open, " + operation + " not attempted.");
+            }
+            try {
+                T result = call.get();
+                circuitBreaker.recordSuccess();
+                retryQuota.getAndUpdate(tokens -> Math.min(RETRY_QUOTA, tokens + 1));
+                return result;
+            } catch (RuntimeException e) {
+                if (!isRetryable(e)) {
+                    circuitBreaker.recordSuccess();
+                    throw e;
+                }
+                circuitBreaker.recordFailure();
+                int cost = isTimeout(e) ? TIMEOUT_RETRY_COST : RETRY_COST;
+                if (attempt >= maxAttempts || !takeRetryTokens(cost)) {
+                    LOGGER.warn(operation + " failed after " + attempt + " attempt(s): " + e.getMessage());
+                    throw e;
+                }
+                long delay = backoffMillis(attempt, isThrottling(e));
+                LOGGER.info(operation + " attempt " + attempt + " failed (" + e.getMessage() + "), retrying in " + delay + " ms.");
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            } catch (Error e) {
+                circuitBreaker.recordFailure();
+                throw e;
+            }
+        }
+    }
+
+    private <T> T hedge(String operation, Supplier<T> call) {
+        hedgeCredits.getAndUpdate(credits -> Math.min(HEDGE_CREDIT_LIMIT, credits + 1));
+        long start = System.nanoTime();
+        // The request's span goes along, so both reads show up as its children
+        call = Tracer.wrap(call);
+        CompletableFuture<T> primary;
+        try {
+            primary = CompletableFuture.supplyAsync(timed(call), hedgeExecutor);
+        } catch (RejectedExecutionException e) {
+            return timed(call).get();
+        }
+        long delay = Math.max(MIN_HEDGE_DELAY_NANOS, getItemLatency.valueNanos());
+        try {
+            return primary.get(delay, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Slower than 95% of the recent reads: send a second request unless the hedge budget is used up
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(operation + " interrupted.", e);
+        }
+        CompletableFuture<T> secondary = null;
+        if (takeHedgeCredits()) {
+            try {
+                secondary = CompletableFuture.supplyAsync(timed(call), hedgeExecutor);
+            } catch (RejectedExecutionException e) {
+                hedgeCredits.addAndGet(HEDGE_COST);
+            }
+        }
+        if (secondary == null) {
+            return join(primary);
+        }
+        LOGGER.debug(operation + " hedged after " + (System.nanoTime() - start) / 1_000_000 + " ms.");
+        CompletableFuture<T> first = new CompletableFuture<>();
+        AtomicInteger failed = new AtomicInteger();
+        BiConsumer<T, Throwable> firstSuccess = (result, error) -> {
+            if (error == null) {
+                first.complete(result);
+            } else if (failed.incrementAndGet() == 2) {
+                first.completeExceptionally(error);
+            }
+        };
+        primary.whenComplete(firstSuccess);
+        secondary.whenComplete(firstSuccess);
+        return join(first);
+    }
+
+    // Latencies of single requests (not of hedged calls) set the hedge delay
+    private <T> Supplier<T> timed(Supplier<T> call) {
+        return () -> {
+            long start = System.nanoTime();
+            T result = call.get();
+            getItemLatency.record(System.nanoTime() - start);
+            return result;
+        };
+    }
+
+    private boolean takeRetryTokens(int cost) {
+        return retryQuota.getAndUpdate(tokens -> tokens >= cost ? tokens - cost : tokens) >= cost;
+    }
+
+    private boolean takeHedgeCredits() {
+        return hedgeCredits.getAndUpdate(credits -> credits >= HEDGE_COST ? credits - HEDGE_COST : credits) >= HEDGE_COST;
+    }
+
+    private long backoffMillis(int attempt, boolean throttled) {
+        long base = throttled ? baseDelayMillis * THROTTLING_BACKOFF_FACTOR : baseDelayMillis;
+        long ceiling = Math.min(maxDelayMillis, base << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new CompletionException(cause);
+    }
+
+    static boolean isRetryable(Throwable e) {
+        if (e instanceof AmazonServiceException serviceException) {
+            return RetryUtils.isRetryableServiceException(serviceException) || RetryUtils.isThrottlingException(serviceException)
+                    || serviceException.getStatusCode() >= 500;
+        }
+        // Client exceptions are also raised for mapping errors, which a retry would not fix
+        return e instanceof AmazonClientException && e.getCause() instanceof IOException;
+    }
+
+    private static boolean isThrottling(Throwable e) {
+        return e instanceof AmazonServiceException serviceException && RetryUtils.isThrottlingException(serviceException);
+    }
+
+    private static boolean isTimeout(Throwable e) {
+        return e.getCause() instanceof SocketTimeoutException;
+    }
+}
@@ -0,0 +1,62 @@
+package com.swift.csci.resilience;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stand-in for a struggling DynamoDB, for exercising DynamoDbResilience against DynamoDB Local: wraps a client
+ * so that a share of the requests fails (500 or throttling, alternately) and another share is delayed.
+ * Enabled with dynamodb.fault-injection.enabled=true, never in a container (see DynamoDBConfig).
+ */
+public final class FaultInjectingDynamoDb {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FaultInjectingDynamoDb.class);
+    // Methods of the client itself rather than DynamoDB requests
+    private static final Set<String> CLIENT_METHODS = Set.of("setEndpoint", "setRegion", "shutdown", "getCachedResponseMetadata", "waiters");
+
+    private FaultInjectingDynamoDb() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    public static AmazonDynamoDB wrap(AmazonDynamoDB client, double errorRate, double slowRate, long slowMillis) {
+        LOGGER.warn("DynamoDB fault injection enabled: " + (int) (errorRate * 100) + "% errors, " + (int) (slowRate * 100)
+                + "% of requests delayed by " + slowMillis + " ms.");
+        return (AmazonDynamoDB) Proxy.newProxyInstance(AmazonDynamoDB.class.getClassLoader(), new Class<?>[]{AmazonDynamoDB.class},
+                (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == AmazonDynamoDB.class && !CLIENT_METHODS.contains(method.getName())) {
+                        double roll = ThreadLocalRandom.current().nextDouble();
+                        if (roll < errorRate) {
+                            throw injectedError(method.getName(), roll < errorRate / 2);
+                        }
+                        if (roll < errorRate + slowRate) {
+                            Thread.sleep(slowMillis);
+                        }
+                    }
+                    try {
+                        return method.invoke(client, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private static AmazonServiceException injectedError(String operation, boolean throttling) {
+        AmazonServiceException error = new AmazonServiceException("Injected fault in " + operation);
+        error.setServiceName("AmazonDynamoDBv2");
+        if (throttling) {
+            error.setErrorCode("ThrottlingException");
+            error.setStatusCode(400);
+        } else {
+            error.setErrorCode("InternalServerError");
+            error.setStatusCode(500);
+        }
+        error.setErrorType(AmazonServiceException.ErrorType.Service);
+        return error;
+    }
+}
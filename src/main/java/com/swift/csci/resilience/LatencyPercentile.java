@@ -0,0 +1,42 @@
+package com.swift.csci.resilience;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A percentile of the most recent latencies, e.g. the p95 of the last 256 getItem calls. Recording is lock-free;
+ * the percentile is recomputed from a copy of the samples every few recordings, so reading it is a volatile read.
+ */
+class LatencyPercentile {
+    private static final int RECOMPUTE_EVERY = 32;
+
+    private final AtomicLongArray samples;
+    private final AtomicLong count = new AtomicLong();
+    private final double percentile;
+    private volatile long valueNanos;
+
+    LatencyPercentile(int size, double percentile, long initialNanos) {
+        this.samples = new AtomicLongArray(size);
+        this.percentile = percentile;
+        this.valueNanos = initialNanos;
+    }
+
+    void record(long nanos) {
+        long n = count.getAndIncrement();
+        samples.set((int) (n % samples.length()), nanos);
+        if ((n + 1) % RECOMPUTE_EVERY == 0) {
+            int filled = (int) Math.min(n + 1, samples.length());
+            long[] sorted = new long[filled];
+            for (int i = 0; i < filled; i++) {
+                sorted[i] = samples.get(i);
+            }
+            Arrays.sort(sorted);
+            valueNanos = sorted[(int) Math.ceil(percentile * filled) - 1];
+        }
+    }
+
+    long valueNanos() {
+        return valueNanos;
+    }
+}
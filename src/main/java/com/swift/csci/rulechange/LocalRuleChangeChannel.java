@@ -0,0 +1,44 @@
+package com.swift.csci.rulechange;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * In-memory stand-in for the rule change queue, used when no queue is configured (local profile and tests).
+ * Keeps the most recent events so they can be inspected or drained.
+ */
+public class LocalRuleChangeChannel implements RuleChangeChannel {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocalRuleChangeChannel.class);
+    private static final int DEFAULT_CAPACITY = 1000;
+
+    private final Deque<RuleChangeEvent> events = new ArrayDeque<>();
+    private final int capacity;
+
+    public LocalRuleChangeChannel() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LocalRuleChangeChannel(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void send(RuleChangeEvent event) {
+        if (events.size() == capacity) {
+            events.removeFirst();
+        }
+        events.addLast(event);
+        LOGGER.info("Rule change event recorded locally: " + event);
+    }
+
+    public synchronized List<RuleChangeEvent> drain() {
+        List<RuleChangeEvent> drained = new ArrayList<>(events);
+        events.clear();
+        return drained;
+    }
+}
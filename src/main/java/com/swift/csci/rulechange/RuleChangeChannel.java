@@ -0,0 +1,10 @@
+package com.swift.csci.rulechange;
+
+/**
+ * Transport that carries rule change events from the portal to the suppression engine.
+ */
+@FunctionalInterface
+public interface RuleChangeChannel {
+
+    void send(RuleChangeEvent event);
+}
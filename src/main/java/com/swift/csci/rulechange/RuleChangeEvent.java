@@ -0,0 +1,129 @@
+package com.swift.csci.rulechange;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.swift.csci.audit.Action;
+import com.swift.csci.model.SuppressionData;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compact description of a create, update or delete of a suppression rule.
+ * Carries the old and new rule image (null for create and delete respectively) with only
+ * the attributes the suppression engine uses for matching. In-process listeners also get the
+ * full items and the table version of the change, which are not part of the published message.
+ */
+public class RuleChangeEvent {
+    public static final int VERSION = 1;
+
+    private final Action action;
+    private final String id;
+    private final String serId;
+    private final Map<String, String> oldRule;
+    private final Map<String, String> newRule;
+    private final Instant time;
+    private final SuppressionData oldItem;
+    private final SuppressionData newItem;
+    private final long tableVersion;
+
+    public static RuleChangeEvent create(Action action, SuppressionData oldRule, SuppressionData newRule, long tableVersion) {
+        SuppressionData key = (newRule != null) ? newRule : oldRule;
+        return new RuleChangeEvent(action, key.getId(), key.getSerId(), oldRule, newRule, tableVersion, Instant.now());
+    }
+
+    private RuleChangeEvent(Action action, String id, String serId, SuppressionData oldItem, SuppressionData newItem, long tableVersion, Instant time) {
+        this.action = action;
+        this.id = id;
+        this.serId = serId;
+        this.oldRule = image(oldItem);
+        this.newRule = image(newItem);
+        this.oldItem = oldItem;
+        this.newItem = newItem;
+        this.tableVersion = tableVersion;
+        this.time = time;
+    }
+
+    // Attribute names follow the DynamoDB item so the engine can build a Rule from either image directly
+    private static Map<String, String> image(SuppressionData rule) {
+        if (rule == null) {
+            return null;
+        }
+        Map<String, String> image = new LinkedHashMap<>();
+        image.put("id", rule.getId());
+        image.put("ser_id", rule.getSerId());
+        image.put("ser_link", rule.getSerLink());
+        image.put("product_name", rule.getProductName());
+        image.put("finding_title", rule.getFindingTitle());
+        image.put("due_date", rule.getDueDate());
+        image.put("account_exception", rule.getAccountException());
+        image.put("account_inclusion", rule.getAccountInclusion());
+        image.put("from_severity", rule.getFromSeverity());
+        image.put("to_severity", rule.getToSeverity());
+        image.put("resource_type", rule.getResourceType());
+        image.put("resource_pattern", rule.getResourcePattern());
+        image.put("extra_resource_pattern", rule.getExtraResourcePattern());
+        return image;
+    }
+
+    @JsonProperty("version")
+    public int getVersion() {
+        return VERSION;
+    }
+
+    @JsonProperty("action")
+    public Action getAction() {
+        return action;
+    }
+
+    @JsonProperty("id")
+    public String getId() {
+        return id;
+    }
+
+    @JsonProperty("ser_id")
+    public String getSerId() {
+        return serId;
+    }
+
+    @JsonProperty("old_rule")
+    public Map<String, String> getOldRule() {
+        return oldRule;
+    }
+
+    @JsonProperty("new_rule")
+    public Map<String, String> getNewRule() {
+        return newRule;
+    }
+
+    @JsonProperty("time")
+    public String getTime() {
+        return time.toString();
+    }
+
+    @JsonIgnore
+    public SuppressionData getOldItem() {
+        return oldItem;
+    }
+
+    @JsonIgnore
+    public SuppressionData getNewItem() {
+        return newItem;
+    }
+
+    @JsonIgnore
+    public long getTableVersion() {
+        return tableVersion;
+    }
+
+    @Override
+    public String toString() {
+        return "RuleChangeEvent{" +
+                "action=" + action +
+                ", id='" + id + '\'' +
+                ", serId='" + serId + '\'' +
+                ", time=" + time +
+                '}';
+    }
+}
@@ -0,0 +1,7 @@
+package com.swift.csci.rulechange;
+
+@FunctionalInterface
+public interface RuleChangePublisher {
+
+    void publish(RuleChangeEvent event);
+}
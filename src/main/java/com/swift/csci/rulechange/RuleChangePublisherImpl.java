@@ -0,0 +1,34 @@
+package com.swift.csci.rulechange;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Forwards rule changes to the suppression engine and to in-process listeners.
+ * A failure to reach the engine is logged but never fails the portal request: the scheduled
+ * historic sweeps still pick the change up eventually.
+ */
+@Component
+public class RuleChangePublisherImpl implements RuleChangePublisher {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RuleChangePublisherImpl.class);
+
+    private final RuleChangeChannel ruleChangeChannel;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public RuleChangePublisherImpl(RuleChangeChannel ruleChangeChannel, ApplicationEventPublisher applicationEventPublisher) {
+        this.ruleChangeChannel = ruleChangeChannel;
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    @Override
+    public void publish(RuleChangeEvent event) {
+        try {
+            ruleChangeChannel.send(event);
+        } catch (Exception e) {
+            LOGGER.error("Failed to send rule change event " + event + " to the suppression engine", e);
+        }
+        applicationEventPublisher.publishEvent(event);
+    }
+}
@@ -0,0 +1,36 @@
+package com.swift.csci.rulechange;
+
+import com.amazonaws.services.sqs.AmazonSQS;
+import com.amazonaws.services.sqs.model.SendMessageRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sends rule change events to the SQS queue consumed by the suppression engine lambda.
+ */
+public class SqsRuleChangeChannel implements RuleChangeChannel {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SqsRuleChangeChannel.class);
+
+    private final AmazonSQS sqsClient;
+    private final String queueUrl;
+    private final ObjectMapper objectMapper;
+
+    public SqsRuleChangeChannel(AmazonSQS sqsClient, String queueUrl, ObjectMapper objectMapper) {
+        this.sqsClient = sqsClient;
+        this.queueUrl = queueUrl;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void send(RuleChangeEvent event) {
+        try {
+            String body = objectMapper.writeValueAsString(event);
+            sqsClient.sendMessage(new SendMessageRequest(queueUrl, body));
+            LOGGER.debug("Sent rule change event to queue: " + event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize rule change event " + event, e);
+        }
+    }
+}
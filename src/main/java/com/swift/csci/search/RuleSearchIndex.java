@@ -0,0 +1,352 @@
+package com.swift.csci.search;
+
+import com.swift.csci.model.SuppressionData;
+import com.swift.csci.repository.DynamoDbRepository;
+import com.swift.csci.rulechange.RuleChangeEvent;
+import com.swift.csci.snapshot.RuleTableLoadedEvent;
+import com.swift.csci.sync.TableVersionTracker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * In-process inverted index over the text fields of the suppression rules, behind /search.
+ * <p>
+ * Text is lower-cased and split on every non alphanumeric character, so ARNs and resource patterns are searchable
+ * by any of their parts (service, region, account id, resource name) and account lists by each account id. Queries
+ * are split the same way, so "sw-ec2-default-profile" matches rules containing that name. Every query term must match (exactly or as a prefix of an indexed term); hits are ranked by the weight of the
+ * matching fields and the rarity of the term.
+ * <p>
+ * The index is built when the rule table cache is loaded at startup, kept in sync with portal writes through
+ * RuleChangeEvent and rebuilt periodically to pick up changes made outside the portal.
+ */
+@Component
+public class RuleSearchIndex {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RuleSearchIndex.class);
+    private static final int MIN_PREFIX_LENGTH = 2;
+    // Bounds the work of a short prefix that matches a large part of the dictionary
+    private static final int MAX_PREFIX_EXPANSIONS = 256;
+    private static final float PREFIX_MATCH_FACTOR = 0.5f;
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{Alnum}]+");
+
+    private static final Map<String, Function<SuppressionData, String>> FIELDS = new LinkedHashMap<>();
+    private static final Map<String, Float> FIELD_WEIGHTS = new HashMap<>();
+
+    static {
+        field("id", SuppressionData::getId, 3f);
+        field("ser_id", SuppressionData::getSerId, 3f);
+        field("finding_title", SuppressionData::getFindingTitle, 3f);
+        field("product_name", SuppressionData::getProductName, 1f);
+        field("description", SuppressionData::getDescription, 1f);
+        field("resource_type", SuppressionData::getResourceType, 2f);
+        field("resource_pattern", SuppressionData::getResourcePattern, 2f);
+        field("extra_resource_pattern", SuppressionData::getExtraResourcePattern, 1f);
+        field("account_exception", SuppressionData::getAccountException, 2f);
+        field("account_inclusion", SuppressionData::getAccountInclusion, 2f);
+    }
+
+    private final DynamoDbRepository dynamoDbRepository;
+    private final TableVersionTracker tableVersionTracker;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Index index;
+
+    public RuleSearchIndex(DynamoDbRepository dynamoDbRepository, TableVersionTracker tableVersionTracker) {
+        this.dynamoDbRepository = dynamoDbRepository;
+        this.tableVersionTracker = tableVersionTracker;
+    }
+
+    private static void field(String name, Function<SuppressionData, String> accessor, float weight) {
+        FIELDS.put(name, accessor);
+        FIELD_WEIGHTS.put(name, weight);
+    }
+
+    @EventListener
+    public void onTableLoaded(RuleTableLoadedEvent event) {
+        if (!build(event.getItems(), event.getTableVersion())) {
+            LOGGER.info("Rule table changed since it was loaded, the search index is left to the next rebuild.");
+        }
+    }
+
+    @Scheduled(initialDelayString = "${search.rebuild-millis:3600000}", fixedDelayString = "${search.rebuild-millis:3600000}")
+    public void scheduledRebuild() {
+        try {
+            if (!rebuild()) {
+                LOGGER.info("Rule table changed during the search index rebuild, keeping the current index.");
+            }
+        } catch (Exception e) {
+            LOGGER.error("Rule search index rebuild failed.", e);
+        }
+    }
+
+    @EventListener
+    public void onRuleChange(RuleChangeEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (index == null) {
+                return;
+            }
+            if (event.getOldItem() != null) {
+                index.remove(event.getOldItem().getId(), event.getOldItem().getSerId());
+            }
+            if (event.getNewItem() != null) {
+                index.add(event.getNewItem());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns empty until the index has been built.
+     *
+     * @param query   free text, every term must match; blank to list all rules matching the filters
+     * @param product optional exact product name filter (case-insensitive)
+     * @param page    zero based page number
+     */
+    public Optional<RuleSearchResult> search(String query, String product, int page, int size) {
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            if (index == null) {
+                return Optional.empty();
+            }
+            Map<String, Float> scores = index.search(tokenize(query), product);
+            // Only the entries up to the requested page are ordered, with a bounded heap holding the lowest ranked on top
+            long limit = Math.min((long) (page + 1) * size, scores.size());
+            Comparator<Map.Entry<String, Float>> ranking = Map.Entry.<String, Float>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey());
+            PriorityQueue<Map.Entry<String, Float>> top = new PriorityQueue<>(ranking.reversed());
+            for (Map.Entry<String, Float> entry : scores.entrySet()) {
+                top.offer(entry);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            List<Map.Entry<String, Float>> ranked = new ArrayList<>(top);
+            ranked.sort(ranking);
+            List<RuleSearchResult.Hit> hits = new ArrayList<>(size);
+            for (int i = (int) Math.min((long) page * size, ranked.size()); i < ranked.size(); i++) {
+                hits.add(new RuleSearchResult.Hit(ranked.get(i).getValue(), index.documents.get(ranked.get(i).getKey())));
+            }
+            long elapsedMicros = (System.nanoTime() - start) / 1_000;
+            return Optional.of(new RuleSearchResult(scores.size(), page, size, elapsedMicros, hits));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Returns false when the scan is inconclusive because the table was written to while it ran
+    private boolean rebuild() {
+        long version = tableVersionTracker.current();
+        return build(dynamoDbRepository.listItems(), version);
+    }
+
+    // Replaces the index unless the table was written to after the given version
+    private boolean build(List<SuppressionData> items, long version) {
+        Index rebuilt = new Index();
+        for (SuppressionData item : items) {
+            rebuilt.add(item);
+        }
+        lock.writeLock().lock();
+        try {
+            if (!tableVersionTracker.unchangedSince(version)) {
+                return false;
+            }
+            index = rebuilt;
+            LOGGER.info("Built rule search index over " + rebuilt.documents.size() + " rules and " + rebuilt.postings.size() + " terms.");
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        String lowerCase = text.toLowerCase(Locale.ROOT);
+        for (String token : SEPARATORS.split(lowerCase)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static String key(String id, String serId) {
+        return id + "\u0000" + serId;
+    }
+
+    private static final class Index {
+        private final Map<String, SuppressionData> documents = new HashMap<>();
+        private final Map<String, DocumentTerms> documentTerms = new HashMap<>();
+        private final TreeMap<String, Map<String, Float>> postings = new TreeMap<>();
+
+        void add(SuppressionData item) {
+            String key = key(item.getId(), item.getSerId());
+            remove(item.getId(), item.getSerId());
+            Map<String, Float> termWeights = new HashMap<>();
+            for (Map.Entry<String, Function<SuppressionData, String>> field : FIELDS.entrySet()) {
+                String value = field.getValue().apply(item);
+                if (value == null || value.isBlank()) {
+                    continue;
+                }
+                float weight = FIELD_WEIGHTS.get(field.getKey());
+                for (String token : tokenize(value)) {
+                    termWeights.merge(token, weight, Float::sum);
+                }
+            }
+            for (Map.Entry<String, Float> term : termWeights.entrySet()) {
+                postings.computeIfAbsent(term.getKey(), k -> new HashMap<>()).put(key, term.getValue());
+            }
+            documents.put(key, item);
+            documentTerms.put(key, new DocumentTerms(termWeights));
+        }
+
+        void remove(String id, String serId) {
+            String key = key(id, serId);
+            DocumentTerms terms = documentTerms.remove(key);
+            if (terms == null) {
+                return;
+            }
+            documents.remove(key);
+            for (String term : terms.terms()) {
+                Map<String, Float> posting = postings.get(term);
+                posting.remove(key);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+
+        /**
+         * Scores of the documents matching every term. Candidates come from the posting lists of the most selective
+         * term; the other terms are checked against each candidate's own terms.
+         */
+        Map<String, Float> search(List<String> terms, String product) {
+            Map<String, Float> scores;
+            if (terms.isEmpty()) {
+                scores = new HashMap<>();
+                for (String key : documents.keySet()) {
+                    scores.put(key, 0f);
+                }
+            } else {
+                List<String> bySelectivity = new ArrayList<>(new LinkedHashSet<>(terms));
+                Map<String, Long> estimates = new HashMap<>();
+                for (String term : bySelectivity) {
+                    estimates.put(term, estimate(term));
+                }
+                bySelectivity.sort(Comparator.comparing(estimates::get));
+                scores = match(bySelectivity.get(0));
+                for (String term : bySelectivity.subList(1, bySelectivity.size())) {
+                    Iterator<Map.Entry<String, Float>> candidates = scores.entrySet().iterator();
+                    while (candidates.hasNext()) {
+                        Map.Entry<String, Float> candidate = candidates.next();
+                        float score = score(term, documentTerms.get(candidate.getKey()));
+                        if (score == 0f) {
+                            candidates.remove();
+                        } else {
+                            candidate.setValue(candidate.getValue() + score);
+                        }
+                    }
+                }
+            }
+            if (product != null && !product.isBlank()) {
+                scores.keySet().removeIf(key -> !product.strip().equalsIgnoreCase(documents.get(key).getProductName().strip()));
+            }
+            return scores;
+        }
+
+        // Number of postings a term would read, capped like the prefix expansion itself
+        private long estimate(String term) {
+            long count = 0;
+            Map<String, Float> exact = postings.get(term);
+            if (exact != null) {
+                count += exact.size();
+            }
+            if (term.length() >= MIN_PREFIX_LENGTH) {
+                int expansions = 0;
+                for (Map.Entry<String, Map<String, Float>> entry : postings.tailMap(term, false).entrySet()) {
+                    if (!entry.getKey().startsWith(term) || ++expansions > MAX_PREFIX_EXPANSIONS) {
+                        break;
+                    }
+                    count += entry.getValue().size();
+                }
+            }
+            return count;
+        }
+
+        // Score of every document containing the term or, for terms long enough, a term it is a prefix of
+        private Map<String, Float> match(String term) {
+            Map<String, Float> scores = new HashMap<>();
+            addScores(scores, postings.get(term), termScore(term, 1f));
+            if (term.length() >= MIN_PREFIX_LENGTH) {
+                int expansions = 0;
+                for (Map.Entry<String, Map<String, Float>> entry : postings.tailMap(term, false).entrySet()) {
+                    if (!entry.getKey().startsWith(term) || ++expansions > MAX_PREFIX_EXPANSIONS) {
+                        break;
+                    }
+                    addScores(scores, entry.getValue(), termScore(entry.getKey(), PREFIX_MATCH_FACTOR));
+                }
+            }
+            return scores;
+        }
+
+        // Same scoring as match, for a single document: its terms are sorted, so the matches are a contiguous run
+        private float score(String term, DocumentTerms document) {
+            String[] terms = document.terms();
+            int index = Arrays.binarySearch(terms, term);
+            float best = 0f;
+            if (index >= 0) {
+                best = document.weights()[index] * termScore(term, 1f);
+                index++;
+            } else {
+                index = -index - 1;
+            }
+            if (term.length() >= MIN_PREFIX_LENGTH) {
+                for (; index < terms.length && terms[index].startsWith(term); index++) {
+                    best = Math.max(best, document.weights()[index] * termScore(terms[index], PREFIX_MATCH_FACTOR));
+                }
+            }
+            return best;
+        }
+
+        // Rare terms weigh more, as in tf-idf
+        private float termScore(String indexed, float factor) {
+            Map<String, Float> posting = postings.get(indexed);
+            if (posting == null) {
+                return 0f;
+            }
+            return (float) Math.log(1 + (double) documents.size() / posting.size()) * factor;
+        }
+
+        private static void addScores(Map<String, Float> scores, Map<String, Float> posting, float termScore) {
+            if (posting == null) {
+                return;
+            }
+            for (Map.Entry<String, Float> entry : posting.entrySet()) {
+                scores.merge(entry.getKey(), entry.getValue() * termScore, Math::max);
+            }
+        }
+    }
+
+    private record DocumentTerms(String[] terms, float[] weights) {
+
+        DocumentTerms(Map<String, Float> termWeights) {
+            this(termWeights.keySet().stream().sorted().toArray(String[]::new), new float[termWeights.size()]);
+            for (int i = 0; i < terms.length; i++) {
+                weights[i] = termWeights.get(terms[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.swift.csci.search;
+
+import com.swift.csci.model.SuppressionData;
+
+import java.util.List;
+
+public class RuleSearchResult {
+    private final int total;
+    private final int page;
+    private final int size;
+    private final long elapsedMicros;
+    private final List<Hit> hits;
+
+    public RuleSearchResult(int total, int page, int size, long elapsedMicros, List<Hit> hits) {
+        this.total = total;
+        this.page = page;
+        this.size = size;
+        this.elapsedMicros = elapsedMicros;
+        this.hits = hits;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public long getElapsedMicros() {
+        return elapsedMicros;
+    }
+
+    public List<Hit> getHits() {
+        return hits;
+    }
+
+    public static class Hit {
+        private final float score;
+        private final SuppressionData item;
+
+        public Hit(float score, SuppressionData item) {
+            this.score = score;
+            this.item = item;
+        }
+
+        public float getScore() {
+            return score;
+        }
+
+        public SuppressionData getItem() {
+            return item;
+        }
+    }
+}
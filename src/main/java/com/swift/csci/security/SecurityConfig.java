@@ -77,6 +77,8 @@ public class SecurityConfig {
                             .requestMatchers("/createItem").hasAuthority(adminsEntitlementName)
                             .requestMatchers("/updateItem").hasAuthority(adminsEntitlementName)
                             .requestMatchers("/deleteItem").hasAuthority(adminsEntitlementName)
+                            .requestMatchers("/import").hasAuthority(adminsEntitlementName)
+                            .requestMatchers("/expirySweep").hasAuthority(adminsEntitlementName)
 
                             // all other endpoints require authentication (granted authority does not matter)
                             .anyRequest().authenticated()
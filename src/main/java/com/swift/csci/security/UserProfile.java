@@ -45,6 +45,18 @@ public class UserProfile implements java.io.Serializable {
         }
     }
 
+    // For changes made by a scheduled job of the portal rather than a signed in user
+    private UserProfile(String jobName) {
+        this.groups = List.of();
+        this.displayName = jobName;
+        this.email = "NA";
+        this.displayGroup = "System";
+    }
+
+    public static UserProfile system(String jobName) {
+        return new UserProfile(jobName);
+    }
+
     public String getDisplayName() {
         return displayName;
     }
@@ -0,0 +1,161 @@
+package com.swift.csci.snapshot;
+
+import com.swift.csci.model.SuppressionData;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * Binary snapshot of the rule table on local disk.
+ * <p>
+ * Layout (big endian): magic "CSCISNAP", format version, table version, write time (epoch millis), item count, the
+ * items, then a CRC32 of everything before it. An item is its 15 string attributes, each as a length (-1 for null)
+ * followed by UTF-8 bytes, then last_modified. Snapshots are written to a temporary file and moved into place, and
+ * read through a read-only memory mapping; a snapshot with an unknown format or a bad checksum is ignored.
+ */
+public final class RuleSnapshotFile {
+    private static final long MAGIC = 0x43534349534E4150L; // "CSCISNAP"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 8 + 4 + 8 + 8 + 4;
+    private static final int CHECKSUM_BYTES = 8;
+
+    private RuleSnapshotFile() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    public static void write(Path path, long tableVersion, Collection<SuppressionData> items) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.max(1024, items.size() * 512));
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeLong(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeLong(tableVersion);
+        out.writeLong(System.currentTimeMillis());
+        out.writeInt(items.size());
+        for (SuppressionData item : items) {
+            writeString(out, item.getId());
+            writeString(out, item.getSerId());
+            writeString(out, item.getFindingTitle());
+            writeString(out, item.getFindingType());
+            writeString(out, item.getProductName());
+            writeString(out, item.getSerLink());
+            writeString(out, item.getDueDate());
+            writeString(out, item.getDescription());
+            writeString(out, item.getAccountException());
+            writeString(out, item.getAccountInclusion());
+            writeString(out, item.getFromSeverity());
+            writeString(out, item.getToSeverity());
+            writeString(out, item.getResourceType());
+            writeString(out, item.getResourcePattern());
+            writeString(out, item.getExtraResourcePattern());
+            out.writeLong(item.getLastModified() == null ? 0L : item.getLastModified());
+        }
+        out.flush();
+        byte[] body = bytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(body);
+
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer[] buffers = {ByteBuffer.wrap(body), ByteBuffer.allocate(CHECKSUM_BYTES).putLong(0, crc.getValue())};
+            while (buffers[1].hasRemaining()) {
+                channel.write(buffers);
+            }
+            channel.force(true);
+        } catch (IOException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Returns empty when there is no snapshot or it is not usable (other format, truncated, corrupted).
+     */
+    public static Optional<Snapshot> read(Path path) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES + CHECKSUM_BYTES || size > Integer.MAX_VALUE) {
+                return Optional.empty();
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getLong() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                return Optional.empty();
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate().position(0).limit((int) size - CHECKSUM_BYTES));
+            if (buffer.getLong((int) size - CHECKSUM_BYTES) != crc.getValue()) {
+                return Optional.empty();
+            }
+            long tableVersion = buffer.getLong();
+            long writtenAt = buffer.getLong();
+            int count = buffer.getInt();
+            List<SuppressionData> items = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                SuppressionData item = new SuppressionData();
+                item.setId(readString(buffer));
+                item.setSerId(readString(buffer));
+                item.setFindingTitle(readString(buffer));
+                item.setFindingType(readString(buffer));
+                item.setProductName(readString(buffer));
+                item.setSerLink(readString(buffer));
+                item.setDueDate(readString(buffer));
+                item.setDescription(readString(buffer));
+                item.setAccountException(readString(buffer));
+                item.setAccountInclusion(readString(buffer));
+                item.setFromSeverity(readString(buffer));
+                item.setToSeverity(readString(buffer));
+                item.setResourceType(readString(buffer));
+                item.setResourcePattern(readString(buffer));
+                item.setExtraResourcePattern(readString(buffer));
+                item.setLastModified(buffer.getLong());
+                items.add(item);
+            }
+            return Optional.of(new Snapshot(tableVersion, writtenAt, items));
+        } catch (RuntimeException e) {
+            // Buffer underflow or an invalid length: the checksum matched but the content does not parse
+            return Optional.empty();
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public record Snapshot(long tableVersion, long writtenAt, List<SuppressionData> items) {
+    }
+}
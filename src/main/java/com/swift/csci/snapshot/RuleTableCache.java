@@ -0,0 +1,427 @@
+package com.swift.csci.snapshot;
+
+import com.swift.csci.audit.Action;
+import com.swift.csci.model.SuppressionData;
+import com.swift.csci.model.SuppressionDataSchema;
+import com.swift.csci.repository.DynamoDbRepository;
+import com.swift.csci.rulechange.RuleChangeEvent;
+import com.swift.csci.sync.TableVersionTracker;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-memory copy of the rule table, persisted to a local snapshot file so a restart does not start cold.
+ * <p>
+ * At startup the snapshot is memory-mapped and loaded, and a background reconcile brings it up to date with
+ * DynamoDB through a delta scan: only keys and last_modified are read, and only items that are new or whose
+ * last_modified changed are fetched. Without a snapshot the first reconcile is a full scan. Until then, and whenever
+ * the copy has not been confirmed current for snapshot.max-staleness-millis, {@link #items()} is empty and callers
+ * read DynamoDB themselves.
+ * <p>
+ * Portal writes of this instance are applied as they happen. Every snapshot.refresh-millis the shared table version
+ * is checked, and when it moved (a write on another instance) the items modified and deleted since are read and
+ * applied. Every snapshot.persist-millis the whole table is read and compared item by item, which also picks up
+ * edits made outside the portal that leave last_modified alone, and the snapshot is written. Items written through
+ * this instance while a scan runs keep their local state, so a scan is never thrown away because of them.
+ * <p>
+ * The first load publishes a RuleTableLoadedEvent, from which the statistics and the search index are built, so
+ * they no longer scan the table at startup; changes found later are published as RuleChangeEvents.
+ */
+@Component
+public class RuleTableCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RuleTableCache.class);
+    private static final List<String> RECONCILE_ATTRIBUTES = List.of("id", "ser_id", "last_modified");
+    private static final int RECONCILE_ATTEMPTS = 5;
+    private static final long RECONCILE_RETRY_MILLIS = 1000;
+
+    private enum State {
+        EMPTY, SNAPSHOT, CURRENT
+    }
+
+    private final DynamoDbRepository dynamoDbRepository;
+    private final TableVersionTracker tableVersionTracker;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final Path snapshotPath;
+    private final boolean snapshotEnabled;
+    private final long maxStalenessMillis;
+    private final ExecutorService reconciler = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "rule-table-reconcile");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean refreshQueued = new AtomicBoolean();
+
+    private final Map<String, SuppressionData> items = new HashMap<>();
+    private State state = State.EMPTY;
+    // Table version the items are current with, and when that was last confirmed
+    private long syncedVersion;
+    private long syncedAt;
+    // Keys written through this instance while a scan runs, null when none runs
+    private Set<String> written;
+
+    public RuleTableCache(DynamoDbRepository dynamoDbRepository, TableVersionTracker tableVersionTracker,
+                          ApplicationEventPublisher applicationEventPublisher,
+                          @Value("${snapshot.path:${java.io.tmpdir}/csci-rule-snapshot.bin}") String snapshotPath,
+                          @Value("${snapshot.enabled:true}") boolean snapshotEnabled,
+                          @Value("${snapshot.max-staleness-millis:30000}") long maxStalenessMillis) {
+        this.dynamoDbRepository = dynamoDbRepository;
+        this.tableVersionTracker = tableVersionTracker;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.snapshotPath = Path.of(snapshotPath);
+        this.snapshotEnabled = snapshotEnabled;
+        this.maxStalenessMillis = maxStalenessMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (snapshotEnabled) {
+            loadSnapshot();
+        }
+        reconciler.execute(() -> {
+            if (reconcileWithRetries(false)) {
+                persist();
+            }
+        });
+    }
+
+    @Scheduled(initialDelayString = "${snapshot.persist-millis:300000}", fixedDelayString = "${snapshot.persist-millis:300000}")
+    public void reconcileAndPersist() {
+        submit(() -> {
+            if (reconcileWithRetries(true)) {
+                persist();
+            }
+        });
+    }
+
+    @Scheduled(initialDelayString = "${snapshot.refresh-millis:5000}", fixedDelayString = "${snapshot.refresh-millis:5000}")
+    public void refresh() {
+        if (refreshQueued.compareAndSet(false, true)) {
+            submit(() -> {
+                refreshQueued.set(false);
+                try {
+                    catchUp();
+                } catch (Exception e) {
+                    LOGGER.warn("Failed to refresh the rule cache from DynamoDB: " + e.getMessage());
+                }
+            });
+        }
+    }
+
+    // For bulk writes that publish no RuleChangeEvent per rule (imports): picks them up without waiting for the schedule
+    public void reconcileSoon() {
+        submit(() -> {
+            if (reconcileWithRetries(false)) {
+                persist();
+            }
+        });
+    }
+
+    @EventListener
+    public synchronized void onRuleChange(RuleChangeEvent event) {
+        if (state == State.EMPTY) {
+            return;
+        }
+        if (event.getOldItem() != null) {
+            items.remove(key(event.getOldItem()));
+        }
+        if (event.getNewItem() != null) {
+            items.put(key(event.getNewItem()), event.getNewItem());
+        }
+        if (written != null) {
+            written.add(key(event.getOldItem() != null ? event.getOldItem() : event.getNewItem()));
+        }
+    }
+
+    /**
+     * All rules, or empty unless the copy has been reconciled with DynamoDB and confirmed current within
+     * snapshot.max-staleness-millis.
+     */
+    public synchronized Optional<List<SuppressionData>> items() {
+        if (state != State.CURRENT || System.currentTimeMillis() - syncedAt > maxStalenessMillis) {
+            return Optional.empty();
+        }
+        return Optional.of(new ArrayList<>(items.values()));
+    }
+
+    /**
+     * All rules as last known, however old, or empty until the snapshot or the first scan has been loaded. Only
+     * for when DynamoDB cannot be reached.
+     */
+    public synchronized Optional<List<SuppressionData>> lastKnownItems() {
+        if (state == State.EMPTY) {
+            return Optional.empty();
+        }
+        return Optional.of(new ArrayList<>(items.values()));
+    }
+
+    public synchronized boolean isReconciled() {
+        return state == State.CURRENT;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reconciler.shutdownNow();
+    }
+
+    private void submit(Runnable task) {
+        try {
+            reconciler.execute(task);
+        } catch (RejectedExecutionException e) {
+            LOGGER.debug("Rule cache is shut down, not reconciling.");
+        }
+    }
+
+    private void loadSnapshot() {
+        long start = System.nanoTime();
+        try {
+            Optional<RuleSnapshotFile.Snapshot> snapshot = RuleSnapshotFile.read(snapshotPath);
+            if (snapshot.isEmpty()) {
+                LOGGER.info("No usable rule snapshot at " + snapshotPath + ", starting from a table scan.");
+                return;
+            }
+            List<SuppressionData> loaded = snapshot.get().items();
+            long version = tableVersionTracker.current();
+            synchronized (this) {
+                items.clear();
+                for (SuppressionData item : loaded) {
+                    items.put(key(item), item);
+                }
+                state = State.SNAPSHOT;
+            }
+            LOGGER.info("Loaded " + loaded.size() + " rules from the snapshot of table version " + snapshot.get().tableVersion()
+                    + " written at " + new Date(snapshot.get().writtenAt()) + " in " + (System.nanoTime() - start) / 1_000_000 + " ms.");
+            applicationEventPublisher.publishEvent(new RuleTableLoadedEvent(List.copyOf(loaded), version, true));
+        } catch (Exception e) {
+            LOGGER.error("Failed to load the rule snapshot from " + snapshotPath + ".", e);
+        }
+    }
+
+    // Retries failed reconciles with exponential backoff, returns false when all attempts failed
+    private boolean reconcileWithRetries(boolean compareItems) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                reconcile(compareItems);
+                return true;
+            } catch (Exception e) {
+                if (attempt == RECONCILE_ATTEMPTS) {
+                    LOGGER.error("Failed to reconcile the rule cache with DynamoDB after " + attempt + " attempts.", e);
+                    return false;
+                }
+                long delay = RECONCILE_RETRY_MILLIS << (attempt - 1);
+                LOGGER.warn("Failed to reconcile the rule cache with DynamoDB (attempt " + attempt + "), retrying in " + delay + " ms: " + e.getMessage());
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+    }
+
+    // Replaces the items with the table's, comparing whole items when compareItems is set, else only last_modified
+    private void reconcile(boolean compareItems) {
+        long readAt = System.currentTimeMillis();
+        long version = tableVersionTracker.current();
+        boolean fullScan;
+        Map<String, SuppressionData> cached;
+        synchronized (this) {
+            fullScan = state == State.EMPTY || compareItems;
+            cached = new HashMap<>(items);
+            written = new HashSet<>();
+        }
+
+        Map<String, SuppressionData> scanned = new HashMap<>();
+        try {
+            if (fullScan) {
+                for (SuppressionData item : dynamoDbRepository.listItems()) {
+                    scanned.put(key(item), item);
+                }
+            } else {
+                List<SuppressionData> stale = new ArrayList<>();
+                for (SuppressionData head : dynamoDbRepository.listItems(RECONCILE_ATTRIBUTES)) {
+                    SuppressionData current = cached.get(key(head));
+                    if (current != null && Objects.equals(current.getLastModified(), head.getLastModified())) {
+                        scanned.put(key(head), current);
+                    } else {
+                        stale.add(head);
+                    }
+                }
+                for (SuppressionData item : dynamoDbRepository.getItems(stale)) {
+                    scanned.put(key(item), item);
+                }
+            }
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                written = null;
+            }
+            throw e;
+        }
+
+        List<SuppressionData[]> changes = new ArrayList<>();
+        boolean initial;
+        List<SuppressionData> reconciled;
+        synchronized (this) {
+            // Items written through this instance during the scan keep their state, the scan may predate the write
+            for (String key : written) {
+                SuppressionData local = items.get(key);
+                if (local == null) {
+                    scanned.remove(key);
+                } else {
+                    scanned.put(key, local);
+                }
+            }
+            written = null;
+            Set<String> keys = new HashSet<>(items.keySet());
+            keys.addAll(scanned.keySet());
+            for (String key : keys) {
+                SuppressionData before = items.get(key);
+                SuppressionData after = scanned.get(key);
+                if (!sameItem(before, after)) {
+                    changes.add(new SuppressionData[]{before, after});
+                }
+            }
+            initial = state != State.CURRENT;
+            items.clear();
+            items.putAll(scanned);
+            state = State.CURRENT;
+            syncedVersion = version;
+            syncedAt = readAt;
+            reconciled = List.copyOf(scanned.values());
+        }
+        LOGGER.info("Reconciled the rule cache with DynamoDB (" + (fullScan ? "full scan" : "delta scan") + "): "
+                + reconciled.size() + " rules, " + changes.size() + " changed.");
+        long reconciledVersion = version;
+        if (!changes.isEmpty() && (!initial || !cached.isEmpty())) {
+            // Differences found here did not go through a portal write, clients must not keep what they have
+            reconciledVersion = tableVersionTracker.advance();
+        }
+        if (initial) {
+            applicationEventPublisher.publishEvent(new RuleTableLoadedEvent(reconciled, reconciledVersion, false));
+        } else {
+            for (SuppressionData[] change : changes) {
+                applicationEventPublisher.publishEvent(changeEvent(change[0], change[1], reconciledVersion));
+            }
+        }
+    }
+
+    // Applies the writes of all instances since the version the items are current with
+    private void catchUp() {
+        long from;
+        synchronized (this) {
+            if (state != State.CURRENT) {
+                return;
+            }
+            from = syncedVersion;
+        }
+        long readAt = System.currentTimeMillis();
+        long version = tableVersionTracker.current();
+        if (version == from && tableVersionTracker.isSettled(version)) {
+            synchronized (this) {
+                syncedAt = readAt;
+            }
+            return;
+        }
+        Optional<List<TableVersionTracker.Tombstone>> deleted = tableVersionTracker.deletedSince(from);
+        if (deleted.isEmpty()) {
+            LOGGER.info("Rule cache is behind the oldest known delete, reconciling it.");
+            reconcileWithRetries(false);
+            return;
+        }
+        synchronized (this) {
+            written = new HashSet<>();
+        }
+        List<SuppressionData> upserted;
+        try {
+            upserted = dynamoDbRepository.listItemsModifiedSince(tableVersionTracker.rereadFrom(from), List.of());
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                written = null;
+            }
+            throw e;
+        }
+
+        List<RuleChangeEvent> events = new ArrayList<>();
+        synchronized (this) {
+            for (SuppressionData item : upserted) {
+                String key = key(item);
+                SuppressionData before = items.get(key);
+                if (!written.contains(key) && (before == null || isOlder(before, item.getLastModified()))) {
+                    items.put(key, item);
+                    events.add(changeEvent(before, item, version));
+                }
+            }
+            for (TableVersionTracker.Tombstone tombstone : deleted.get()) {
+                String key = tombstone.getId() + "\u0000" + tombstone.getSerId();
+                SuppressionData before = items.get(key);
+                if (!written.contains(key) && before != null && isOlder(before, tombstone.getVersion())) {
+                    items.remove(key);
+                    events.add(changeEvent(before, null, version));
+                }
+            }
+            written = null;
+            syncedVersion = version;
+            syncedAt = readAt;
+        }
+        if (!events.isEmpty()) {
+            LOGGER.info("Applied " + events.size() + " rule changes since table version " + from + " to the rule cache.");
+        }
+        events.forEach(applicationEventPublisher::publishEvent);
+    }
+
+    private void persist() {
+        if (!snapshotEnabled) {
+            return;
+        }
+        List<SuppressionData> snapshot;
+        long version;
+        synchronized (this) {
+            if (state != State.CURRENT) {
+                return;
+            }
+            snapshot = new ArrayList<>(items.values());
+            version = syncedVersion;
+        }
+        try {
+            RuleSnapshotFile.write(snapshotPath, version, snapshot);
+            LOGGER.info("Wrote rule snapshot with " + snapshot.size() + " rules to " + snapshotPath + ".");
+        } catch (Exception e) {
+            LOGGER.error("Failed to write the rule snapshot to " + snapshotPath + ".", e);
+        }
+    }
+
+    private static RuleChangeEvent changeEvent(SuppressionData before, SuppressionData after, long version) {
+        Action action = before == null ? Action.CREATE : after == null ? Action.DELETE : Action.UPDATE;
+        return RuleChangeEvent.create(action, before, after, version);
+    }
+
+    private static boolean isOlder(SuppressionData item, long version) {
+        return item.getLastModified() == null || item.getLastModified() < version;
+    }
+
+    // All attributes as stored, last_modified included
+    private static boolean sameItem(SuppressionData a, SuppressionData b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return SuppressionDataSchema.toItem(a).equals(SuppressionDataSchema.toItem(b));
+    }
+
+    private static String key(SuppressionData item) {
+        return item.getId() + "\u0000" + item.getSerId();
+    }
+}
@@ -0,0 +1,33 @@
+package com.swift.csci.snapshot;
+
+import com.swift.csci.model.SuppressionData;
+
+import java.util.List;
+
+/**
+ * Published when the rule table cache has been (re)loaded, from the disk snapshot or after reconciling with
+ * DynamoDB, so in-memory structures can be built from it instead of scanning the table themselves.
+ */
+public class RuleTableLoadedEvent {
+    private final List<SuppressionData> items;
+    private final long tableVersion;
+    private final boolean fromSnapshot;
+
+    public RuleTableLoadedEvent(List<SuppressionData> items, long tableVersion, boolean fromSnapshot) {
+        this.items = items;
+        this.tableVersion = tableVersion;
+        this.fromSnapshot = fromSnapshot;
+    }
+
+    public List<SuppressionData> getItems() {
+        return items;
+    }
+
+    public long getTableVersion() {
+        return tableVersion;
+    }
+
+    public boolean isFromSnapshot() {
+        return fromSnapshot;
+    }
+}
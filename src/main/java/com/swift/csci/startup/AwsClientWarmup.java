@@ -0,0 +1,49 @@
+package com.swift.csci.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Creates the lazy AWS clients on a background thread once the application is ready, so they are usually built
+ * before the first request needs them without delaying startup (startup.background-init, on by default).
+ */
+@Component
+public class AwsClientWarmup {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AwsClientWarmup.class);
+    private static final List<String> CLIENT_BEANS = List.of("mapper", "s3Client", "ruleChangeSqsClient");
+
+    private final BeanFactory beanFactory;
+    private final boolean enabled;
+
+    public AwsClientWarmup(BeanFactory beanFactory, @Value("${startup.background-init:true}") boolean enabled) {
+        this.beanFactory = beanFactory;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            for (String name : CLIENT_BEANS) {
+                long start = System.nanoTime();
+                try {
+                    beanFactory.getBean(name);
+                    LOGGER.info("Initialized " + name + " in " + (System.nanoTime() - start) / 1_000_000 + " ms.");
+                } catch (Exception e) {
+                    LOGGER.warn("Failed to initialize " + name + " in the background, it is created on first use.", e);
+                }
+            }
+        }, "aws-client-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+}
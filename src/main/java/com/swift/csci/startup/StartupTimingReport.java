@@ -0,0 +1,74 @@
+package com.swift.csci.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Logs how long startup took, from JVM start to ready. With -Dstartup.report=true the application records its
+ * startup steps and the report also lists the time per phase and the slowest bean creations.
+ */
+@Component
+public class StartupTimingReport {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StartupTimingReport.class);
+    private static final int SLOWEST_STEPS = 15;
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        long uptimeMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        LOGGER.info("Startup: ready " + uptimeMillis + " ms after JVM start (Spring context " + event.getTimeTaken().toMillis()
+                + " ms, application class data archive " + (isApplicationArchiveUsed() ? "on" : "off") + ").");
+
+        if (!(event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup)) {
+            return;
+        }
+        StartupTimeline timeline = startup.drainBufferedTimeline();
+        Map<String, Duration> byPhase = new HashMap<>();
+        for (StartupTimeline.TimelineEvent step : timeline.getEvents()) {
+            byPhase.merge(step.getStartupStep().getName(), step.getDuration(), Duration::plus);
+        }
+        StringBuilder report = new StringBuilder("Startup phases (total time per step name, nested steps included):");
+        byPhase.entrySet().stream()
+                .sorted(Map.Entry.<String, Duration>comparingByValue().reversed())
+                .limit(SLOWEST_STEPS)
+                .forEach(phase -> report.append("\n  ").append(phase.getValue().toMillis()).append(" ms  ").append(phase.getKey()));
+
+        List<StartupTimeline.TimelineEvent> beans = timeline.getEvents().stream()
+                .filter(step -> "spring.beans.instantiate".equals(step.getStartupStep().getName()))
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(SLOWEST_STEPS)
+                .toList();
+        report.append("\nSlowest bean creations (dependencies included):");
+        for (StartupTimeline.TimelineEvent bean : beans) {
+            report.append("\n  ").append(bean.getDuration().toMillis()).append(" ms  ").append(tag(bean.getStartupStep(), "beanName"));
+        }
+        LOGGER.info(report.toString());
+    }
+
+    private static String tag(StartupStep step, String key) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if (key.equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return step.getName();
+    }
+
+    // The JDK classes are always shared; this tells whether the AppCDS archive built with the image is in use
+    private static boolean isApplicationArchiveUsed() {
+        return System.getProperty("java.vm.info", "").contains("sharing")
+                && ManagementFactory.getRuntimeMXBean().getInputArguments().stream().anyMatch(arg -> arg.startsWith("-XX:SharedArchiveFile"));
+    }
+}
@@ -0,0 +1,38 @@
+package com.swift.csci.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stops the application once the context is refreshed, for the class data sharing training run of the Docker build
+ * (startup.exit-after-refresh=true): the classes loaded up to this point are archived when the JVM exits.
+ * <p>
+ * Always registered and the property read at runtime: with the fast-startup profile the bean definitions are fixed
+ * at build time, where a condition on the property would leave the bean out of the training run.
+ */
+@Component
+public class TrainingRunExit {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TrainingRunExit.class);
+
+    private final boolean exitAfterRefresh;
+
+    public TrainingRunExit(@Value("${startup.exit-after-refresh:false}") boolean exitAfterRefresh) {
+        this.exitAfterRefresh = exitAfterRefresh;
+    }
+
+    @EventListener
+    public void onRefreshed(ContextRefreshedEvent event) {
+        if (!exitAfterRefresh) {
+            return;
+        }
+        LOGGER.info("Training run complete, exiting.");
+        ApplicationContext context = event.getApplicationContext();
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+}
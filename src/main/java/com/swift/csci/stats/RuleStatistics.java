@@ -0,0 +1,208 @@
+package com.swift.csci.stats;
+
+import com.swift.csci.model.SuppressionData;
+import com.swift.csci.repository.DynamoDbRepository;
+import com.swift.csci.rulechange.RuleChangeEvent;
+import com.swift.csci.snapshot.RuleTableLoadedEvent;
+import com.swift.csci.sync.TableVersionTracker;
+import com.swift.csci.utils.DueDateUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Aggregate counters over the suppression rule table, built when the rule table cache is loaded at startup and then
+ * updated by every create, update and delete, so /stats does not depend on the table size.
+ * <p>
+ * Expiry depends on the day, so rules are counted per due date and expired / expiring counts are summed over
+ * the distinct due dates when the report is built. A periodic rescan rebuilds the counters and replaces them
+ * when they have drifted (e.g. after edits made outside the portal); a rescan is only compared when no portal
+ * write happened while it ran.
+ */
+@Component
+public class RuleStatistics {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RuleStatistics.class);
+    private static final int EXPIRING_SOON_DAYS = 7;
+
+    private final DynamoDbRepository dynamoDbRepository;
+    private final TableVersionTracker tableVersionTracker;
+
+    private Counters counters;
+    private Instant builtAt;
+    private Instant lastCheckAt;
+    private boolean lastCheckConsistent = true;
+    private long driftCorrections;
+
+    public RuleStatistics(DynamoDbRepository dynamoDbRepository, TableVersionTracker tableVersionTracker) {
+        this.dynamoDbRepository = dynamoDbRepository;
+        this.tableVersionTracker = tableVersionTracker;
+    }
+
+    @EventListener
+    public void onTableLoaded(RuleTableLoadedEvent event) {
+        Counters loaded = new Counters();
+        for (SuppressionData item : event.getItems()) {
+            loaded.add(item);
+        }
+        synchronized (this) {
+            if (!tableVersionTracker.unchangedSince(event.getTableVersion())) {
+                LOGGER.info("Rule table changed since it was loaded, statistics are left to the next consistency check.");
+                return;
+            }
+            if (counters == null) {
+                builtAt = Instant.now();
+            }
+            counters = loaded;
+            LOGGER.info("Built rule statistics over " + loaded.total + " rules.");
+        }
+    }
+
+    @Scheduled(initialDelayString = "${stats.rescan-millis:3600000}", fixedDelayString = "${stats.rescan-millis:3600000}")
+    public void checkConsistency() {
+        try {
+            if (!rescan()) {
+                LOGGER.info("Rule table changed during the statistics consistency check, skipping until the next one.");
+            }
+        } catch (Exception e) {
+            LOGGER.error("Rule statistics consistency check failed.", e);
+        }
+    }
+
+    @EventListener
+    public synchronized void onRuleChange(RuleChangeEvent event) {
+        if (counters == null) {
+            return;
+        }
+        if (event.getOldItem() != null) {
+            counters.remove(event.getOldItem());
+        }
+        if (event.getNewItem() != null) {
+            counters.add(event.getNewItem());
+        }
+    }
+
+    /**
+     * Returns empty until the counters have been built.
+     */
+    public synchronized Optional<RuleStatisticsReport> report() {
+        if (counters == null) {
+            return Optional.empty();
+        }
+        LocalDate today = DueDateUtils.todayUtc();
+        long expired = sum(counters.byDueDate.headMap(today, false));
+        long expiringSoon = sum(counters.byDueDate.subMap(today, true, today.plusDays(EXPIRING_SOON_DAYS), true));
+        return Optional.of(new RuleStatisticsReport(counters.total, counters.total - expired, expired, expiringSoon,
+                counters.withoutDueDate, new TreeMap<>(counters.byProduct), new TreeMap<>(counters.byFindingType),
+                new TreeMap<>(counters.bySerId), new TreeMap<>(counters.byAction), builtAt, lastCheckAt,
+                lastCheckConsistent, driftCorrections));
+    }
+
+    // Returns false when the scan is inconclusive because the table was written to while it ran
+    private boolean rescan() {
+        long version = tableVersionTracker.current();
+        Counters scanned = new Counters();
+        for (SuppressionData item : dynamoDbRepository.listItems()) {
+            scanned.add(item);
+        }
+        synchronized (this) {
+            if (!tableVersionTracker.unchangedSince(version)) {
+                return false;
+            }
+            Instant now = Instant.now();
+            if (counters == null) {
+                builtAt = now;
+                LOGGER.info("Built rule statistics over " + scanned.total + " rules.");
+            } else if (counters.equals(scanned)) {
+                lastCheckConsistent = true;
+            } else {
+                lastCheckConsistent = false;
+                driftCorrections++;
+                LOGGER.warn("Rule statistics drifted from the table (" + counters.total + " counted, " + scanned.total
+                        + " scanned), replacing them with the rescan.");
+            }
+            counters = scanned;
+            lastCheckAt = now;
+            return true;
+        }
+    }
+
+    private static long sum(Map<LocalDate, Long> counts) {
+        long sum = 0;
+        for (long count : counts.values()) {
+            sum += count;
+        }
+        return sum;
+    }
+
+    private static final class Counters {
+        private long total;
+        private long withoutDueDate;
+        private final Map<String, Long> byProduct = new HashMap<>();
+        private final Map<String, Long> byFindingType = new HashMap<>();
+        private final Map<String, Long> bySerId = new HashMap<>();
+        private final Map<String, Long> byAction = new HashMap<>();
+        private final TreeMap<LocalDate, Long> byDueDate = new TreeMap<>();
+
+        void add(SuppressionData item) {
+            update(item, 1);
+        }
+
+        void remove(SuppressionData item) {
+            update(item, -1);
+        }
+
+        private void update(SuppressionData item, long delta) {
+            total += delta;
+            increment(byProduct, label(item.getProductName()), delta);
+            increment(byFindingType, label(item.getFindingType()), delta);
+            increment(bySerId, label(item.getSerId()), delta);
+            increment(byAction, action(item), delta);
+            Optional<LocalDate> dueDate = DueDateUtils.parse(item.getDueDate());
+            if (dueDate.isPresent()) {
+                increment(byDueDate, dueDate.get(), delta);
+            } else {
+                withoutDueDate += delta;
+            }
+        }
+
+        // Same classification as the engine: a rule changes severity only when both severities are set
+        private static String action(SuppressionData item) {
+            return isBlank(item.getFromSeverity()) || isBlank(item.getToSeverity()) ? "suppress" : "severity_update";
+        }
+
+        private static String label(String value) {
+            return isBlank(value) ? "unspecified" : value.strip();
+        }
+
+        private static boolean isBlank(String value) {
+            return value == null || value.isBlank();
+        }
+
+        private static <K> void increment(Map<K, Long> counts, K key, long delta) {
+            // Keys dropping to zero are removed so incrementally maintained and rescanned counters compare equal
+            counts.merge(key, delta, (a, b) -> a + b == 0 ? null : a + b);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Counters other)) {
+                return false;
+            }
+            return total == other.total && withoutDueDate == other.withoutDueDate
+                    && byProduct.equals(other.byProduct) && byFindingType.equals(other.byFindingType)
+                    && bySerId.equals(other.bySerId) && byAction.equals(other.byAction)
+                    && byDueDate.equals(other.byDueDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(total, withoutDueDate, byProduct, byFindingType, bySerId, byAction, byDueDate);
+        }
+    }
+}
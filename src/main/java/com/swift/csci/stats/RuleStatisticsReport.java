@@ -0,0 +1,91 @@
+package com.swift.csci.stats;
+
+import java.time.Instant;
+import java.util.Map;
+
+public class RuleStatisticsReport {
+    private final long totalRules;
+    private final long activeRules;
+    private final long expiredRules;
+    private final long expiringWithinWeek;
+    private final long rulesWithoutDueDate;
+    private final Map<String, Long> byProduct;
+    private final Map<String, Long> byFindingType;
+    private final Map<String, Long> bySerId;
+    private final Map<String, Long> byAction;
+    private final Instant builtAt;
+    private final Instant lastConsistencyCheckAt;
+    private final boolean lastConsistencyCheckPassed;
+    private final long driftCorrections;
+
+    public RuleStatisticsReport(long totalRules, long activeRules, long expiredRules, long expiringWithinWeek, long rulesWithoutDueDate,
+                                Map<String, Long> byProduct, Map<String, Long> byFindingType, Map<String, Long> bySerId,
+                                Map<String, Long> byAction, Instant builtAt, Instant lastConsistencyCheckAt,
+                                boolean lastConsistencyCheckPassed, long driftCorrections) {
+        this.totalRules = totalRules;
+        this.activeRules = activeRules;
+        this.expiredRules = expiredRules;
+        this.expiringWithinWeek = expiringWithinWeek;
+        this.rulesWithoutDueDate = rulesWithoutDueDate;
+        this.byProduct = byProduct;
+        this.byFindingType = byFindingType;
+        this.bySerId = bySerId;
+        this.byAction = byAction;
+        this.builtAt = builtAt;
+        this.lastConsistencyCheckAt = lastConsistencyCheckAt;
+        this.lastConsistencyCheckPassed = lastConsistencyCheckPassed;
+        this.driftCorrections = driftCorrections;
+    }
+
+    public long getTotalRules() {
+        return totalRules;
+    }
+
+    public long getActiveRules() {
+        return activeRules;
+    }
+
+    public long getExpiredRules() {
+        return expiredRules;
+    }
+
+    public long getExpiringWithinWeek() {
+        return expiringWithinWeek;
+    }
+
+    public long getRulesWithoutDueDate() {
+        return rulesWithoutDueDate;
+    }
+
+    public Map<String, Long> getByProduct() {
+        return byProduct;
+    }
+
+    public Map<String, Long> getByFindingType() {
+        return byFindingType;
+    }
+
+    public Map<String, Long> getBySerId() {
+        return bySerId;
+    }
+
+    public Map<String, Long> getByAction() {
+        return byAction;
+    }
+
+    public String getBuiltAt() {
+        return builtAt.toString();
+    }
+
+    public String getLastConsistencyCheckAt() {
+        return lastConsistencyCheckAt == null ? null : lastConsistencyCheckAt.toString();
+    }
+
+    public boolean isLastConsistencyCheckPassed() {
+        return lastConsistencyCheckPassed;
+    }
+
+    public long getDriftCorrections() {
+        return driftCorrections;
+    }
+}
@@ -0,0 +1,14 @@
+package com.swift.csci.sync;
+
+import java.time.Duration;
+
+/**
+ * Named lease held by at most one portal instance at a time, for jobs that must not run on every instance.
+ */
+public interface ClusterLease {
+
+    // False when another instance holds the lease and it has not expired
+    boolean tryAcquire(String name, Duration duration);
+
+    void release(String name);
+}
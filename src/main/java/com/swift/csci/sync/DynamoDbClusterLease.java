@@ -0,0 +1,76 @@
+package com.swift.csci.sync;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.swift.csci.resilience.DynamoDbResilience;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Leases as items of the rule sync table (pk "lease", sk the lease name), taken with a conditional put that only
+ * succeeds when there is no lease or it has expired. An instance that dies holding a lease blocks the job until the
+ * lease expires; the table's TTL removes such items later.
+ */
+public class DynamoDbClusterLease implements ClusterLease {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DynamoDbClusterLease.class);
+    private static final String LEASE = "lease";
+
+    private final AmazonDynamoDB amazonDynamoDB;
+    private final DynamoDbResilience resilience;
+    private final String tableName;
+    private final String owner = UUID.randomUUID().toString();
+
+    public DynamoDbClusterLease(AmazonDynamoDB amazonDynamoDB, DynamoDbResilience resilience, String tableName) {
+        this.amazonDynamoDB = amazonDynamoDB;
+        this.resilience = resilience;
+        this.tableName = tableName;
+    }
+
+    @Override
+    public boolean tryAcquire(String name, Duration duration) {
+        long now = System.currentTimeMillis();
+        PutItemRequest request = new PutItemRequest()
+                .withTableName(tableName)
+                .withItem(Map.of(
+                        "pk", new AttributeValue(LEASE),
+                        "sk", new AttributeValue(name),
+                        "owner", new AttributeValue(owner),
+                        "lease_until", number(now + duration.toMillis()),
+                        "expires_at", number((now + duration.toMillis()) / 1000)))
+                .withConditionExpression("attribute_not_exists(pk) OR lease_until < :now")
+                .withExpressionAttributeValues(Map.of(":now", number(now)));
+        try {
+            resilience.run("acquireLease", () -> amazonDynamoDB.putItem(request));
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            LOGGER.info("Lease " + name + " is held by another instance.");
+            return false;
+        }
+    }
+
+    @Override
+    public void release(String name) {
+        DeleteItemRequest request = new DeleteItemRequest()
+                .withTableName(tableName)
+                .withKey(Map.of("pk", new AttributeValue(LEASE), "sk", new AttributeValue(name)))
+                .withConditionExpression("#owner = :owner")
+                .withExpressionAttributeNames(Map.of("#owner", "owner"))
+                .withExpressionAttributeValues(Map.of(":owner", new AttributeValue(owner)));
+        try {
+            resilience.run("releaseLease", () -> amazonDynamoDB.deleteItem(request));
+        } catch (ConditionalCheckFailedException e) {
+            LOGGER.warn("Lease " + name + " expired and was taken over before it was released.");
+        }
+    }
+
+    private static AttributeValue number(long value) {
+        return new AttributeValue().withN(Long.toString(value));
+    }
+}
@@ -0,0 +1,146 @@
+package com.swift.csci.sync;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.swift.csci.resilience.DynamoDbResilience;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Table version and delete tombstones in the rule sync table (pk, sk), shared by all portal instances.
+ * <p>
+ * The version is one counter item (pk "version", sk "table") advanced with a conditional update, so no two writes
+ * get the same version whichever instance they run on. history_from on the counter is the first version it issued:
+ * deletes before it are not known. Tombstones are items under pk "deletes", sorted by version, and expire through
+ * the table's TTL (expires_at) after the retention period.
+ */
+public class DynamoDbTableVersionStore implements TableVersionStore {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DynamoDbTableVersionStore.class);
+    private static final Map<String, AttributeValue> COUNTER_KEY = Map.of("pk", new AttributeValue("version"), "sk", new AttributeValue("table"));
+    private static final String DELETES = "deletes";
+    private static final String CURRENT = "current";
+    private static final String HISTORY_FROM = "history_from";
+    private static final int MAX_ATTEMPTS = 10;
+
+    private final AmazonDynamoDB amazonDynamoDB;
+    private final DynamoDbResilience resilience;
+    private final String tableName;
+    private final long deleteRetentionMillis;
+
+    public DynamoDbTableVersionStore(AmazonDynamoDB amazonDynamoDB, DynamoDbResilience resilience, String tableName, long deleteRetentionMillis) {
+        this.amazonDynamoDB = amazonDynamoDB;
+        this.resilience = resilience;
+        this.tableName = tableName;
+        this.deleteRetentionMillis = deleteRetentionMillis;
+    }
+
+    @Override
+    public long current() {
+        Map<String, AttributeValue> counter = readCounter();
+        if (counter == null || !counter.containsKey(CURRENT)) {
+            // First instance on a new table: the version and the delete history start now
+            return next(System.currentTimeMillis());
+        }
+        return Long.parseLong(counter.get(CURRENT).getN());
+    }
+
+    @Override
+    public long next(long atLeast) {
+        long version = atLeast;
+        for (int attempt = 1; ; attempt++) {
+            UpdateItemRequest request = new UpdateItemRequest()
+                    .withTableName(tableName)
+                    .withKey(COUNTER_KEY)
+                    .withUpdateExpression("SET #current = :version, #from = if_not_exists(#from, :version)")
+                    .withConditionExpression("attribute_not_exists(#current) OR #current < :version")
+                    .withExpressionAttributeNames(Map.of("#current", CURRENT, "#from", HISTORY_FROM))
+                    .withExpressionAttributeValues(Map.of(":version", number(version)));
+            try {
+                resilience.run("nextTableVersion", () -> amazonDynamoDB.updateItem(request));
+                return version;
+            } catch (ConditionalCheckFailedException e) {
+                // Another instance issued this version or a later one first
+                if (attempt == MAX_ATTEMPTS) {
+                    throw new IllegalStateException("No table version issued after " + attempt + " attempts.", e);
+                }
+                LOGGER.debug("Table version " + version + " already issued, retrying.");
+                version = Math.max(atLeast, current() + 1);
+            }
+        }
+    }
+
+    @Override
+    public void recordDelete(TableVersionTracker.Tombstone tombstone) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("pk", new AttributeValue(DELETES));
+        item.put("sk", new AttributeValue(sortKey(tombstone.getVersion()) + "#" + tombstone.getId() + "#" + tombstone.getSerId()));
+        item.put("version", number(tombstone.getVersion()));
+        item.put("id", new AttributeValue(tombstone.getId()));
+        if (tombstone.getSerId() != null) {
+            item.put("ser_id", new AttributeValue(tombstone.getSerId()));
+        }
+        item.put("expires_at", number((tombstone.getVersion() + deleteRetentionMillis) / 1000));
+        resilience.run("recordDelete", () -> amazonDynamoDB.putItem(new PutItemRequest(tableName, item)));
+    }
+
+    @Override
+    public Optional<List<TableVersionTracker.Tombstone>> deletedAfter(long after) {
+        long floor = Math.max(historyFrom(), System.currentTimeMillis() - deleteRetentionMillis);
+        if (after < floor) {
+            LOGGER.info("Version " + after + " is older than the oldest known delete version " + floor + ".");
+            return Optional.empty();
+        }
+        List<TableVersionTracker.Tombstone> deleted = new ArrayList<>();
+        Map<String, AttributeValue> startKey = null;
+        do {
+            QueryRequest request = new QueryRequest(tableName)
+                    .withKeyConditionExpression("pk = :deletes AND sk >= :from")
+                    .withExpressionAttributeValues(Map.of(":deletes", new AttributeValue(DELETES), ":from", new AttributeValue(sortKey(after + 1))))
+                    .withConsistentRead(true)
+                    .withExclusiveStartKey(startKey);
+            QueryResult result = resilience.call("deletedAfter", () -> amazonDynamoDB.query(request));
+            for (Map<String, AttributeValue> item : result.getItems()) {
+                AttributeValue serId = item.get("ser_id");
+                deleted.add(new TableVersionTracker.Tombstone(item.get("id").getS(), serId == null ? null : serId.getS(),
+                        Long.parseLong(item.get("version").getN())));
+            }
+            startKey = result.getLastEvaluatedKey();
+        } while (startKey != null && !startKey.isEmpty());
+        return Optional.of(deleted);
+    }
+
+    private long historyFrom() {
+        Map<String, AttributeValue> counter = readCounter();
+        if (counter == null || !counter.containsKey(HISTORY_FROM)) {
+            return current();
+        }
+        return Long.parseLong(counter.get(HISTORY_FROM).getN());
+    }
+
+    // Strongly consistent, a version read here is never older than one another instance already issued
+    private Map<String, AttributeValue> readCounter() {
+        GetItemRequest request = new GetItemRequest(tableName, COUNTER_KEY, true);
+        return resilience.call("getTableVersion", () -> amazonDynamoDB.getItem(request)).getItem();
+    }
+
+    // Zero-padded so that the string order of the sort keys is the version order
+    private static String sortKey(long version) {
+        return String.format("%020d", version);
+    }
+
+    private static AttributeValue number(long value) {
+        return new AttributeValue().withN(Long.toString(value));
+    }
+}
@@ -0,0 +1,28 @@
+package com.swift.csci.sync;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Leases in process memory, for a single portal instance.
+ */
+public class LocalClusterLease implements ClusterLease {
+    private final Map<String, Long> expiries = new HashMap<>();
+
+    @Override
+    public synchronized boolean tryAcquire(String name, Duration duration) {
+        long now = System.currentTimeMillis();
+        Long expiresAt = expiries.get(name);
+        if (expiresAt != null && expiresAt > now) {
+            return false;
+        }
+        expiries.put(name, now + duration.toMillis());
+        return true;
+    }
+
+    @Override
+    public synchronized void release(String name) {
+        expiries.remove(name);
+    }
+}
@@ -0,0 +1,58 @@
+package com.swift.csci.sync;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Table version and delete tombstones in process memory. Only correct with a single portal instance: writes and
+ * deletes of other instances are not seen.
+ */
+public class LocalTableVersionStore implements TableVersionStore {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocalTableVersionStore.class);
+    private static final int MAX_TOMBSTONES = 10_000;
+
+    private long issued = System.currentTimeMillis();
+    private final Deque<TableVersionTracker.Tombstone> tombstones = new ArrayDeque<>();
+    // Oldest version from which all deletes are known: the startup version, then the version of the last evicted tombstone
+    private long tombstoneFloor = issued;
+
+    @Override
+    public synchronized long current() {
+        return issued;
+    }
+
+    @Override
+    public synchronized long next(long atLeast) {
+        issued = Math.max(issued + 1, atLeast);
+        return issued;
+    }
+
+    @Override
+    public synchronized void recordDelete(TableVersionTracker.Tombstone tombstone) {
+        if (tombstones.size() == MAX_TOMBSTONES) {
+            tombstoneFloor = tombstones.removeFirst().getVersion();
+        }
+        tombstones.addLast(tombstone);
+    }
+
+    @Override
+    public synchronized Optional<List<TableVersionTracker.Tombstone>> deletedAfter(long after) {
+        if (after < tombstoneFloor) {
+            LOGGER.info("Version " + after + " is older than the oldest known delete version " + tombstoneFloor + ".");
+            return Optional.empty();
+        }
+        List<TableVersionTracker.Tombstone> deleted = new ArrayList<>();
+        for (TableVersionTracker.Tombstone tombstone : tombstones) {
+            if (tombstone.getVersion() > after) {
+                deleted.add(tombstone);
+            }
+        }
+        return Optional.of(deleted);
+    }
+}
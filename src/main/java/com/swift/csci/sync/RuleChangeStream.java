@@ -0,0 +1,185 @@
+package com.swift.csci.sync;
+
+import com.swift.csci.rulechange.RuleChangeEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes rule changes to open portal sessions as Server-Sent Events.
+ * <p>
+ * Connections are async (SseEmitter), so no request thread is held per client. Publishing a change only offers
+ * the event to each connection's bounded buffer; a small shared pool writes the buffers out, one drain at a time
+ * per connection. A connection whose buffer overflows is closed instead of slowing the others down: the browser
+ * reconnects and catches up with /changes. Heartbeat comments keep proxies from closing idle streams and detect
+ * closed connections.
+ */
+@Component
+public class RuleChangeStream {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RuleChangeStream.class);
+    private static final String EVENT_NAME = "rule-change";
+    // Columns of the landing page table, sent along so a live view can update its row without fetching it
+    private static final List<String> LIST_COLUMNS = List.of("finding_title", "product_name", "ser_link", "due_date");
+
+    private final TableVersionTracker tableVersionTracker;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders;
+    private final int bufferSize;
+    private final int maxConnections;
+    private final long connectionTimeoutMillis;
+
+    public RuleChangeStream(TableVersionTracker tableVersionTracker,
+                            @Value("${rule.change.stream.buffer-size:64}") int bufferSize,
+                            @Value("${rule.change.stream.max-connections:200}") int maxConnections,
+                            @Value("${rule.change.stream.timeout-millis:1800000}") long connectionTimeoutMillis,
+                            @Value("${rule.change.stream.sender-threads:4}") int senderThreads) {
+        this.tableVersionTracker = tableVersionTracker;
+        this.bufferSize = bufferSize;
+        this.maxConnections = maxConnections;
+        this.connectionTimeoutMillis = connectionTimeoutMillis;
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "rule-change-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Opens a stream for one browser session, or returns empty when the connection limit is reached.
+     */
+    public Optional<SseEmitter> subscribe() {
+        if (subscribers.size() >= maxConnections) {
+            LOGGER.warn("Rule change stream connection limit of " + maxConnections + " reached.");
+            return Optional.empty();
+        }
+        SseEmitter emitter = new SseEmitter(connectionTimeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, bufferSize);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        // The first event tells the client which version the stream starts from, to catch up with /changes?since
+        subscriber.offer(SseEmitter.event().name("connected").data(Map.of("version", tableVersionTracker.current()), MediaType.APPLICATION_JSON));
+        drain(subscriber);
+        LOGGER.info("Rule change stream opened, " + subscribers.size() + " open.");
+        return Optional.of(emitter);
+    }
+
+    @EventListener
+    public void onRuleChange(RuleChangeEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        long version = event.getTableVersion();
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("action", event.getAction());
+        data.put("id", event.getId());
+        data.put("ser_id", event.getSerId());
+        data.put("version", version);
+        data.put("time", event.getTime());
+        if (event.getNewRule() != null) {
+            for (String column : LIST_COLUMNS) {
+                data.put(column, event.getNewRule().get(column));
+            }
+        }
+        for (Subscriber subscriber : subscribers) {
+            // Event builders keep state while being written, so each connection gets its own
+            if (subscriber.offer(SseEmitter.event().name(EVENT_NAME).id(Long.toString(version)).data(data, MediaType.APPLICATION_JSON))) {
+                drain(subscriber);
+            } else {
+                LOGGER.warn("Rule change stream buffer full, closing the connection.");
+                close(subscriber);
+            }
+        }
+    }
+
+    @Scheduled(fixedRateString = "${rule.change.stream.heartbeat-millis:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            // A connection with a backlog is not idle and needs no heartbeat
+            if (subscriber.buffer.isEmpty() && subscriber.offer(SseEmitter.event().comment("heartbeat"))) {
+                drain(subscriber);
+            }
+        }
+    }
+
+    public int connectionCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Subscriber subscriber : subscribers) {
+            close(subscriber);
+        }
+        senders.shutdownNow();
+    }
+
+    private void drain(Subscriber subscriber) {
+        if (!subscriber.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            senders.execute(() -> {
+                try {
+                    SseEmitter.SseEventBuilder next;
+                    while ((next = subscriber.buffer.poll()) != null) {
+                        subscriber.emitter.send(next);
+                    }
+                } catch (Exception e) {
+                    LOGGER.info("Rule change stream closed by the client: " + e.getMessage());
+                    close(subscriber);
+                } finally {
+                    subscriber.draining.set(false);
+                }
+                // An event offered after the last poll but before draining was reset must not wait for the next one
+                if (!subscriber.buffer.isEmpty() && subscribers.contains(subscriber)) {
+                    drain(subscriber);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            subscriber.draining.set(false);
+        }
+    }
+
+    private void close(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriber.buffer.clear();
+            try {
+                subscriber.emitter.complete();
+            } catch (Exception e) {
+                LOGGER.debug("Rule change stream already closed: " + e.getMessage());
+            }
+        }
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, int bufferSize) {
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        private boolean offer(SseEmitter.SseEventBuilder event) {
+            return buffer.offer(event);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.swift.csci.sync;
+
+import java.util.List;
+
+/**
+ * Response of /changes: the items created or updated and the items deleted after the requested version.
+ * A client applies both, keeping for each key the entry with the highest version (last_modified for items),
+ * and polls again with {@code version}.
+ */
+public class TableChanges {
+    private final long version;
+    private final List<?> upserted;
+    private final List<TableVersionTracker.Tombstone> deleted;
+
+    public TableChanges(long version, List<?> upserted, List<TableVersionTracker.Tombstone> deleted) {
+        this.version = version;
+        this.upserted = upserted;
+        this.deleted = deleted;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<?> getUpserted() {
+        return upserted;
+    }
+
+    public List<TableVersionTracker.Tombstone> getDeleted() {
+        return deleted;
+    }
+}
@@ -0,0 +1,22 @@
+package com.swift.csci.sync;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Where the version of the suppression rule table and the tombstones of deleted items are kept: in a DynamoDB table
+ * shared by all portal instances, or in memory when a single instance runs.
+ */
+public interface TableVersionStore {
+
+    // Highest version issued so far by any instance
+    long current();
+
+    // Issues a version above every version issued so far and not lower than atLeast
+    long next(long atLeast);
+
+    void recordDelete(TableVersionTracker.Tombstone tombstone);
+
+    // Items deleted after the given version, or empty when deletes that old are no longer known
+    Optional<List<TableVersionTracker.Tombstone>> deletedAfter(long after);
+}
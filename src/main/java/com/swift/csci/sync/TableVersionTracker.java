@@ -0,0 +1,119 @@
+package com.swift.csci.sync;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * Monotonic version of the suppression rule table, bumped by every create, update and delete done through the portal.
+ * <p>
+ * Versions are derived from the clock (never lower than the previous version plus one), so they keep increasing
+ * across restarts and double as the last_modified time of an item in epoch milliseconds. They are issued by the
+ * {@link TableVersionStore}, which with several portal instances is the rule sync table, so every instance sees
+ * the writes and deletes of the others. A write takes its version with {@link #begin()} and reports completion
+ * with {@link #complete(long)}; {@link #current()} never moves past a write of this instance that is still in flight.
+ * <p>
+ * Writes running on another instance are not known here. A version is only taken as final once it is
+ * {@link #isSettled(long) settled}, i.e. older than the longest time a write may take, and changes are always
+ * read again from {@link #rereadFrom(long) settle-millis before} the version a client holds, so a client holding
+ * version N has seen every write up to N once N is settled.
+ * <p>
+ * Created and updated items carry their version in last_modified; deletes leave no item behind and are kept by
+ * the store as tombstones, so changes can only be reported back to the oldest version still covered by them.
+ */
+@Component
+public class TableVersionTracker {
+    private final TableVersionStore store;
+    private final long settleMillis;
+    private final TreeSet<Long> inFlight = new TreeSet<>();
+
+    // settle-millis has to be longer than a write with all its DynamoDB retries can take
+    public TableVersionTracker(TableVersionStore store, @Value("${rule.sync.settle-millis:30000}") long settleMillis) {
+        this.store = store;
+        this.settleMillis = settleMillis;
+    }
+
+    public long current() {
+        long issued = store.current();
+        synchronized (this) {
+            return inFlight.isEmpty() ? issued : Math.min(issued, inFlight.first() - 1);
+        }
+    }
+
+    public long begin() {
+        long version = store.next(System.currentTimeMillis());
+        synchronized (this) {
+            inFlight.add(version);
+        }
+        return version;
+    }
+
+    public synchronized void complete(long version) {
+        inFlight.remove(version);
+    }
+
+    // Version bump for a change that did not go through a portal write, e.g. found when reconciling with the table
+    public long advance() {
+        store.next(System.currentTimeMillis());
+        return current();
+    }
+
+    // True when no write started since current() returned the given version, i.e. a scan taken since then is exact
+    // as far as this instance knows (see isSettled for writes of other instances)
+    public boolean unchangedSince(long version) {
+        long issued = store.current();
+        synchronized (this) {
+            return inFlight.isEmpty() && issued == version;
+        }
+    }
+
+    // True when every write up to the given version, on any instance, has finished
+    public boolean isSettled(long version) {
+        return System.currentTimeMillis() - version >= settleMillis;
+    }
+
+    // Version from which changes are read for a client holding the given version, covering writes that were still
+    // in flight on another instance when the client got it; the client gets some changes twice
+    public long rereadFrom(long since) {
+        return since - settleMillis;
+    }
+
+    public void recordDelete(String id, String serId, long version) {
+        store.recordDelete(new Tombstone(id, serId, version));
+    }
+
+    /**
+     * Items deleted after {@link #rereadFrom(long)} the given version, or empty when deletes that old are no longer
+     * known (the client then has to reload the full list).
+     */
+    public Optional<List<Tombstone>> deletedSince(long since) {
+        return store.deletedAfter(rereadFrom(since));
+    }
+
+    public static class Tombstone {
+        private final String id;
+        private final String serId;
+        private final long version;
+
+        public Tombstone(String id, String serId, long version) {
+            this.id = id;
+            this.serId = serId;
+            this.version = version;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getSerId() {
+            return serId;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+    }
+}
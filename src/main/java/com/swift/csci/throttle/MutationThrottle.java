@@ -0,0 +1,142 @@
+package com.swift.csci.throttle;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admission control for the mutating endpoints (/createItem, /updateItem, /deleteItem).
+ * <p>
+ * Every principal has a token bucket: a steady rate of writes with a burst allowance, so editing a few rules by
+ * hand is never limited but a script looping over the endpoints is. On top of that a bulkhead caps the number of
+ * writes in progress across all users, so writes (each several synchronous DynamoDB and S3 round trips) can never
+ * take more than a few request threads away from the read endpoints.
+ * <p>
+ * Both are lock-free: a bucket is a single "theoretical arrival time" updated by compare-and-set (the generic
+ * cell rate algorithm), the bulkhead an atomic counter. Nothing waits; a request that is not admitted is rejected
+ * with the time after which a retry will be admitted.
+ */
+@Component
+public class MutationThrottle {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MutationThrottle.class);
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejectedByRate = new LongAdder();
+    private final LongAdder rejectedByConcurrency = new LongAdder();
+    private final AtomicLong lastReportedRejections = new AtomicLong();
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final int maxConcurrent;
+    private final double ratePerSecond;
+    private final int burst;
+
+    public MutationThrottle(@Value("${throttle.mutations.rate-per-second:1}") double ratePerSecond,
+                            @Value("${throttle.mutations.burst:20}") int burst,
+                            @Value("${throttle.mutations.max-concurrent:8}") int maxConcurrent) {
+        if (ratePerSecond <= 0 || burst < 1 || maxConcurrent < 1) {
+            throw new IllegalArgumentException("Mutation throttle needs a positive rate, burst and concurrency limit.");
+        }
+        this.ratePerSecond = ratePerSecond;
+        this.burst = burst;
+        this.maxConcurrent = maxConcurrent;
+        this.emissionIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        this.burstToleranceNanos = emissionIntervalNanos * (burst - 1);
+    }
+
+    /**
+     * Admits a write by the given principal, or rejects it. An admitted write must release its permit when done.
+     */
+    public Decision tryAcquire(String principal) {
+        long now = System.nanoTime();
+        long waitNanos = buckets.computeIfAbsent(principal, p -> new TokenBucket(now)).tryTake(now);
+        if (waitNanos > 0) {
+            rejectedByRate.increment();
+            return Decision.rejected(waitNanos, "rate");
+        }
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= maxConcurrent) {
+                rejectedByConcurrency.increment();
+                // The token taken above is not refunded: a client hitting a full bulkhead is retrying anyway
+                return Decision.rejected(TimeUnit.SECONDS.toNanos(1), "concurrency");
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        peakInFlight.accumulateAndGet(current + 1, Math::max);
+        admitted.increment();
+        return Decision.ADMITTED;
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public MutationThrottleReport report() {
+        return new MutationThrottleReport(ratePerSecond, burst, maxConcurrent, admitted.sum(), rejectedByRate.sum(),
+                rejectedByConcurrency.sum(), inFlight.get(), peakInFlight.get(), buckets.size(), Instant.now());
+    }
+
+    // A bucket whose arrival time has passed is full again and behaves exactly like a new one, so it can go
+    @Scheduled(fixedRateString = "${throttle.mutations.cleanup-millis:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+
+        long rejections = rejectedByRate.sum() + rejectedByConcurrency.sum();
+        long previous = lastReportedRejections.getAndSet(rejections);
+        if (rejections > previous) {
+            LOGGER.warn("Rejected " + (rejections - previous) + " create/update/delete requests over the last interval ("
+                    + rejectedByRate.sum() + " by rate, " + rejectedByConcurrency.sum() + " by concurrency since start).");
+        }
+    }
+
+    private final class TokenBucket {
+        // The time at which the bucket is full again; each write pushes it one emission interval further
+        private final AtomicLong theoreticalArrival;
+
+        private TokenBucket(long now) {
+            this.theoreticalArrival = new AtomicLong(now);
+        }
+
+        // Returns 0 when a token was taken, otherwise how long until one is available
+        private long tryTake(long now) {
+            while (true) {
+                long arrival = theoreticalArrival.get();
+                long start = arrival - now > 0 ? arrival : now;
+                long wait = start - burstToleranceNanos - now;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (theoreticalArrival.compareAndSet(arrival, start + emissionIntervalNanos)) {
+                    return 0;
+                }
+            }
+        }
+
+        private boolean isFull(long now) {
+            return theoreticalArrival.get() - now <= 0;
+        }
+    }
+
+    public record Decision(boolean admitted, long retryAfterSeconds, String reason) {
+        static final Decision ADMITTED = new Decision(true, 0, null);
+
+        static Decision rejected(long waitNanos, String reason) {
+            // Retry-After has a resolution of seconds; rounding up makes sure the retry is admitted
+            return new Decision(false, Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1)), reason);
+        }
+    }
+}
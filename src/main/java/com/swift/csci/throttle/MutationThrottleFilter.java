@@ -0,0 +1,72 @@
+package com.swift.csci.throttle;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Applies the MutationThrottle to the endpoints guarded by the admin entitlement in SecurityConfig.
+ * Registered as a plain servlet filter, it runs after the Spring Security filter chain, so the principal is known
+ * and unauthorized requests are rejected before they take a token.
+ */
+@Component
+public class MutationThrottleFilter extends OncePerRequestFilter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MutationThrottleFilter.class);
+    private static final Set<String> MUTATING_PATHS = Set.of("/createItem", "/updateItem", "/deleteItem", "/import", "/expirySweep");
+
+    private final MutationThrottle mutationThrottle;
+
+    public MutationThrottleFilter(MutationThrottle mutationThrottle) {
+        this.mutationThrottle = mutationThrottle;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !MUTATING_PATHS.contains(request.getServletPath()) || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+        String principal = principal(request);
+        MutationThrottle.Decision decision = mutationThrottle.tryAcquire(principal);
+        if (!decision.admitted()) {
+            LOGGER.warn("Rejected " + request.getServletPath() + " by " + principal + " (" + decision.reason() + " limit), retry after "
+                    + decision.retryAfterSeconds() + " s.");
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(decision.retryAfterSeconds()));
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write("Too many changes, please retry in " + decision.retryAfterSeconds() + " seconds.");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            mutationThrottle.release();
+        }
+    }
+
+    // Without a login (local profile) all requests share the anonymous user, so they are told apart by address
+    private static String principal(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken || authentication.getName() == null) {
+            return "address:" + request.getRemoteAddr();
+        }
+        return authentication.getName();
+    }
+}
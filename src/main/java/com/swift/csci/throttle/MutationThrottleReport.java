@@ -0,0 +1,70 @@
+package com.swift.csci.throttle;
+
+import java.time.Instant;
+
+public class MutationThrottleReport {
+    private final double ratePerSecond;
+    private final int burst;
+    private final int maxConcurrent;
+    private final long admitted;
+    private final long rejectedByRate;
+    private final long rejectedByConcurrency;
+    private final int inFlight;
+    private final int peakInFlight;
+    private final int trackedPrincipals;
+    private final Instant reportedAt;
+
+    public MutationThrottleReport(double ratePerSecond, int burst, int maxConcurrent, long admitted, long rejectedByRate,
+                                  long rejectedByConcurrency, int inFlight, int peakInFlight, int trackedPrincipals, Instant reportedAt) {
+        this.ratePerSecond = ratePerSecond;
+        this.burst = burst;
+        this.maxConcurrent = maxConcurrent;
+        this.admitted = admitted;
+        this.rejectedByRate = rejectedByRate;
+        this.rejectedByConcurrency = rejectedByConcurrency;
+        this.inFlight = inFlight;
+        this.peakInFlight = peakInFlight;
+        this.trackedPrincipals = trackedPrincipals;
+        this.reportedAt = reportedAt;
+    }
+
+    public double getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public long getAdmitted() {
+        return admitted;
+    }
+
+    public long getRejectedByRate() {
+        return rejectedByRate;
+    }
+
+    public long getRejectedByConcurrency() {
+        return rejectedByConcurrency;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public int getPeakInFlight() {
+        return peakInFlight;
+    }
+
+    public int getTrackedPrincipals() {
+        return trackedPrincipals;
+    }
+
+    public Instant getReportedAt() {
+        return reportedAt;
+    }
+}
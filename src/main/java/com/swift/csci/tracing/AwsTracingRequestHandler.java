@@ -0,0 +1,60 @@
+package com.swift.csci.tracing;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.Request;
+import com.amazonaws.Response;
+import com.amazonaws.handlers.HandlerContextKey;
+import com.amazonaws.handlers.RequestHandler2;
+import org.springframework.stereotype.Component;
+
+/**
+ * Opens a client span around every call of the AWS clients it is registered with (DynamoDB, S3), named after the
+ * service and operation, e.g. DynamoDB.GetItem. The span covers the HTTP exchange only, from after the request is
+ * marshalled to before the response is unmarshalled. A call made outside of a traced request is only counted in
+ * the latency histograms.
+ */
+@Component
+public class AwsTracingRequestHandler extends RequestHandler2 {
+    private static final HandlerContextKey<Span> SPAN = new HandlerContextKey<>("TracingSpan");
+
+    private final Tracer tracer;
+
+    public AwsTracingRequestHandler(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public void beforeRequest(Request<?> request) {
+        String service = request.getHandlerContext(HandlerContextKey.SERVICE_ID);
+        String operation = request.getHandlerContext(HandlerContextKey.OPERATION_NAME);
+        Span span = tracer.startClient((service == null ? request.getServiceName() : service) + "." + operation);
+        span.setAttribute("rpc.system", "aws-api")
+                .setAttribute("rpc.service", service)
+                .setAttribute("rpc.method", operation);
+        request.addHandlerContext(SPAN, span);
+    }
+
+    @Override
+    public void afterResponse(Request<?> request, Response<?> response) {
+        Span span = request.getHandlerContext(SPAN);
+        if (span != null) {
+            if (response != null && response.getHttpResponse() != null) {
+                span.setAttribute("http.response.status_code", response.getHttpResponse().getStatusCode());
+            }
+            span.close();
+        }
+    }
+
+    @Override
+    public void afterError(Request<?> request, Response<?> response, Exception e) {
+        Span span = request.getHandlerContext(SPAN);
+        if (span != null) {
+            if (e instanceof AmazonServiceException serviceException) {
+                span.setAttribute("aws.error_code", serviceException.getErrorCode())
+                        .setAttribute("http.response.status_code", serviceException.getStatusCode());
+            }
+            span.setError(e);
+            span.close();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.swift.csci.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Writes spans and phase histograms as OTLP/JSON (the JSON encoding of the OpenTelemetry ExportTraceServiceRequest
+ * and ExportMetricsServiceRequest), to a local directory as one request per line (the layout of the collector's
+ * file exporter) and/or to an OTLP/HTTP endpoint such as a collector at http://localhost:4318. With neither
+ * configured, tracing only keeps the in-memory histograms.
+ */
+@Component
+public class OtlpExporter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(OtlpExporter.class);
+    private static final String SCOPE = "com.swift.csci.tracing";
+
+    private final ObjectMapper objectMapper;
+    private final String directory;
+    private final String endpoint;
+    private final String serviceName;
+    private final HttpClient httpClient;
+
+    public OtlpExporter(ObjectMapper objectMapper,
+                        @Value("${tracing.export.directory:}") String directory,
+                        @Value("${tracing.export.otlp-endpoint:}") String endpoint,
+                        @Value("${tracing.service-name:csci-portal}") String serviceName) {
+        this.objectMapper = objectMapper;
+        this.directory = directory;
+        this.endpoint = endpoint.endsWith("/") ? endpoint.substring(0, endpoint.length() - 1) : endpoint;
+        this.serviceName = serviceName;
+        this.httpClient = this.endpoint.isEmpty() ? null : HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    }
+
+    boolean isConfigured() {
+        return !directory.isEmpty() || !endpoint.isEmpty();
+    }
+
+    void exportSpans(List<Span> spans) throws IOException {
+        List<Map<String, Object>> otlpSpans = new ArrayList<>(spans.size());
+        for (Span span : spans) {
+            Map<String, Object> otlpSpan = new LinkedHashMap<>();
+            otlpSpan.put("traceId", span.getTrace().traceId);
+            otlpSpan.put("spanId", span.getSpanId());
+            if (span.getParent() != null) {
+                otlpSpan.put("parentSpanId", span.getParent().getSpanId());
+            }
+            otlpSpan.put("name", span.getName());
+            otlpSpan.put("kind", span.getKind());
+            // 64 bit integers are strings in OTLP/JSON
+            otlpSpan.put("startTimeUnixNano", Long.toString(span.getStartEpochNanos()));
+            otlpSpan.put("endTimeUnixNano", Long.toString(span.getStartEpochNanos() + span.getDurationNanos()));
+            otlpSpan.put("attributes", attributes(span.attributes()));
+            otlpSpan.put("status", span.getError() == null ? Map.of() : Map.of("code", 2, "message", span.getError()));
+            otlpSpans.add(otlpSpan);
+        }
+        Map<String, Object> request = Map.of("resourceSpans", List.of(Map.of(
+                "resource", resource(),
+                "scopeSpans", List.of(Map.of("scope", Map.of("name", SCOPE), "spans", otlpSpans)))));
+        write("traces", request);
+    }
+
+    void exportHistograms(Map<String, PhaseHistogram.Snapshot> histograms, long nowEpochNanos) throws IOException {
+        List<Map<String, Object>> dataPoints = new ArrayList<>(histograms.size());
+        histograms.forEach((name, snapshot) -> {
+            List<String> bucketCounts = new ArrayList<>(snapshot.bucketCounts().length);
+            for (long count : snapshot.bucketCounts()) {
+                bucketCounts.add(Long.toString(count));
+            }
+            Map<String, Object> dataPoint = new LinkedHashMap<>();
+            dataPoint.put("attributes", attributes(Map.of("phase", name)));
+            dataPoint.put("startTimeUnixNano", Long.toString(snapshot.startEpochNanos()));
+            dataPoint.put("timeUnixNano", Long.toString(nowEpochNanos));
+            dataPoint.put("count", Long.toString(snapshot.count()));
+            dataPoint.put("sum", snapshot.sumMillis());
+            dataPoint.put("bucketCounts", bucketCounts);
+            dataPoint.put("explicitBounds", PhaseHistogram.BOUNDS_MILLIS);
+            dataPoint.put("min", snapshot.minMillis());
+            dataPoint.put("max", snapshot.maxMillis());
+            dataPoints.add(dataPoint);
+        });
+        // Aggregation temporality 2 is cumulative: every export holds the counts since startup
+        Map<String, Object> metric = Map.of("name", "csci.phase.duration", "unit", "ms",
+                "description", "Duration of request phases and AWS calls, by span name",
+                "histogram", Map.of("aggregationTemporality", 2, "dataPoints", dataPoints));
+        Map<String, Object> request = Map.of("resourceMetrics", List.of(Map.of(
+                "resource", resource(),
+                "scopeMetrics", List.of(Map.of("scope", Map.of("name", SCOPE), "metrics", List.of(metric))))));
+        write("metrics", request);
+    }
+
+    private void write(String signal, Map<String, Object> request) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(request);
+        if (!directory.isEmpty()) {
+            Path file = Path.of(directory, signal + "-" + LocalDate.now(ZoneOffset.UTC) + ".jsonl");
+            Files.createDirectories(file.getParent());
+            byte[] line = Arrays.copyOf(json, json.length + 1);
+            line[json.length] = '\n';
+            Files.write(file, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        if (httpClient != null) {
+            HttpRequest post = HttpRequest.newBuilder(URI.create(endpoint + "/v1/" + signal))
+                    .timeout(Duration.ofSeconds(10))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(json))
+                    .build();
+            try {
+                HttpResponse<String> response = httpClient.send(post, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() / 100 != 2) {
+                    LOGGER.warn("OTLP endpoint answered " + response.statusCode() + " to " + signal + ": " + response.body());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while exporting " + signal + ".", e);
+            }
+        }
+    }
+
+    private Map<String, Object> resource() {
+        return Map.of("attributes", attributes(Map.of("service.name", serviceName)));
+    }
+
+    private static List<Map<String, Object>> attributes(Map<String, Object> attributes) {
+        List<Map<String, Object>> otlpAttributes = new ArrayList<>(attributes.size());
+        attributes.forEach((key, value) -> {
+            Map<String, Object> otlpValue;
+            if (value instanceof Boolean bool) {
+                otlpValue = Map.of("boolValue", bool);
+            } else if (value instanceof Integer || value instanceof Long) {
+                otlpValue = Map.of("intValue", value.toString());
+            } else if (value instanceof Number number) {
+                otlpValue = Map.of("doubleValue", number.doubleValue());
+            } else {
+                otlpValue = Map.of("stringValue", value.toString());
+            }
+            otlpAttributes.add(Map.of("key", key, "value", otlpValue));
+        });
+        return otlpAttributes;
+    }
+}
@@ -0,0 +1,73 @@
+package com.swift.csci.tracing;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cumulative latency histogram of one span name with fixed bucket boundaries, the same shape as an OTLP explicit
+ * bucket histogram. The lower boundaries are finer than the OpenTelemetry defaults because validation phases take
+ * well under a millisecond. Recording is lock-free.
+ */
+class PhaseHistogram {
+    static final double[] BOUNDS_MILLIS = {0.1, 0.25, 0.5, 1, 2.5, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+    private static final long[] BOUNDS_NANOS = new long[BOUNDS_MILLIS.length];
+
+    static {
+        for (int i = 0; i < BOUNDS_MILLIS.length; i++) {
+            BOUNDS_NANOS[i] = (long) (BOUNDS_MILLIS[i] * TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BOUNDS_MILLIS.length + 1);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+    private final AtomicLong minNanos = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final long startEpochNanos = Tracer.epochNanos();
+
+    void record(long nanos) {
+        int bucket = 0;
+        while (bucket < BOUNDS_NANOS.length && nanos > BOUNDS_NANOS[bucket]) {
+            bucket++;
+        }
+        buckets.incrementAndGet(bucket);
+        count.increment();
+        sumNanos.add(nanos);
+        minNanos.accumulateAndGet(nanos, Math::min);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    Snapshot snapshot() {
+        long[] counts = new long[buckets.length()];
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        return new Snapshot(startEpochNanos, total, sumNanos.sum() / 1e6, total == 0 ? 0 : minNanos.get() / 1e6, maxNanos.get() / 1e6, counts);
+    }
+
+    record Snapshot(long startEpochNanos, long count, double sumMillis, double minMillis, double maxMillis, long[] bucketCounts) {
+
+        // Interpolated within the bucket holding the percentile, so only as precise as the bucket boundaries
+        double percentileMillis(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            double rank = percentile * count;
+            long seen = 0;
+            for (int i = 0; i < bucketCounts.length; i++) {
+                if (bucketCounts[i] > 0 && seen + bucketCounts[i] >= rank) {
+                    double lower = i == 0 ? minMillis : BOUNDS_MILLIS[i - 1];
+                    double upper = i == BOUNDS_MILLIS.length ? maxMillis : Math.min(BOUNDS_MILLIS[i], maxMillis);
+                    double value = lower + (upper - lower) * (rank - seen) / bucketCounts[i];
+                    return Math.max(minMillis, Math.min(maxMillis, value));
+                }
+                seen += bucketCounts[i];
+            }
+            return maxMillis;
+        }
+    }
+}
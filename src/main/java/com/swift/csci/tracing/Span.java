@@ -0,0 +1,144 @@
+package com.swift.csci.tracing;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One timed phase of a request. Spans are opened with Tracer.start (or by the filter and the AWS client handler)
+ * and closed with try-with-resources; closing records the duration in the phase histogram and, when the whole
+ * trace is kept, hands the span to the exporter with the rest of its trace.
+ */
+public class Span implements AutoCloseable {
+    // OTLP span kinds
+    static final int KIND_INTERNAL = 1;
+    static final int KIND_SERVER = 2;
+    static final int KIND_CLIENT = 3;
+
+    private final Tracer tracer;
+    private final Trace trace;
+    private final Span parent;
+    private final String spanId;
+    private final String name;
+    private final int kind;
+    private final long startEpochNanos;
+    private final long startNanos;
+    private final Map<String, Object> attributes = new LinkedHashMap<>();
+    private final boolean current;
+    private long durationNanos = -1;
+    private String error;
+
+    Span(Tracer tracer, Trace trace, Span parent, String name, int kind, boolean current) {
+        this.tracer = tracer;
+        this.trace = trace;
+        this.parent = parent;
+        this.spanId = Tracer.randomHex(8);
+        this.name = name;
+        this.kind = kind;
+        this.startEpochNanos = Tracer.epochNanos();
+        this.startNanos = System.nanoTime();
+        this.current = current;
+    }
+
+    public Span setAttribute(String key, Object value) {
+        if (value != null) {
+            synchronized (attributes) {
+                attributes.put(key, value);
+            }
+        }
+        return this;
+    }
+
+    public void setError(Throwable e) {
+        this.error = e.getClass().getSimpleName() + (e.getMessage() == null ? "" : ": " + e.getMessage());
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public String getTraceparent() {
+        return "00-" + trace.traceId + "-" + spanId + "-" + (trace.sampled ? "01" : "00");
+    }
+
+    @Override
+    public void close() {
+        if (durationNanos >= 0) {
+            return;
+        }
+        durationNanos = System.nanoTime() - startNanos;
+        tracer.end(this);
+    }
+
+    Trace getTrace() {
+        return trace;
+    }
+
+    Span getParent() {
+        return parent;
+    }
+
+    String getSpanId() {
+        return spanId;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    int getKind() {
+        return kind;
+    }
+
+    long getStartEpochNanos() {
+        return startEpochNanos;
+    }
+
+    long getDurationNanos() {
+        return durationNanos;
+    }
+
+    String getError() {
+        return error;
+    }
+
+    boolean isCurrent() {
+        return current;
+    }
+
+    boolean isRoot() {
+        return parent == null;
+    }
+
+    Map<String, Object> attributes() {
+        synchronized (attributes) {
+            return new LinkedHashMap<>(attributes);
+        }
+    }
+
+    // The spans of one request; a trace is kept or dropped as a whole when its root span ends
+    static final class Trace {
+        final String traceId;
+        // Sampled by the caller (traceparent) or by the sample ratio; slow and failed traces are kept regardless
+        final boolean sampled;
+        private final List<Span> finished = new ArrayList<>();
+        private boolean ended;
+
+        Trace(String traceId, boolean sampled) {
+            this.traceId = traceId;
+            this.sampled = sampled;
+        }
+
+        synchronized void finished(Span span, int maxSpans) {
+            if (!ended && finished.size() < maxSpans) {
+                finished.add(span);
+            }
+        }
+
+        synchronized List<Span> end() {
+            ended = true;
+            return finished;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.swift.csci.tracing;
+
+import java.time.Instant;
+import java.util.List;
+
+public class TraceStatsReport {
+    private final boolean exporting;
+    private final double sampleRatio;
+    private final long slowThresholdMillis;
+    private final long exportedTraces;
+    private final long droppedTraces;
+    private final List<Phase> phases;
+    private final Instant generatedAt;
+
+    public TraceStatsReport(boolean exporting, double sampleRatio, long slowThresholdMillis, long exportedTraces, long droppedTraces,
+                            List<Phase> phases, Instant generatedAt) {
+        this.exporting = exporting;
+        this.sampleRatio = sampleRatio;
+        this.slowThresholdMillis = slowThresholdMillis;
+        this.exportedTraces = exportedTraces;
+        this.droppedTraces = droppedTraces;
+        this.phases = phases;
+        this.generatedAt = generatedAt;
+    }
+
+    // False when no export directory or OTLP endpoint is configured; the histograms are kept either way
+    public boolean isExporting() {
+        return exporting;
+    }
+
+    public double getSampleRatio() {
+        return sampleRatio;
+    }
+
+    public long getSlowThresholdMillis() {
+        return slowThresholdMillis;
+    }
+
+    public long getExportedTraces() {
+        return exportedTraces;
+    }
+
+    // Traces kept but not exported because the export queue was full
+    public long getDroppedTraces() {
+        return droppedTraces;
+    }
+
+    public List<Phase> getPhases() {
+        return phases;
+    }
+
+    public Instant getGeneratedAt() {
+        return generatedAt;
+    }
+
+    // Latency of one span name since startup; percentiles are interpolated within the histogram buckets
+    public static class Phase {
+        private final String name;
+        private final long count;
+        private final double meanMillis;
+        private final double p50Millis;
+        private final double p95Millis;
+        private final double p99Millis;
+        private final double maxMillis;
+        private final double[] bucketBoundsMillis;
+        private final long[] bucketCounts;
+
+        public Phase(String name, long count, double meanMillis, double p50Millis, double p95Millis, double p99Millis, double maxMillis,
+                     double[] bucketBoundsMillis, long[] bucketCounts) {
+            this.name = name;
+            this.count = count;
+            this.meanMillis = meanMillis;
+            this.p50Millis = p50Millis;
+            this.p95Millis = p95Millis;
+            this.p99Millis = p99Millis;
+            this.maxMillis = maxMillis;
+            this.bucketBoundsMillis = bucketBoundsMillis;
+            this.bucketCounts = bucketCounts;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getMeanMillis() {
+            return meanMillis;
+        }
+
+        public double getP50Millis() {
+            return p50Millis;
+        }
+
+        public double getP95Millis() {
+            return p95Millis;
+        }
+
+        public double getP99Millis() {
+            return p99Millis;
+        }
+
+        public double getMaxMillis() {
+            return maxMillis;
+        }
+
+        // Upper bounds of all buckets but the last, which holds everything slower
+        public double[] getBucketBoundsMillis() {
+            return bucketBoundsMillis;
+        }
+
+        public long[] getBucketCounts() {
+            return bucketCounts;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.swift.csci.tracing;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Request tracing: the servlet filter opens a span per request, the controller a child span per phase
+ * (validation, pre-read, write, audit diff, audit publish) and the AWS client handler a child span per DynamoDB
+ * and S3 call, so the time of a slow request can be attributed to a phase and to the calls made in it.
+ * <p>
+ * Every span's duration goes into a latency histogram per span name, served by /traceStats. Whole traces are kept
+ * when sampled (tracing.sample-ratio, or by the caller's traceparent header), when slower than
+ * tracing.slow-threshold-millis or when they failed, so the tail is always exported even at a low sample ratio.
+ * Kept traces and the histograms are written by OtlpExporter in the OpenTelemetry OTLP/JSON format.
+ * <p>
+ * The current span is held per thread; work handed to another thread carries it along with wrap.
+ */
+@Component
+public class Tracer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Tracer.class);
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+    // Epoch time of System.nanoTime() 0, so span times are wall clock at nanosecond resolution
+    private static final long EPOCH_OFFSET_NANOS = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis()) - System.nanoTime();
+    private static final int MAX_SPANS_PER_TRACE = 256;
+    // Span names include request paths; a scan for random paths must not grow the histograms without bound
+    private static final int MAX_HISTOGRAMS = 256;
+
+    private final Map<String, PhaseHistogram> histograms = new ConcurrentHashMap<>();
+    private final Queue<List<Span>> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingSpans = new AtomicInteger();
+    private final LongAdder exportedTraces = new LongAdder();
+    private final LongAdder droppedTraces = new LongAdder();
+    private final OtlpExporter exporter;
+    private final boolean enabled;
+    private final double sampleRatio;
+    private final long slowThresholdNanos;
+    private final int maxQueuedSpans;
+
+    public Tracer(OtlpExporter exporter,
+                  @Value("${tracing.enabled:true}") boolean enabled,
+                  @Value("${tracing.sample-ratio:0.05}") double sampleRatio,
+                  @Value("${tracing.slow-threshold-millis:1000}") long slowThresholdMillis,
+                  @Value("${tracing.max-queued-spans:20000}") int maxQueuedSpans) {
+        this.exporter = exporter;
+        this.enabled = enabled && exporter.isConfigured();
+        this.sampleRatio = sampleRatio;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+        this.maxQueuedSpans = maxQueuedSpans;
+    }
+
+    /**
+     * Opens the root span of a request, continuing the caller's trace when a valid W3C traceparent is given.
+     */
+    public Span startRequest(String name, String traceparent) {
+        Span.Trace trace = null;
+        if (enabled) {
+            trace = parseTraceparent(traceparent);
+            if (trace == null) {
+                trace = new Span.Trace(randomHex(16), ThreadLocalRandom.current().nextDouble() < sampleRatio);
+            }
+        }
+        Span span = new Span(this, trace, null, name, Span.KIND_SERVER, true);
+        CURRENT.set(span);
+        return span;
+    }
+
+    /**
+     * Opens a span for a phase as a child of the current span (a new trace when there is none), and makes it the
+     * current span until it is closed.
+     */
+    public Span start(String name) {
+        Span parent = CURRENT.get();
+        Span.Trace trace = parent != null ? parent.getTrace() : enabled ? new Span.Trace(randomHex(16), false) : null;
+        Span span = new Span(this, trace, parent, name, Span.KIND_INTERNAL, true);
+        CURRENT.set(span);
+        return span;
+    }
+
+    /**
+     * Runs a phase in its own span, as {@link #start(String)}, and returns its result. A phase that throws marks
+     * its span as failed.
+     */
+    public <T> T phase(String name, Supplier<T> phase) {
+        Span span = start(name);
+        try {
+            return phase.get();
+        } catch (RuntimeException | Error e) {
+            span.setError(e);
+            throw e;
+        } finally {
+            span.close();
+        }
+    }
+
+    public void phase(String name, Runnable phase) {
+        phase(name, () -> {
+            phase.run();
+            return null;
+        });
+    }
+
+    // A call to another service; it never has children, so it does not become the current span
+    Span startClient(String name) {
+        Span parent = CURRENT.get();
+        return new Span(this, parent == null ? null : parent.getTrace(), parent, name, Span.KIND_CLIENT, false);
+    }
+
+    /**
+     * Runs the supplier with the caller's current span, for work handed to another thread.
+     */
+    public static <T> Supplier<T> wrap(Supplier<T> supplier) {
+        Span span = CURRENT.get();
+        if (span == null) {
+            return supplier;
+        }
+        return () -> {
+            Span previous = CURRENT.get();
+            CURRENT.set(span);
+            try {
+                return supplier.get();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    public TraceStatsReport report() {
+        List<TraceStatsReport.Phase> phases = new ArrayList<>();
+        new TreeMap<>(histograms).forEach((name, histogram) -> {
+            PhaseHistogram.Snapshot snapshot = histogram.snapshot();
+            phases.add(new TraceStatsReport.Phase(name, snapshot.count(), snapshot.sumMillis() / Math.max(1, snapshot.count()),
+                    snapshot.percentileMillis(0.5), snapshot.percentileMillis(0.95), snapshot.percentileMillis(0.99),
+                    snapshot.maxMillis(), PhaseHistogram.BOUNDS_MILLIS, snapshot.bucketCounts()));
+        });
+        return new TraceStatsReport(enabled, sampleRatio, TimeUnit.NANOSECONDS.toMillis(slowThresholdNanos), exportedTraces.sum(),
+                droppedTraces.sum(), phases, Instant.now());
+    }
+
+    @Scheduled(initialDelayString = "${tracing.export.interval-millis:10000}", fixedDelayString = "${tracing.export.interval-millis:10000}")
+    public void export() {
+        if (!exporter.isConfigured()) {
+            return;
+        }
+        try {
+            List<Span> spans = new ArrayList<>();
+            List<Span> trace;
+            while ((trace = pending.poll()) != null) {
+                pendingSpans.addAndGet(-trace.size());
+                spans.addAll(trace);
+            }
+            if (!spans.isEmpty()) {
+                exporter.exportSpans(spans);
+            }
+            if (!histograms.isEmpty()) {
+                Map<String, PhaseHistogram.Snapshot> snapshots = new TreeMap<>();
+                histograms.forEach((name, histogram) -> snapshots.put(name, histogram.snapshot()));
+                exporter.exportHistograms(snapshots, epochNanos());
+            }
+        } catch (Exception e) {
+            LOGGER.error("Failed to export traces.", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        export();
+    }
+
+    void end(Span span) {
+        PhaseHistogram histogram = histograms.get(span.getName());
+        if (histogram == null && histograms.size() < MAX_HISTOGRAMS) {
+            histogram = histograms.computeIfAbsent(span.getName(), name -> new PhaseHistogram());
+        }
+        if (histogram != null) {
+            histogram.record(span.getDurationNanos());
+        }
+        if (span.isCurrent() && CURRENT.get() == span) {
+            restore(span.getParent());
+        }
+        Span.Trace trace = span.getTrace();
+        if (trace == null) {
+            return;
+        }
+        if (!span.isRoot()) {
+            trace.finished(span, MAX_SPANS_PER_TRACE);
+            return;
+        }
+        List<Span> spans = trace.end();
+        boolean failed = span.getError() != null;
+        for (int i = 0; i < spans.size() && !failed; i++) {
+            failed = spans.get(i).getError() != null;
+        }
+        if (!trace.sampled && !failed && span.getDurationNanos() < slowThresholdNanos) {
+            return;
+        }
+        List<Span> kept = new ArrayList<>(spans.size() + 1);
+        kept.addAll(spans);
+        kept.add(span);
+        if (pendingSpans.addAndGet(kept.size()) > maxQueuedSpans) {
+            pendingSpans.addAndGet(-kept.size());
+            droppedTraces.increment();
+            return;
+        }
+        pending.add(kept);
+        exportedTraces.increment();
+    }
+
+    private static void restore(Span span) {
+        if (span == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(span);
+        }
+    }
+
+    // 00-<32 hex trace id>-<16 hex parent id>-<flags>; the parent span itself is not ours, so only the trace is continued
+    private static Span.Trace parseTraceparent(String traceparent) {
+        if (traceparent == null || traceparent.length() != 55 || !traceparent.startsWith("00-")) {
+            return null;
+        }
+        String traceId = traceparent.substring(3, 35);
+        String flags = traceparent.substring(53);
+        if (!traceId.matches("[0-9a-f]{32}") || traceId.equals("0".repeat(32)) || !flags.matches("[0-9a-f]{2}")) {
+            return null;
+        }
+        return new Span.Trace(traceId, (Integer.parseInt(flags, 16) & 1) == 1);
+    }
+
+    static String randomHex(int bytes) {
+        StringBuilder hex = new StringBuilder(bytes * 2);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < bytes; i++) {
+            hex.append(Character.forDigit((i == 0 ? random.nextInt(1, 16) : random.nextInt(16)), 16))
+                    .append(Character.forDigit(random.nextInt(16), 16));
+        }
+        return hex.toString();
+    }
+
+    static long epochNanos() {
+        return EPOCH_OFFSET_NANOS + System.nanoTime();
+    }
+}
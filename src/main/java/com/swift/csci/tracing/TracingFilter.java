@@ -0,0 +1,55 @@
+package com.swift.csci.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Opens the root span of every API request. It runs before the Spring Security filter chain and the mutation
+ * throttle, so their time is part of the request span but not of any phase span. Static assets and the long-lived
+ * rule change stream are not traced.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TracingFilter extends OncePerRequestFilter {
+    private final Tracer tracer;
+
+    public TracingFilter(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getServletPath();
+        return path.startsWith("/static/") || path.equals("/ruleChanges") || path.equals("/health") || path.contains(".");
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+        try (Span span = tracer.startRequest(request.getMethod() + " " + request.getServletPath(), request.getHeader("traceparent"))) {
+            span.setAttribute("http.request.method", request.getMethod())
+                    .setAttribute("url.path", request.getServletPath());
+            response.setHeader("traceparent", span.getTraceparent());
+            try {
+                filterChain.doFilter(request, response);
+            } catch (IOException | ServletException | RuntimeException e) {
+                span.setError(e);
+                throw e;
+            } finally {
+                span.setAttribute("http.response.status_code", response.getStatus());
+                if (response.getStatus() >= 500) {
+                    span.setError("HTTP " + response.getStatus());
+                }
+            }
+        }
+    }
+}
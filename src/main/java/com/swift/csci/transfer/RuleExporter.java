@@ -0,0 +1,83 @@
+package com.swift.csci.transfer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.swift.csci.model.SuppressionData;
+import com.swift.csci.model.SuppressionDataFields;
+import com.swift.csci.repository.DynamoDbRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams the rule table as gzip compressed NDJSON (one rule per line, as returned by /getItem) or CSV (a header
+ * with the field names, then one rule per record).
+ * <p>
+ * The table is read one scan page at a time and every page is written out before the next one is read, so memory
+ * use does not grow with the table and the download starts with the first page.
+ */
+@Component
+public class RuleExporter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RuleExporter.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final DynamoDbRepository dynamoDbRepository;
+    private final ObjectWriter itemWriter;
+
+    public RuleExporter(DynamoDbRepository dynamoDbRepository, ObjectMapper objectMapper) {
+        this.dynamoDbRepository = dynamoDbRepository;
+        this.itemWriter = objectMapper.writerFor(SuppressionData.class);
+    }
+
+    public void export(TransferFormat format, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        GZIPOutputStream gzip = new GZIPOutputStream(out, BUFFER_SIZE);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), BUFFER_SIZE);
+        Set<String> columns = SuppressionDataFields.names();
+        CsvWriter csvWriter = new CsvWriter(writer);
+        if (format == TransferFormat.CSV) {
+            csvWriter.write(new ArrayList<>(columns));
+        }
+        long[] count = {0};
+        try {
+            dynamoDbRepository.forEachPage(page -> {
+                try {
+                    for (SuppressionData item : page) {
+                        if (format == TransferFormat.CSV) {
+                            csvWriter.write(csvRecord(item, columns));
+                        } else {
+                            writer.write(itemWriter.writeValueAsString(item));
+                            writer.write('\n');
+                        }
+                    }
+                    count[0] += page.size();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Mostly the client going away mid-download
+            LOGGER.warn("Rule export aborted after " + count[0] + " rules: " + e.getCause().getMessage());
+            throw e.getCause();
+        }
+        writer.flush();
+        gzip.finish();
+        LOGGER.info("Exported " + count[0] + " rules as " + format + " in " + (System.nanoTime() - start) / 1_000_000 + " ms.");
+    }
+
+    private static List<String> csvRecord(SuppressionData item, Set<String> columns) {
+        List<String> values = new ArrayList<>(columns.size());
+        for (Map.Entry<String, Object> field : SuppressionDataFields.project(item, columns).entrySet()) {
+            values.add(field.getValue() == null ? null : field.getValue().toString());
+        }
+        return values;
+    }
+}
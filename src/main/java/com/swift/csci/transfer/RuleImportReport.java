@@ -0,0 +1,126 @@
+package com.swift.csci.transfer;
+
+import java.time.Instant;
+import java.util.List;
+
+public class RuleImportReport {
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    private final TransferFormat format;
+    private final Status status;
+    private final Instant startedAt;
+    private final long elapsedMillis;
+    private final long rowsRead;
+    private final long rowsInvalid;
+    private final long rowsDuplicate;
+    private final long rowsUnchanged;
+    private final long rowsCreated;
+    private final long rowsUpdated;
+    private final long batchesWritten;
+    private final List<RowError> errors;
+    private final String failure;
+
+    public RuleImportReport(TransferFormat format, Status status, Instant startedAt, long elapsedMillis, long rowsRead, long rowsInvalid,
+                            long rowsDuplicate, long rowsUnchanged, long rowsCreated, long rowsUpdated, long batchesWritten,
+                            List<RowError> errors, String failure) {
+        this.format = format;
+        this.status = status;
+        this.startedAt = startedAt;
+        this.elapsedMillis = elapsedMillis;
+        this.rowsRead = rowsRead;
+        this.rowsInvalid = rowsInvalid;
+        this.rowsDuplicate = rowsDuplicate;
+        this.rowsUnchanged = rowsUnchanged;
+        this.rowsCreated = rowsCreated;
+        this.rowsUpdated = rowsUpdated;
+        this.batchesWritten = batchesWritten;
+        this.errors = errors;
+        this.failure = failure;
+    }
+
+    public TransferFormat getFormat() {
+        return format;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getRowsInvalid() {
+        return rowsInvalid;
+    }
+
+    // Rows with the same id and ser_id as a later row of the same chunk, which replaced them
+    public long getRowsDuplicate() {
+        return rowsDuplicate;
+    }
+
+    public long getRowsUnchanged() {
+        return rowsUnchanged;
+    }
+
+    public long getRowsCreated() {
+        return rowsCreated;
+    }
+
+    public long getRowsUpdated() {
+        return rowsUpdated;
+    }
+
+    public long getBatchesWritten() {
+        return batchesWritten;
+    }
+
+    // The first invalid rows only, rowsInvalid has the full count
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public String getFailure() {
+        return failure;
+    }
+
+    public static class RowError {
+        private final long line;
+        private final String id;
+        private final String serId;
+        private final String message;
+
+        public RowError(long line, String id, String serId, String message) {
+            this.line = line;
+            this.id = id;
+            this.serId = serId;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getSerId() {
+            return serId;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
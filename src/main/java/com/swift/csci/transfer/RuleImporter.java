@@ -0,0 +1,456 @@
+package com.swift.csci.transfer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.swift.csci.audit.Action;
+import com.swift.csci.audit.AuditEntryPublisher;
+import com.swift.csci.audit.AuditLogEntry;
+import com.swift.csci.model.SuppressionData;
+import com.swift.csci.model.SuppressionDataFields;
+import com.swift.csci.repository.DynamoDbRepository;
+import com.swift.csci.snapshot.RuleTableCache;
+import com.swift.csci.sync.TableVersionTracker;
+import com.swift.csci.utils.InspectorValidationUtils;
+import com.swift.csci.utils.PatternValidationUtils;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Bulk import of rules from NDJSON or CSV in the /export format, plain or gzip compressed.
+ * <p>
+ * The upload is parsed as it arrives and handled a chunk of rows at a time, so memory use does not grow with the
+ * file. The rows of a chunk are validated in parallel with the same rules as /updateItem (required fields, the
+ * Inspector rules and the regex checks, whose results are shared by the rows of an import). Valid rows are then
+ * compared with the stored rules, loaded with one batch get per chunk, and only new or changed rules are written,
+ * 25 per BatchWriteItem request with a few requests in parallel. Each batch takes a table version like a portal
+ * write, so /changes picks the imported rules up.
+ * <p>
+ * Rather than a rule change event per row, an import is recorded as one audit entry and followed by a reconcile
+ * of the rule table cache; the engine's historic sweeps pick up the imported rules. Only one import runs at a time.
+ */
+@Component
+public class RuleImporter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RuleImporter.class);
+    // Limit of BatchWriteItem
+    private static final int BATCH_SIZE = 25;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String LAST_MODIFIED = "last_modified";
+
+    private final DynamoDbRepository dynamoDbRepository;
+    private final TableVersionTracker tableVersionTracker;
+    private final RuleTableCache ruleTableCache;
+    private final AuditEntryPublisher auditEntryPublisher;
+    private final ObjectReader itemReader;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService writers;
+    private final int chunkSize;
+    private final int maxErrors;
+    private final long progressRows;
+    private final int maxAuditKeys;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile ImportRun lastRun;
+
+    public RuleImporter(DynamoDbRepository dynamoDbRepository, TableVersionTracker tableVersionTracker, RuleTableCache ruleTableCache,
+                        AuditEntryPublisher auditEntryPublisher, ObjectMapper objectMapper,
+                        @Value("${transfer.import.chunk-size:1000}") int chunkSize,
+                        @Value("${transfer.import.max-errors:100}") int maxErrors,
+                        @Value("${transfer.import.progress-rows:10000}") long progressRows,
+                        @Value("${transfer.import.writer-threads:4}") int writerThreads,
+                        @Value("${transfer.import.max-audit-keys:1000}") int maxAuditKeys) {
+        this.dynamoDbRepository = dynamoDbRepository;
+        this.tableVersionTracker = tableVersionTracker;
+        this.ruleTableCache = ruleTableCache;
+        this.auditEntryPublisher = auditEntryPublisher;
+        this.objectMapper = objectMapper;
+        this.itemReader = objectMapper.readerFor(SuppressionData.class);
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+        this.progressRows = progressRows;
+        this.maxAuditKeys = maxAuditKeys;
+        this.writers = Executors.newFixedThreadPool(writerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "rule-import-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Imports the rules read from the body, or returns empty without reading it when another import is running.
+     *
+     * @throws IllegalArgumentException if the file cannot be parsed as a whole (e.g. an unknown CSV column)
+     */
+    public Optional<RuleImportReport> importRules(TransferFormat format, InputStream body) throws IOException {
+        if (!running.compareAndSet(false, true)) {
+            return Optional.empty();
+        }
+        ImportRun run = new ImportRun(format, maxAuditKeys);
+        lastRun = run;
+        try {
+            RowSource rows = format == TransferFormat.CSV ? new CsvRows(decompressed(body)) : new NdjsonRows(decompressed(body));
+            Map<String, InspectorValidationUtils.ValidationResult> patternResults = new ConcurrentHashMap<>();
+            List<ImportRow> chunk = new ArrayList<>(chunkSize);
+            ImportRow row;
+            while ((row = rows.next()) != null) {
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    importChunk(run, chunk, patternResults);
+                    chunk.clear();
+                }
+            }
+            importChunk(run, chunk, patternResults);
+            run.finish(null);
+        } catch (IOException | RuntimeException e) {
+            run.finish(e.getMessage());
+            LOGGER.error("Rule import failed after " + run.rowsRead.get() + " rows.", e);
+            throw e;
+        } finally {
+            running.set(false);
+            // A failed import may have written part of the file, which is recorded all the same
+            if (run.batchesWritten.get() > 0) {
+                ruleTableCache.reconcileSoon();
+                auditEntryPublisher.publish(AuditLogEntry.create(Action.IMPORT, "import", "bulk", run.auditContent()));
+            }
+        }
+        RuleImportReport report = run.report();
+        LOGGER.info("Imported " + report.getRowsRead() + " rows in " + report.getElapsedMillis() + " ms: " + report.getRowsCreated()
+                + " created, " + report.getRowsUpdated() + " updated, " + report.getRowsUnchanged() + " unchanged, "
+                + report.getRowsInvalid() + " invalid.");
+        return Optional.of(report);
+    }
+
+    // Progress of the running import, or the outcome of the last one
+    public Optional<RuleImportReport> status() {
+        ImportRun run = lastRun;
+        return run == null ? Optional.empty() : Optional.of(run.report());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writers.shutdownNow();
+    }
+
+    private void importChunk(ImportRun run, List<ImportRow> chunk, Map<String, InspectorValidationUtils.ValidationResult> patternResults) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<String> problems = chunk.parallelStream()
+                .map(row -> row.error() != null ? row.error() : validate(row.item(), patternResults))
+                .toList();
+
+        // A BatchWriteItem request must not contain the same key twice, the last row for a key wins
+        Map<String, SuppressionData> valid = new LinkedHashMap<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            ImportRow row = chunk.get(i);
+            if (problems.get(i) != null) {
+                run.invalid(row, problems.get(i), maxErrors);
+                continue;
+            }
+            SuppressionData item = row.item();
+            if (item.getProductName().equalsIgnoreCase("Inspector")) {
+                item.setFindingType("Vulnerabilities");
+            } else if (item.getProductName().equalsIgnoreCase("Security Hub")) {
+                item.setFindingType("Industry and Regulatory Standards");
+            }
+            if (valid.put(key(item), item) != null) {
+                run.rowsDuplicate.incrementAndGet();
+            }
+        }
+        run.rowsRead.addAndGet(chunk.size());
+
+        if (!valid.isEmpty()) {
+            Map<String, SuppressionData> existing = new HashMap<>();
+            for (SuppressionData item : dynamoDbRepository.getItems(valid.values())) {
+                existing.put(key(item), item);
+            }
+            List<SuppressionData> changed = new ArrayList<>();
+            for (SuppressionData item : valid.values()) {
+                if (item.equals(existing.get(key(item)))) {
+                    run.rowsUnchanged.incrementAndGet();
+                } else {
+                    changed.add(item);
+                }
+            }
+            write(run, changed, existing.keySet());
+        }
+
+        if (run.rowsRead.get() / progressRows != (run.rowsRead.get() - chunk.size()) / progressRows) {
+            LOGGER.info("Rule import: " + run.rowsRead.get() + " rows read, " + (run.rowsCreated.get() + run.rowsUpdated.get())
+                    + " written, " + run.rowsInvalid.get() + " invalid.");
+        }
+    }
+
+    private void write(ImportRun run, List<SuppressionData> items, Set<String> existingKeys) {
+        List<Future<?>> batches = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += BATCH_SIZE) {
+            List<SuppressionData> batch = items.subList(from, Math.min(items.size(), from + BATCH_SIZE));
+            batches.add(writers.submit(() -> {
+                long version = tableVersionTracker.begin();
+                try {
+                    for (SuppressionData item : batch) {
+                        item.setLastModified(version);
+                    }
+                    dynamoDbRepository.saveItems(batch);
+                } finally {
+                    tableVersionTracker.complete(version);
+                }
+                run.written(batch, existingKeys);
+            }));
+        }
+        for (Future<?> batch : batches) {
+            try {
+                batch.get();
+            } catch (ExecutionException e) {
+                batches.forEach(other -> other.cancel(false));
+                throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : new CompletionException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Rule import interrupted.", e);
+            }
+        }
+    }
+
+    // The checks of /updateItem, so imported rules can be edited in the portal afterwards
+    private static String validate(SuppressionData item, Map<String, InspectorValidationUtils.ValidationResult> patternResults) {
+        if (isBlank(item.getId())) {
+            return "An id (id field) is required.";
+        }
+        if (isBlank(item.getSerId())) {
+            return "A SER Id (ser_id field) is required.";
+        }
+        if (isBlank(item.getSerLink())) {
+            return "A SER link (ser_link field) is required.";
+        }
+        if (isBlank(item.getFindingTitle())) {
+            return "A finding title (finding_title field) is required.";
+        }
+        if (isBlank(item.getProductName())) {
+            return "A product name (product_name field) is required.";
+        }
+        if (isBlank(item.getDueDate())) {
+            return "A due date (due_date field) is required.";
+        }
+        if (InspectorValidationUtils.isInspector(item.getProductName())) {
+            InspectorValidationUtils.ValidationResult result = InspectorValidationUtils.validate(item);
+            if (!result.isValid()) {
+                return result.getErrorMessage();
+            }
+        }
+        String[][] patterns = {
+                {"ResourcePattern", item.getResourcePattern()},
+                {"ResourceType", item.getResourceType()},
+                {"ExtraResourcePattern", item.getExtraResourcePattern()}
+        };
+        for (String[] pattern : patterns) {
+            if (isBlank(pattern[1])) {
+                continue;
+            }
+            // Most rules of a table share a handful of patterns, each is checked once per import
+            InspectorValidationUtils.ValidationResult result = patternResults.computeIfAbsent(pattern[0] + "\n" + pattern[1],
+                    k -> PatternValidationUtils.validatePattern(pattern[0], pattern[1]));
+            if (!result.isValid()) {
+                return result.getErrorMessage();
+            }
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static String key(SuppressionData item) {
+        return item.getId() + "/" + item.getSerId();
+    }
+
+    // Uploads may be compressed (e.g. an unmodified export) or not, told apart by the gzip magic number
+    private static BufferedReader decompressed(InputStream body) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(body, BUFFER_SIZE);
+        in.mark(2);
+        int first = in.read();
+        int second = in.read();
+        in.reset();
+        InputStream data = first == 0x1f && second == 0x8b ? new GZIPInputStream(in, BUFFER_SIZE) : in;
+        return new BufferedReader(new InputStreamReader(data, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    private record ImportRow(long line, SuppressionData item, String error) {
+    }
+
+    private interface RowSource {
+        // Returns null at the end of the input
+        ImportRow next() throws IOException;
+    }
+
+    private final class NdjsonRows implements RowSource {
+        private final BufferedReader reader;
+        private long line;
+
+        private NdjsonRows(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                try {
+                    return new ImportRow(line, itemReader.readValue(text), null);
+                } catch (JsonProcessingException e) {
+                    return new ImportRow(line, null, "Invalid JSON: " + e.getOriginalMessage());
+                }
+            }
+            return null;
+        }
+    }
+
+    private final class CsvRows implements RowSource {
+        private final CsvReader reader;
+        private final List<String> columns;
+
+        private CsvRows(BufferedReader input) throws IOException {
+            this.reader = new CsvReader(input);
+            List<String> header = reader.next();
+            this.columns = new ArrayList<>();
+            if (header == null) {
+                return;
+            }
+            for (String column : header) {
+                String name = column.strip();
+                if (!SuppressionDataFields.names().contains(name)) {
+                    throw new IllegalArgumentException("Unknown CSV column '" + name + "'. Supported columns: "
+                            + String.join(", ", SuppressionDataFields.names()));
+                }
+                columns.add(name);
+            }
+            if (!columns.containsAll(SuppressionDataFields.KEY_FIELDS)) {
+                throw new IllegalArgumentException("The CSV header must contain the columns " + String.join(", ", SuppressionDataFields.KEY_FIELDS) + ".");
+            }
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            List<String> record;
+            while ((record = reader.next()) != null) {
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue;
+                }
+                if (record.size() != columns.size()) {
+                    return new ImportRow(reader.recordLine(), null, "Expected " + columns.size() + " fields but found " + record.size() + ".");
+                }
+                ObjectNode fields = objectMapper.createObjectNode();
+                for (int i = 0; i < columns.size(); i++) {
+                    // The version of the exporting table means nothing to this one, every import writes its own
+                    if (!LAST_MODIFIED.equals(columns.get(i))) {
+                        fields.put(columns.get(i), record.get(i));
+                    }
+                }
+                try {
+                    return new ImportRow(reader.recordLine(), itemReader.readValue(fields), null);
+                } catch (IOException e) {
+                    return new ImportRow(reader.recordLine(), null, "Invalid record: " + e.getMessage());
+                }
+            }
+            return null;
+        }
+    }
+
+    // Counters are read by /importStatus while the import runs
+    private static final class ImportRun {
+        private final TransferFormat format;
+        private final Instant startedAt = Instant.now();
+        private final long startNanos = System.nanoTime();
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong rowsInvalid = new AtomicLong();
+        private final AtomicLong rowsDuplicate = new AtomicLong();
+        private final AtomicLong rowsUnchanged = new AtomicLong();
+        private final AtomicLong rowsCreated = new AtomicLong();
+        private final AtomicLong rowsUpdated = new AtomicLong();
+        private final AtomicLong batchesWritten = new AtomicLong();
+        private final List<RuleImportReport.RowError> errors = new CopyOnWriteArrayList<>();
+        // Keys of the first written rules only, an import of the whole table must not hold every key
+        private final int maxKeys;
+        private final List<String> created = new ArrayList<>();
+        private final List<String> updated = new ArrayList<>();
+        private volatile RuleImportReport.Status status = RuleImportReport.Status.RUNNING;
+        private volatile String failure;
+        private volatile long elapsedNanos;
+
+        private ImportRun(TransferFormat format, int maxKeys) {
+            this.format = format;
+            this.maxKeys = maxKeys;
+        }
+
+        private void invalid(ImportRow row, String message, int maxErrors) {
+            rowsInvalid.incrementAndGet();
+            if (errors.size() < maxErrors) {
+                SuppressionData item = row.item();
+                errors.add(new RuleImportReport.RowError(row.line(), item == null ? null : item.getId(), item == null ? null : item.getSerId(), message));
+            }
+        }
+
+        private synchronized void written(List<SuppressionData> batch, Set<String> existingKeys) {
+            for (SuppressionData item : batch) {
+                boolean keep = created.size() + updated.size() < maxKeys;
+                if (existingKeys.contains(key(item))) {
+                    if (keep) {
+                        updated.add(key(item));
+                    }
+                    rowsUpdated.incrementAndGet();
+                } else {
+                    if (keep) {
+                        created.add(key(item));
+                    }
+                    rowsCreated.incrementAndGet();
+                }
+            }
+            batchesWritten.incrementAndGet();
+        }
+
+        private void finish(String failureMessage) {
+            elapsedNanos = System.nanoTime() - startNanos;
+            failure = failureMessage;
+            status = failureMessage == null ? RuleImportReport.Status.COMPLETED : RuleImportReport.Status.FAILED;
+        }
+
+        private RuleImportReport report() {
+            long elapsed = status == RuleImportReport.Status.RUNNING ? System.nanoTime() - startNanos : elapsedNanos;
+            return new RuleImportReport(format, status, startedAt, elapsed / 1_000_000, rowsRead.get(), rowsInvalid.get(), rowsDuplicate.get(),
+                    rowsUnchanged.get(), rowsCreated.get(), rowsUpdated.get(), batchesWritten.get(), List.copyOf(errors), failure);
+        }
+
+        // The number of rules written and the keys (id/ser_id) of the first ones; the individual changes are in the
+        // rule table's versions
+        private synchronized Map<String, Object> auditContent() {
+            Map<String, Object> content = new LinkedHashMap<>();
+            content.put("format", format);
+            content.put("status", status);
+            content.put("rows_read", rowsRead.get());
+            content.put("rows_invalid", rowsInvalid.get());
+            content.put("rows_unchanged", rowsUnchanged.get());
+            content.put("rows_created", rowsCreated.get());
+            content.put("rows_updated", rowsUpdated.get());
+            content.put("created", List.copyOf(created));
+            content.put("updated", List.copyOf(updated));
+            content.put("keys_truncated", rowsCreated.get() + rowsUpdated.get() > created.size() + updated.size());
+            return content;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.swift.csci.transfer;
+
+/**
+ * File formats of /export and /import. Both are gzip compressed on export; an import may be compressed or not.
+ */
+public enum TransferFormat {
+    NDJSON("ndjson"), CSV("csv");
+
+    private final String extension;
+
+    TransferFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the format is neither ndjson nor csv
+     */
+    public static TransferFormat parse(String format) {
+        for (TransferFormat value : values()) {
+            if (value.extension.equalsIgnoreCase(format.strip())) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Unknown format '" + format + "'. Supported formats: ndjson, csv");
+    }
+}
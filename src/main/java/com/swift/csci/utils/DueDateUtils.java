@@ -0,0 +1,50 @@
+package com.swift.csci.utils;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Parses rule due dates the same way the suppression engine does (Rule._parse_due_date).
+ */
+public final class DueDateUtils {
+
+    // Same formats, in the same order, as the engine: '%Y-%m-%d', '%m/%d/%Y', '%Y/%d/%m'
+    private static final List<DateTimeFormatter> FORMATS = List.of(
+            DateTimeFormatter.ofPattern("yyyy-M-d"),
+            DateTimeFormatter.ofPattern("M/d/yyyy"),
+            DateTimeFormatter.ofPattern("yyyy/d/M")
+    );
+
+    private DueDateUtils() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    public static Optional<LocalDate> parse(String dueDate) {
+        if (dueDate == null || dueDate.isBlank()) {
+            return Optional.empty();
+        }
+        for (DateTimeFormatter format : FORMATS) {
+            try {
+                return Optional.of(LocalDate.parse(dueDate.strip(), format));
+            } catch (DateTimeParseException e) {
+                // try next format
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * A rule is expired the day after its due date (UTC), rules without a parseable due date never expire.
+     */
+    public static boolean isExpired(String dueDate, LocalDate today) {
+        return parse(dueDate).map(today::isAfter).orElse(false);
+    }
+
+    public static LocalDate todayUtc() {
+        return LocalDate.now(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,180 @@
+package com.swift.csci.utils;
+
+import com.swift.csci.model.SuppressionData;
+import com.swift.csci.utils.InspectorValidationUtils.ValidationResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Save-time validation of the regular expressions the suppression engine runs with re.search
+ * against every finding (resource_pattern, resource_type and extra_resource_pattern).
+ * A pattern is rejected when it does not compile, has a catastrophic-backtracking shape,
+ * or exceeds the matching step budget on a corpus of sample and adversarial resource ids.
+ * <p>
+ * The budget counts the characters the matcher reads rather than wall-clock time, so the outcome does not depend
+ * on the machine. An unanchored search (re.search) already costs up to n^2 reads for a linear pattern such as
+ * .*-main-aws, so the budget per input is a multiple of its squared length: patterns that stay linear per start
+ * position always pass, cubic and exponential ones exhaust it.
+ */
+public final class PatternValidationUtils {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PatternValidationUtils.class);
+
+    private static final int MAX_PATTERN_LENGTH = 1024;
+    // Longer than real resource ids, long enough that a cubic pattern cannot fit in a quadratic budget
+    private static final int ADVERSARIAL_INPUT_LENGTH = 512;
+    // Character reads allowed per trial input, as a multiple of its squared length
+    private static final long STEPS_PER_SQUARED_LENGTH = 8;
+
+    // A group whose body contains an unbounded quantifier, itself followed by an unbounded quantifier, e.g. (a+)+ or (\w*\.)*
+    private static final Pattern NESTED_QUANTIFIER = Pattern.compile("\\((?:\\\\.|[^\\\\()])*?(?:\\\\.|[^\\\\()])(?:[+*]|\\{\\d+,\\})(?:\\\\.|[^\\\\()])*\\)(?:[+*]|\\{\\d+,\\})");
+    // A quantified group of alternatives, e.g. (a|ab)* - flagged when one alternative is a prefix of another
+    private static final Pattern QUANTIFIED_ALTERNATION = Pattern.compile("\\(((?:\\\\.|[^\\\\()])*\\|(?:\\\\.|[^\\\\()])*)\\)(?:[+*]|\\{\\d+,\\})");
+
+    private static final List<String> SAMPLE_RESOURCE_IDS = List.of(
+            "arn:aws:s3:::sw-csci-audit-logs-live-495854164695-eu-central-1-main-aws",
+            "arn:aws:ec2:eu-central-1:123456789012:instance/i-0abcd1234efgh5678",
+            "arn:aws:ec2:eu-central-1:123456789012:security-group/sg-0123456789abcdef0",
+            "arn:aws:iam::123456789012:role/sw-csci-cross-account-dynamodb-role",
+            "arn:aws:iam::123456789012:instance-profile/sw-ec2-default-profile",
+            "arn:aws:lambda:eu-central-1:123456789012:function:sw-security-hub-batch-update-suppression-lambda-v2-main-aws",
+            "arn:aws:ecr:eu-central-1:123456789012:repository/sw-csci/sha256:0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef",
+            "arn:aws:kms:eu-central-1:123456789012:key/1234abcd-12ab-34cd-56ef-1234567890ab",
+            "AWS::::Account:123456789012",
+            "AwsEc2Instance", "AwsS3Bucket", "AwsIamRole", "AwsLambdaFunction", "AwsEcrContainerImage", "AwsEc2SecurityGroup",
+            "sw-ec2-keypair", "default"
+    );
+
+    private static final List<String> TRIAL_CORPUS = buildTrialCorpus();
+
+    private PatternValidationUtils() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    public static ValidationResult validate(SuppressionData input) {
+        ValidationResult result = validatePattern("ResourcePattern", input.getResourcePattern());
+        if (result.isValid()) {
+            result = validatePattern("ResourceType", input.getResourceType());
+        }
+        if (result.isValid()) {
+            result = validatePattern("ExtraResourcePattern", input.getExtraResourcePattern());
+        }
+        return result;
+    }
+
+    public static ValidationResult validatePattern(String fieldName, String regex) {
+        if (regex == null || regex.isBlank()) {
+            return ValidationResult.success();
+        }
+
+        if (regex.length() > MAX_PATTERN_LENGTH) {
+            LOGGER.error("Pattern validation failed: {} is longer than {} characters", fieldName, MAX_PATTERN_LENGTH);
+            return ValidationResult.error(fieldName + " must not be longer than " + MAX_PATTERN_LENGTH + " characters.");
+        }
+
+        Pattern pattern;
+        try {
+            pattern = Pattern.compile(toJavaSyntax(regex));
+        } catch (PatternSyntaxException e) {
+            LOGGER.error("Pattern validation failed: {} is not a valid regular expression - {}", fieldName, regex);
+            return ValidationResult.error(fieldName + " is not a valid regular expression: " + e.getDescription());
+        }
+
+        if (NESTED_QUANTIFIER.matcher(regex).find()) {
+            LOGGER.error("Pattern validation failed: {} has nested quantifiers - {}", fieldName, regex);
+            return ValidationResult.error(fieldName + " contains a nested quantifier such as (a+)+ which can cause catastrophic backtracking.");
+        }
+
+        Matcher alternation = QUANTIFIED_ALTERNATION.matcher(regex);
+        while (alternation.find()) {
+            if (hasOverlappingAlternatives(alternation.group(1))) {
+                LOGGER.error("Pattern validation failed: {} has a repeated overlapping alternation - {}", fieldName, regex);
+                return ValidationResult.error(fieldName + " repeats overlapping alternatives such as (a|ab)* which can cause catastrophic backtracking.");
+            }
+        }
+
+        try {
+            for (String input : TRIAL_CORPUS) {
+                long length = input.length() + 1L;
+                pattern.matcher(new StepCountingCharSequence(input, new long[]{STEPS_PER_SQUARED_LENGTH * length * length})).find();
+            }
+        } catch (MatchBudgetExceededException e) {
+            LOGGER.error("Pattern validation failed: {} exceeded the matching budget - {}", fieldName, regex);
+            return ValidationResult.error(fieldName + " is too expensive to evaluate against resource ids. Simplify the expression.");
+        }
+
+        return ValidationResult.success();
+    }
+
+    // The engine uses Python's re module; translate its named group syntax so the pattern compiles in Java
+    private static String toJavaSyntax(String regex) {
+        return regex.replace("(?P<", "(?<").replaceAll("\\(\\?P=(\\w+)\\)", "\\\\k<$1>");
+    }
+
+    private static boolean hasOverlappingAlternatives(String body) {
+        String[] alternatives = (body.startsWith("?:") ? body.substring(2) : body).split("(?<!\\\\)\\|", -1);
+        for (int i = 0; i < alternatives.length; i++) {
+            for (int j = 0; j < alternatives.length; j++) {
+                if (i != j && alternatives[j].startsWith(alternatives[i])) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static List<String> buildTrialCorpus() {
+        List<String> corpus = new ArrayList<>(SAMPLE_RESOURCE_IDS);
+        // Long runs of ARN characters with a non-matching tail force backtracking patterns into their worst case
+        for (String unit : List.of("a", "0", "-", ":", "/", ".", "_", " ", "a-", "a:", "a/")) {
+            corpus.add(unit.repeat(ADVERSARIAL_INPUT_LENGTH / unit.length()) + "!");
+        }
+        corpus.add("arn:aws:s3:::" + "a".repeat(ADVERSARIAL_INPUT_LENGTH) + "!");
+        return corpus;
+    }
+
+    private static final class MatchBudgetExceededException extends RuntimeException {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private MatchBudgetExceededException() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * java.util.regex reads its input through charAt, so counting the reads there bounds the matching work
+     * without a separate thread. Sub-sequences share the remaining steps.
+     */
+    private record StepCountingCharSequence(CharSequence delegate, long[] remainingSteps) implements CharSequence {
+
+        @Override
+        public char charAt(int index) {
+            if (--remainingSteps[0] < 0) {
+                throw new MatchBudgetExceededException();
+            }
+            return delegate.charAt(index);
+        }
+
+        @Override
+        public int length() {
+            return delegate.length();
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new StepCountingCharSequence(delegate.subSequence(start, end), remainingSteps);
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+}
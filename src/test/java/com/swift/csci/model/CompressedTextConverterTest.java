@@ -0,0 +1,82 @@
+package com.swift.csci.model;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedTextConverterTest {
+    private final CompressedTextConverter converter = new CompressedTextConverter();
+
+    @Test
+    void keepsShortTextsPlain() {
+        AttributeValue value = converter.convert("Accepted risk");
+
+        assertEquals("Accepted risk", value.getS());
+        assertNull(value.getB());
+        assertEquals("Accepted risk", converter.unconvert(value));
+    }
+
+    @Test
+    void compressesLongTexts() {
+        String text = "123456789012,".repeat(40);
+
+        AttributeValue value = converter.convert(text);
+
+        assertNull(value.getS());
+        byte[] bytes = bytes(value.getB());
+        assertArrayEquals(new byte[]{'c', 'z', 1}, Arrays.copyOf(bytes, 3));
+        assertTrue(bytes.length < text.length());
+        assertEquals(text, converter.unconvert(value));
+    }
+
+    @Test
+    void compressesFromTheThresholdInUtf8Bytes() {
+        String belowThreshold = "a".repeat(CompressedTextConverter.THRESHOLD_BYTES - 1);
+        String atThreshold = "a".repeat(CompressedTextConverter.THRESHOLD_BYTES);
+        // Two bytes per character in UTF-8
+        String multiByte = "\u00e4".repeat(CompressedTextConverter.THRESHOLD_BYTES / 2);
+
+        assertNotNull(converter.convert(belowThreshold).getS());
+        assertNotNull(converter.convert(atThreshold).getB());
+        assertNotNull(converter.convert(multiByte).getB());
+        assertEquals(multiByte, converter.unconvert(converter.convert(multiByte)));
+    }
+
+    @Test
+    void readsLegacyPlainLongTexts() {
+        // Written before the converter existed
+        String text = "Accepted risk, compensating control in place. ".repeat(10);
+
+        assertEquals(text, converter.unconvert(new AttributeValue(text)));
+    }
+
+    @Test
+    void handlesEmptyAndNullValues() {
+        assertEquals("", converter.convert("").getS());
+        assertEquals("", converter.unconvert(new AttributeValue("")));
+        assertNull(converter.convert(null));
+        assertNull(converter.unconvert(new AttributeValue().withNULL(true)));
+    }
+
+    @Test
+    void rejectsBinaryValuesOfUnknownFormat() {
+        AttributeValue unknown = new AttributeValue().withB(ByteBuffer.wrap("plain".getBytes(StandardCharsets.UTF_8)));
+        byte[] compressed = bytes(converter.convert("x".repeat(1000)).getB());
+        AttributeValue truncated = new AttributeValue().withB(ByteBuffer.wrap(Arrays.copyOf(compressed, compressed.length - 4)));
+
+        assertThrows(IllegalArgumentException.class, () -> converter.unconvert(unknown));
+        assertThrows(IllegalArgumentException.class, () -> converter.unconvert(truncated));
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        ByteBuffer copy = buffer.duplicate();
+        byte[] bytes = new byte[copy.remaining()];
+        copy.get(bytes);
+        return bytes;
+    }
+}
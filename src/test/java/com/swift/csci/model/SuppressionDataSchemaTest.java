@@ -0,0 +1,156 @@
+package com.swift.csci.model;
+
+import com.amazonaws.auth.AWSStaticCredentialsProvider;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.client.builder.AwsClientBuilder;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperTableModel;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+// SuppressionDataSchema has to produce and read exactly the items of DynamoDBMapper for the annotations of SuppressionData
+class SuppressionDataSchemaTest {
+    private static final String LONG_TEXT = "Accepted risk, compensating control in place. ".repeat(10);
+
+    private AmazonDynamoDB client;
+    private DynamoDBMapper mapper;
+    private DynamoDBMapperTableModel<SuppressionData> tableModel;
+
+    @BeforeEach
+    void setUp() {
+        // Only backs the mapper, no request is sent
+        client = AmazonDynamoDBClientBuilder.standard()
+                .withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration("http://localhost:8000", "eu-central-1"))
+                .withCredentials(new AWSStaticCredentialsProvider(new BasicAWSCredentials("test", "test")))
+                .build();
+        mapper = new DynamoDBMapper(client);
+        tableModel = mapper.getTableModel(SuppressionData.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.shutdown();
+    }
+
+    @Test
+    void writesAllAttributesLikeTheMapper() {
+        SuppressionData rule = fullRule();
+
+        Map<String, AttributeValue> item = SuppressionDataSchema.toItem(rule);
+
+        assertEquals(tableModel.convert(rule), item);
+        assertEquals(16, item.size());
+    }
+
+    @Test
+    void writesLongTextsCompressedLikeTheMapper() {
+        SuppressionData rule = fullRule();
+        rule.setDescription(LONG_TEXT);
+        rule.setAccountInclusion("123456789012,".repeat(40));
+
+        Map<String, AttributeValue> item = SuppressionDataSchema.toItem(rule);
+
+        assertEquals(tableModel.convert(rule), item);
+        assertNotNull(item.get("description").getB());
+        assertNotNull(item.get("account_inclusion").getB());
+    }
+
+    @Test
+    void leavesOutEmptyPlainStringsAndAbsentLastModified() {
+        SuppressionData rule = new SuppressionData();
+        rule.setId("CVE-2024-1");
+        rule.setSerId("SER-1");
+        rule.setProductName("Inspector");
+        rule.setResourceType(null);
+        rule.setLastModified(null);
+
+        Map<String, AttributeValue> item = SuppressionDataSchema.toItem(rule);
+
+        assertEquals(tableModel.convert(rule), item);
+        assertFalse(item.containsKey("last_modified"));
+        assertFalse(item.containsKey("finding_title"));
+        assertFalse(item.containsKey("resource_type"));
+        // Converted attributes keep their empty value
+        assertEquals("", item.get("description").getS());
+    }
+
+    @Test
+    void readsAllAttributesLikeTheMapper() {
+        SuppressionData rule = fullRule();
+        rule.setDescription(LONG_TEXT);
+        Map<String, AttributeValue> item = tableModel.convert(rule);
+
+        SuppressionData read = SuppressionDataSchema.fromItem(item);
+
+        assertThat(read).usingRecursiveComparison().isEqualTo(mapper.marshallIntoObject(SuppressionData.class, item));
+        assertThat(read).usingRecursiveComparison().isEqualTo(rule);
+    }
+
+    @Test
+    void readsItemsWithMissingAttributesLikeTheMapper() {
+        // As returned for a projection, or for a rule written before last_modified existed
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("id", new AttributeValue("CVE-2024-1"));
+        item.put("ser_id", new AttributeValue("SER-1"));
+        item.put("due_date", new AttributeValue("2027-01-01"));
+
+        SuppressionData read = SuppressionDataSchema.fromItem(item);
+
+        assertThat(read).usingRecursiveComparison().isEqualTo(mapper.marshallIntoObject(SuppressionData.class, item));
+        assertEquals(0L, read.getLastModified());
+        assertEquals("", read.getDescription());
+    }
+
+    @Test
+    void readsLegacyPlainTextsAndIgnoresUnknownAttributesLikeTheMapper() {
+        Map<String, AttributeValue> item = tableModel.convert(fullRule());
+        item.put("description", new AttributeValue(LONG_TEXT));
+        item.put("UpdatedBy", new AttributeValue("SuppressionRuleEngine"));
+
+        SuppressionData read = SuppressionDataSchema.fromItem(item);
+
+        assertThat(read).usingRecursiveComparison().isEqualTo(mapper.marshallIntoObject(SuppressionData.class, item));
+        assertEquals(LONG_TEXT, read.getDescription());
+    }
+
+    @Test
+    void roundTripsThroughBothDirections() {
+        SuppressionData rule = fullRule();
+        rule.setResourcePattern("arn:aws:lambda:.*:function:service-.*".repeat(10));
+
+        SuppressionData read = SuppressionDataSchema.fromItem(SuppressionDataSchema.toItem(rule));
+
+        assertThat(read).usingRecursiveComparison().isEqualTo(rule);
+    }
+
+    private static SuppressionData fullRule() {
+        SuppressionData rule = new SuppressionData();
+        rule.setId("CVE-2024-1");
+        rule.setSerId("SER-1");
+        rule.setFindingTitle("Finding title");
+        rule.setFindingType("Vulnerabilities");
+        rule.setProductName("Inspector");
+        rule.setSerLink("https://ser.example.com/SER-1");
+        rule.setDueDate("2027-01-01");
+        rule.setDescription("Accepted risk");
+        rule.setAccountException("210987654321");
+        rule.setAccountInclusion("123456789012");
+        rule.setFromSeverity("HIGH");
+        rule.setToSeverity("LOW");
+        rule.setResourceType("AwsLambdaFunction");
+        rule.setResourcePattern("arn:aws:lambda:.*:function:service-.*");
+        rule.setExtraResourcePattern(".*-main-aws");
+        rule.setLastModified(1_700_000_000_000L);
+        return rule;
+    }
+}
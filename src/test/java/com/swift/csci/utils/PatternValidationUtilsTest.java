@@ -0,0 +1,86 @@
+package com.swift.csci.utils;
+
+import com.swift.csci.model.SuppressionData;
+import com.swift.csci.utils.InspectorValidationUtils.ValidationResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PatternValidationUtilsTest {
+
+    // Patterns as they are used in the rule table and in backend/insert-rules.sh
+    @ParameterizedTest
+    @ValueSource(strings = {
+            ".*-main-aws",
+            ".*sw-csci.*",
+            ".*\\.log",
+            ".*",
+            "AwsLambdaFunction",
+            "AwsEc2.*",
+            "AwsEc2Instance|AwsEc2SecurityGroup",
+            "arn:aws:s3:::sw-csci-.*",
+            "^arn:aws:iam::\\d{12}:role/.*$",
+            "arn:aws:lambda:.*:.*:function:aws-landing-zone-config.*:\\$LATEST",
+            "arn:aws:lambda:.*:.*:function:.*-controltower-custom.*:\\$LATEST",
+            "arn:aws:lambda:eu-west-1:593000275026:function:aws-controltower-customiz-CustomControlTowerLELamb-1TZ7YXNEXYP39:\\$LATEST",
+            "sw-ec2-(keypair|default)",
+            "(?P<account>\\d{12}):role/(?P=account)"
+    })
+    void acceptsRealPatterns(String pattern) {
+        ValidationResult result = PatternValidationUtils.validatePattern("ResourcePattern", pattern);
+        assertTrue(result.isValid(), () -> pattern + ": " + result.getErrorMessage());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "(a+)+$",
+            "^(\\d+)*$",
+            "(\\w*\\.)*x",
+            "(a|ab)*c",
+            "(x+x+)+y"
+    })
+    void rejectsCatastrophicBacktrackingShapes(String pattern) {
+        assertFalse(PatternValidationUtils.validatePattern("ResourcePattern", pattern).isValid(), pattern);
+    }
+
+    // Not caught by the shape checks, only by the matching budget
+    @ParameterizedTest
+    @ValueSource(strings = {
+            ".*a.*a.*!x",
+            "(.*a){4}!x",
+            "a*a*a*b",
+            "\\w*\\w*\\w*!x"
+    })
+    void rejectsPolynomialBacktracking(String pattern) {
+        ValidationResult result = PatternValidationUtils.validatePattern("ResourcePattern", pattern);
+        assertFalse(result.isValid(), pattern);
+        assertTrue(result.getErrorMessage().contains("too expensive"), result.getErrorMessage());
+    }
+
+    @Test
+    void rejectsInvalidAndOverlongPatterns() {
+        assertFalse(PatternValidationUtils.validatePattern("ResourcePattern", "arn:aws:(s3").isValid());
+        assertFalse(PatternValidationUtils.validatePattern("ResourcePattern", "a".repeat(1025)).isValid());
+    }
+
+    @Test
+    void acceptsEmptyPatterns() {
+        assertTrue(PatternValidationUtils.validatePattern("ResourcePattern", null).isValid());
+        assertTrue(PatternValidationUtils.validatePattern("ResourcePattern", " ").isValid());
+    }
+
+    @Test
+    void validatesEveryPatternField() {
+        SuppressionData rule = new SuppressionData();
+        rule.setResourcePattern(".*-main-aws");
+        rule.setResourceType("AwsLambdaFunction");
+        rule.setExtraResourcePattern("(a+)+$");
+
+        ValidationResult result = PatternValidationUtils.validate(rule);
+
+        assertFalse(result.isValid());
+        assertTrue(result.getErrorMessage().startsWith("ExtraResourcePattern"), result.getErrorMessage());
+    }
+}